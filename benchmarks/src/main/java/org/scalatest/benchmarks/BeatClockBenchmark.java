@@ -0,0 +1,126 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scalatest.concurrent.BeatClock;
+
+/**
+ * Measures the time a <code>Conductor</code>'s clock takes to advance a beat and wake the threads waiting for it, with
+ * 1000 threads waiting, against the old monitor-based <code>MonitorBeatClock</code>. Each waiting thread waits for every
+ * <code>spread</code>th beat, so with a spread of 10, only a tenth of the threads are waiting for any one beat. Each
+ * invocation advances the beat, then waits until every thread waiting for it has returned from <code>waitForBeat</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeatClockBenchmark {
+
+  @Param({"beatClock", "monitorBeatClock"})
+  public String clock;
+
+  @Param({"1000"})
+  public int threadCount;
+
+  @Param({"1", "10"})
+  public int spread;
+
+  private interface Clock {
+    void advance();
+    void waitForBeat(int beat) throws InterruptedException;
+  }
+
+  private Clock beats;
+  private final List<Thread> waitingThreads = new ArrayList<Thread>();
+  private final AtomicLong returned = new AtomicLong();
+  private volatile boolean running;
+  private long expectedReturns;
+  private int currentBeat;
+
+  @Setup
+  public void setUp() {
+    if (clock.equals("beatClock")) {
+      final BeatClock beatClock = new BeatClock();
+      beats = new Clock() {
+        public void advance() { beatClock.advance(); }
+        public void waitForBeat(int beat) { beatClock.waitForBeat(beat); }
+      };
+    }
+    else {
+      final MonitorBeatClock monitorBeatClock = new MonitorBeatClock();
+      beats = new Clock() {
+        public void advance() { monitorBeatClock.advance(); }
+        public void waitForBeat(int beat) throws InterruptedException { monitorBeatClock.waitForBeat(beat); }
+      };
+    }
+    running = true;
+    expectedReturns = 0;
+    currentBeat = 0;
+    returned.set(0);
+    for (int i = 0; i < threadCount; i++) {
+      final int firstBeat = i % spread + 1;
+      Thread thread = new Thread() {
+        public void run() {
+          try {
+            for (int beat = firstBeat; running; beat += spread) {
+              beats.waitForBeat(beat);
+              returned.incrementAndGet();
+            }
+          }
+          catch (InterruptedException e) {
+          }
+        }
+      };
+      thread.setDaemon(true);
+      thread.start();
+      waitingThreads.add(thread);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    running = false;
+    for (int i = 0; i < spread; i++)
+      beats.advance();
+    for (Thread thread : waitingThreads)
+      thread.join();
+    waitingThreads.clear();
+  }
+
+  @Benchmark
+  public long advance() {
+    currentBeat += 1;
+    // The threads whose first beat is congruent to this beat, modulo spread
+    int woken = threadCount / spread + ((currentBeat - 1) % spread < threadCount % spread ? 1 : 0);
+    expectedReturns += woken;
+    beats.advance();
+    while (returned.get() < expectedReturns)
+      Thread.yield();
+    return returned.get();
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.scalatest.DispatchReporter;
+import org.scalatest.events.Event;
+
+/**
+ * Measures the throughput, in events per millisecond, of a <code>DispatchReporter</code> with 4 reporters, with and
+ * without pipelining. Each invocation fires 10000 events at a fresh <code>DispatchReporter</code> and waits until
+ * every reporter has been handed all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DispatchReporterBenchmark {
+
+  private static final int EventCount = 10000;
+
+  @Param({"false", "true"})
+  public boolean pipelined;
+
+  private Event[] events;
+
+  @Setup
+  public void setUp() {
+    events = BenchmarkFixtures.testSucceededEvents(EventCount);
+  }
+
+  @Benchmark @OperationsPerInvocation(EventCount)
+  public DispatchReporter dispatch() {
+    DispatchReporter dispatch = BenchmarkFixtures.dispatchReporter(4, pipelined);
+    for (Event event : events)
+      dispatch.apply(event);
+    dispatch.dispatchDisposeAndWaitUntilDone();
+    return dispatch;
+  }
+}
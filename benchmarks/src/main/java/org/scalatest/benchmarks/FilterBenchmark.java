@@ -0,0 +1,66 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.scalatest.Filter;
+import scala.collection.immutable.List;
+import scala.collection.immutable.Map;
+import scala.collection.immutable.Set;
+
+/**
+ * Measures <code>Filter.apply</code> and <code>Filter.runnableTestCount</code> over the 1000 tests of a suite, each with
+ * 4 tags, when tags are drawn from a set of 16 up to 1024, half of which are included and a quarter excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBenchmark {
+
+  private static final int TestCount = 1000;
+
+  @Param({"16", "128", "1024"})
+  public int tagCount;
+
+  private Filter filter;
+  private Set<String> testNames;
+  private Map<String, Set<String>> testTags;
+
+  @Setup
+  public void setUp() {
+    filter = BenchmarkFixtures.filter(tagCount);
+    testNames = BenchmarkFixtures.testNames(TestCount);
+    testTags = BenchmarkFixtures.testTags(TestCount, tagCount, 4);
+  }
+
+  @Benchmark
+  public List<?> apply() {
+    return filter.apply(testNames, testTags, "aSuite");
+  }
+
+  @Benchmark
+  public int runnableTestCount() {
+    return filter.runnableTestCount(testNames, testTags, "aSuite");
+  }
+}
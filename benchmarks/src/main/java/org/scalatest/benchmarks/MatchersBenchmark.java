@@ -0,0 +1,60 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import scala.collection.immutable.List;
+
+/**
+ * Measures the passing matcher expressions <code>xs should equal (ys)</code>, where <code>ys</code> is an equal
+ * but distinct list, and <code>xs should contain (x)</code>, where <code>x</code> is the last element, on lists of
+ * 1000 and 100000 elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchersBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  private List<Object> xs;
+  private List<Object> ys;
+
+  @Setup
+  public void setUp() {
+    xs = BenchmarkFixtures.ints(size);
+    ys = BenchmarkFixtures.ints(size);
+  }
+
+  @Benchmark
+  public void shouldEqual() {
+    BenchmarkFixtures.shouldEqual(xs, ys);
+  }
+
+  @Benchmark
+  public void shouldContain() {
+    BenchmarkFixtures.shouldContain(xs, size - 1);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The clock <code>Conductor</code> used before it was made lock-free, in which every thread waiting for any beat
+ * waits on one monitor, and reading the beat takes both the monitor and the read lock, kept as the baseline
+ * <code>BeatClockBenchmark</code> measures against.
+ */
+public final class MonitorBeatClock {
+
+  private final Object lock = new Object();
+  private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+  private int currentTime = 0;
+
+  public void advance() {
+    synchronized (lock) {
+      rwLock.writeLock().lock();
+      try {
+        currentTime += 1;
+      }
+      finally {
+        rwLock.writeLock().unlock();
+      }
+      lock.notifyAll();
+    }
+  }
+
+  public int currentBeat() {
+    synchronized (lock) {
+      rwLock.readLock().lock();
+      try {
+        return currentTime;
+      }
+      finally {
+        rwLock.readLock().unlock();
+      }
+    }
+  }
+
+  public void waitForBeat(int beat) throws InterruptedException {
+    synchronized (lock) {
+      while (currentBeat() < beat)
+        lock.wait();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.scalatest.events.Ordinal;
+
+/**
+ * Measures <code>Ordinal.next</code>, and <code>Ordinal.compare</code> between ordinals that differ only in their last
+ * element, at the nesting depths of a flat suite and of suites nested several levels deep.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrdinalBenchmark {
+
+  @Param({"1", "8", "32"})
+  public int depth;
+
+  private Ordinal ordinal;
+  private Ordinal sibling;
+
+  @Setup
+  public void setUp() {
+    Ordinal o = new Ordinal(0);
+    for (int i = 1; i < depth; i++)
+      o = o.nextNewOldPair()._1().next();
+    ordinal = o;
+    sibling = o.next();
+  }
+
+  @Benchmark
+  public Ordinal next() {
+    return ordinal.next();
+  }
+
+  @Benchmark
+  public int compare() {
+    return ordinal.compare(sibling);
+  }
+}
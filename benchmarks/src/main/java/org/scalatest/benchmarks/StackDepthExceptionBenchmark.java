@@ -0,0 +1,58 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.scalatest.exceptions.TestFailedException;
+import scala.Option;
+
+/**
+ * Measures constructing a <code>TestFailedException</code>, the <code>StackDepthException</code> thrown by every
+ * failed assertion, with 10 and 200 frames on the stack, both alone and together with looking up the file name and
+ * line number of the failed code, as reporters do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StackDepthExceptionBenchmark {
+
+  @Param({"10", "200"})
+  public int stackDepth;
+
+  @Benchmark
+  public TestFailedException construct() {
+    return constructAt(stackDepth);
+  }
+
+  @Benchmark
+  public Option<String> constructAndLocate() {
+    return constructAt(stackDepth).failedCodeFileNameAndLineNumberString();
+  }
+
+  private static TestFailedException constructAt(int depth) {
+    if (depth <= 1)
+      return new TestFailedException("1 did not equal 2", 1);
+    else
+      return constructAt(depth - 1);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import org.scalatest.events.Ordinal;
+import scala.Tuple2;
+
+/**
+ * The lock-based implementation <code>org.scalatest.Tracker</code> used before it was made non-blocking, kept
+ * as the baseline <code>TrackerBenchmark</code> measures against.
+ */
+public final class SynchronizedTracker {
+
+  private Ordinal currentOrdinal;
+
+  public SynchronizedTracker(Ordinal firstOrdinal) {
+    currentOrdinal = firstOrdinal;
+  }
+
+  public synchronized Ordinal nextOrdinal() {
+    Ordinal ordinalToReturn = currentOrdinal;
+    currentOrdinal = currentOrdinal.next();
+    return ordinalToReturn;
+  }
+
+  public synchronized SynchronizedTracker nextTracker() {
+    Tuple2<Ordinal, Ordinal> pair = currentOrdinal.nextNewOldPair();
+    currentOrdinal = pair._2();
+    return new SynchronizedTracker(pair._1());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.scalatest.Tracker;
+import org.scalatest.events.Ordinal;
+
+/**
+ * Measures the throughput of <code>Tracker.nextOrdinal</code> and <code>Tracker.nextTracker</code> when 1, 8, and
+ * 64 threads share one <code>Tracker</code>, as they do when suites run in parallel, against the old
+ * lock-based <code>SynchronizedTracker</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrackerBenchmark {
+
+  private Tracker tracker;
+  private SynchronizedTracker synchronizedTracker;
+
+  // A fresh tracker for each iteration, so the ordinals handed out don't grow without bound
+  @Setup(Level.Iteration)
+  public void setUp() {
+    tracker = new Tracker(new Ordinal(0));
+    synchronizedTracker = new SynchronizedTracker(new Ordinal(0));
+  }
+
+  @Benchmark @Threads(1)
+  public Ordinal nextOrdinal_1() {
+    return tracker.nextOrdinal();
+  }
+
+  @Benchmark @Threads(8)
+  public Ordinal nextOrdinal_8() {
+    return tracker.nextOrdinal();
+  }
+
+  @Benchmark @Threads(64)
+  public Ordinal nextOrdinal_64() {
+    return tracker.nextOrdinal();
+  }
+
+  @Benchmark @Threads(1)
+  public Ordinal synchronizedNextOrdinal_1() {
+    return synchronizedTracker.nextOrdinal();
+  }
+
+  @Benchmark @Threads(8)
+  public Ordinal synchronizedNextOrdinal_8() {
+    return synchronizedTracker.nextOrdinal();
+  }
+
+  @Benchmark @Threads(64)
+  public Ordinal synchronizedNextOrdinal_64() {
+    return synchronizedTracker.nextOrdinal();
+  }
+
+  @Benchmark @Threads(8)
+  public Tracker nextTracker_8() {
+    return tracker.nextTracker();
+  }
+
+  @Benchmark @Threads(8)
+  public SynchronizedTracker synchronizedNextTracker_8() {
+    return synchronizedTracker.nextTracker();
+  }
+}
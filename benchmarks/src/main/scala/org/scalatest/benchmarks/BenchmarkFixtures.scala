@@ -0,0 +1,103 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.benchmarks
+
+import org.scalatest._
+import org.scalatest.events._
+
+/**
+ * The Scala side of the benchmarks: fixtures built from Scala collections, and code such as matcher expressions and
+ * suites that register their tests in their constructors, which can't be written naturally in Java.
+ */
+object BenchmarkFixtures {
+
+  // Matchers and Inspectors
+
+  def ints(count: Int): List[Int] = List.range(0, count)
+
+  def intVector(count: Int): Vector[Int] = Vector.range(0, count)
+
+  def shouldEqual(left: List[Int], right: List[Int]) {
+    MatcherExpressions.shouldEqual(left, right)
+  }
+
+  def shouldContain(left: List[Int], element: Int) {
+    MatcherExpressions.shouldContain(left, element)
+  }
+
+  def forAllNonNegative(xs: Vector[Int]) {
+    Inspectors.forAll(xs) { x => Assertions.assert(x >= 0) }
+  }
+
+  // Filter
+
+  def testNames(testCount: Int): Set[String] = (for (i <- 0 until testCount) yield "test " + i).toSet
+
+  // Gives each test tagsPerTest of the tagCount tags, spread evenly
+  def testTags(testCount: Int, tagCount: Int, tagsPerTest: Int): Map[String, Set[String]] =
+    (for (i <- 0 until testCount) yield {
+      "test " + i -> (for (j <- 0 until tagsPerTest) yield tagName((i + j * (tagCount / tagsPerTest)) % tagCount)).toSet
+    }).toMap
+
+  // Includes the first half of the tags, and excludes every fourth one
+  def filter(tagCount: Int): Filter = {
+    val tagsToInclude = (for (i <- 0 until tagCount / 2) yield tagName(i)).toSet
+    val tagsToExclude = (for (i <- 0 until tagCount by 4) yield tagName(i)).toSet
+    Filter(Some(tagsToInclude), tagsToExclude + "org.scalatest.Ignore")
+  }
+
+  private def tagName(i: Int) = "com.example.tags.Tag" + i
+
+  // Engine
+
+  def funSuiteWithTests(testCount: Int): Suite =
+    new FunSuite {
+      for (i <- 0 until testCount)
+        test("test " + i) {}
+    }
+
+  // DispatchReporter
+
+  def dispatchReporter(reporterCount: Int, pipelined: Boolean): DispatchReporter = {
+    val reporters =
+      for (i <- 0 until reporterCount) yield
+        new Reporter {
+          @volatile var count = 0
+          def apply(event: Event) {
+            count += 1
+          }
+        }
+    new DispatchReporter(reporters.toList, System.err, pipelined)
+  }
+
+  def testSucceededEvents(count: Int): Array[Event] = {
+    val tracker = new Tracker
+    (for (i <- 0 until count) yield
+      TestSucceeded(tracker.nextOrdinal(), "aSuite", "aSuite", Some("aSuite"), "test " + i, "test " + i, Vector.empty): Event).toArray
+  }
+}
+
+// Kept apart from BenchmarkFixtures so that Java sees only the fixtures' own static methods
+private object MatcherExpressions extends Matchers {
+
+  def shouldEqual(left: List[Int], right: List[Int]) {
+    left should equal (right)
+  }
+
+  def shouldContain(left: List[Int], element: Int) {
+    left should contain (element)
+  }
+}
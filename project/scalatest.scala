@@ -126,6 +126,23 @@ object ScalatestBuild extends Build {
          }
    ).dependsOn(scalatest  % "test->test")
 
+   // JMH benchmarks for ScalaTest's hot paths. The benchmarks are written in Java so that JMH's annotation
+   // processor can generate the harness. To run them, for example, with 8 threads:
+   //   sbt "project benchmarks" "run-main org.openjdk.jmh.Main -t 8 .*Tracker.*"
+   // To run them all and keep the results, so they can be compared with those of another build:
+   //   sbt "project benchmarks" "run-main org.openjdk.jmh.Main -rf json -rff target/jmh-results.json"
+   lazy val benchmarks = Project("benchmarks", file("benchmarks"))
+   .settings(
+     organization := "org.scalatest",
+     version := "2.0.M5-SNAPSHOT",
+     scalaVersion := scalaVersionToUse,
+     libraryDependencies ++= Seq(
+       "org.openjdk.jmh" % "jmh-core" % "1.0",
+       "org.openjdk.jmh" % "jmh-generator-annprocess" % "1.0"
+     ),
+     fork in run := true
+   ).dependsOn(scalatest)
+
    def simpledependencies = Seq(
      "org.scala-tools.testing" % "test-interface" % "0.5",  // TODO optional
      "org.scalacheck" % ("scalacheck_" + scalaVersionToUse) % "1.10.0",   // TODO optional
@@ -19,7 +19,7 @@ import java.util.concurrent.CountDownLatch
 import java.io.PrintStream
 import org.scalatest.events._
 import DispatchReporter.propagateDispose
-import java.util.concurrent.LinkedBlockingQueue
+import DispatchReporter.MaxBatchSize
 
 /**
  * A <code>Reporter</code> that dispatches test results to other <code>Reporter</code>s.
@@ -31,19 +31,105 @@ import java.util.concurrent.LinkedBlockingQueue
  * The primary constructor creates a new <code>DispatchReporter</code> with specified <code>Reporter</code>s list.
  * Each object in the <code>reporters</code> list must implement <code>Reporter</code>.
  *
+ * <p>
+ * If <code>pipelined</code> is <code>true</code>, the propagator's thread still updates the run summary
+ * counts, but instead of invoking each reporter itself it hands each event to a dedicated queue and
+ * thread per reporter. A slow reporter will then only delay its own output, not the other reporters or
+ * the threads executing tests.
+ * </p>
+ *
+ * <p>
+ * By default the queues are unbounded. If <code>queueConfig</code> specifies a capacity, each queue will hold at most
+ * that many events in memory, and its overflow policy determines what happens to events fired while it is full.
+ * </p>
+ *
  * @param reporters the initial <code>Reporter</code>s list for this
  * <code>DispatchReporter</code>
+ * @param out the <code>PrintStream</code> to which to print messages about exceptions thrown by reporters
+ * @param pipelined whether each reporter should be given its own queue and thread
+ * @param queueConfig the capacity and overflow policy of this <code>DispatchReporter</code>'s queues
  * @throws NullPointerException if <code>reporters</code> is <code>null</code>.
  * @author Bill Venners
  */
-private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out: PrintStream) extends CatchReporter {
+private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out: PrintStream, val pipelined: Boolean, val queueConfig: EventQueueConfig) extends CatchReporter {
 
   private case object Dispose
 
   private val latch = new CountDownLatch(1)
 
   // Can be either Event or Dispose.type. Be nice to capture that in the type param.
-  private val queue = new LinkedBlockingQueue[AnyRef]
+  private val queue = new EventQueue(queueConfig, out)
+
+  /**
+   * The handling latency of each reporter, and the depth of the queues, recorded as events are dispatched. Runner
+   * adds the timings of the phases of the run, and the utilization of its thread pool.
+   */
+  val metrics = new RunMetrics(reporters.map(_.getClass.getName))
+
+  // Used only when pipelined. Feeds a single reporter from its own queue, on its own thread. Events
+  // are put in the lane's queue in the order the propagator processed them, and Dispose is always
+  // the last thing put in, so each reporter sees the same sequence it would have seen without pipelining.
+  private class Lane(val reporter: Reporter, reporterMetrics: ReporterMetrics) extends Runnable {
+
+    val laneQueue = new EventQueue(queueConfig, out)
+
+    val done = new CountDownLatch(1)
+
+    def put(eventOrDispose: AnyRef) {
+      laneQueue.put(eventOrDispose)
+    }
+
+    def run() {
+      var alive = true // local variable. Only used by the Lane's thread, so no need for synchronization
+      val batch = new java.util.ArrayList[AnyRef](MaxBatchSize)
+      while (alive) {
+        laneQueue.takeBatch(batch, MaxBatchSize)
+        reporterMetrics.queueDepth.record(laneQueue.size)
+        val it = batch.iterator
+        while (it.hasNext) {
+          it.next match {
+            case event: Event =>
+              try {
+                reporterMetrics.latency.time {
+                  reporter(event)
+                }
+              }
+              catch {
+                case e: Exception =>
+                  val stringToPrint = Resources("reporterThrew", event)
+                  out.println(stringToPrint)
+                  e.printStackTrace(out)
+              }
+            case Dispose =>
+              try {
+                propagateDispose(reporter)
+              }
+              catch {
+                case e: Exception =>
+                  val stringToPrint = Resources("reporterDisposeThrew")
+                  out.println(stringToPrint)
+                  e.printStackTrace(out)
+              }
+              finally {
+                alive = false
+                done.countDown()
+              }
+          }
+        }
+        batch.clear()
+      }
+    }
+  }
+
+  private val lanes: List[Lane] =
+    if (pipelined) {
+      for ((reporter, reporterMetrics) <- reporters.zip(metrics.reporters)) yield {
+        val lane = new Lane(reporter, reporterMetrics)
+        (new Thread(lane)).start()
+        lane
+      }
+    }
+    else Nil
 
   class Propagator extends Runnable {
 
@@ -101,8 +187,10 @@ private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out
         }
       }
   
-      while (alive) {
-        queue.take() match {
+      val batch = new java.util.ArrayList[AnyRef](MaxBatchSize)
+
+      def handle(eventOrDispose: AnyRef) {
+        eventOrDispose match {
           case event: Event => 
             try {
               // The event will only actually be updated if it it is a RunCompleted/Aborted/Stopped event with None
@@ -154,8 +242,16 @@ private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out
                   
                   case _ => event
                 }
-              for (report <- reporters)
-                report(updatedEvent)
+              if (pipelined) {
+                for (lane <- lanes)
+                  lane.put(updatedEvent)
+              }
+              else {
+                for ((report, reporterMetrics) <- reporters.zip(metrics.reporters))
+                  reporterMetrics.latency.time {
+                    report(updatedEvent)
+                  }
+              }
             }
             catch {
               case e: Exception => 
@@ -165,8 +261,17 @@ private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out
             }
           case Dispose =>
             try {
-              for (reporter <- reporters)
-                propagateDispose(reporter)
+              if (pipelined) {
+                // Each lane disposes its own reporter once it has drained the events ahead of Dispose
+                for (lane <- lanes)
+                  lane.put(Dispose)
+                for (lane <- lanes)
+                  lane.done.await()
+              }
+              else {
+                for (reporter <- reporters)
+                  propagateDispose(reporter)
+              }
             }
             catch {
               case e: Exception =>
@@ -180,12 +285,23 @@ private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out
             }
         }
       }
+
+      while (alive) {
+        queue.takeBatch(batch, MaxBatchSize)
+        metrics.queueDepth.record(queue.size)
+        val it = batch.iterator
+        while (it.hasNext)
+          handle(it.next)
+        batch.clear()
+      }
     }
   }
 
   private val propagator = new Propagator
   (new Thread(propagator)).start()
 
+  def this(reporters: List[Reporter], out: PrintStream, pipelined: Boolean) = this(reporters, out, pipelined, EventQueueConfig.Unbounded)
+  def this(reporters: List[Reporter], out: PrintStream) = this(reporters, out, false)
   def this(reporters: List[Reporter]) = this(reporters, System.out)
   def this(reporter: Reporter) = this(List(reporter), System.out)
 
@@ -215,6 +331,18 @@ private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out
   }
   
   def isDisposed = latch.getCount == 0
+
+  /**
+   * The number of events fired at this <code>DispatchReporter</code> that its propagator has not yet taken
+   * off its queue.
+   */
+  def queueDepth: Int = queue.size
+
+  /**
+   * When pipelined, the number of events waiting in each reporter's own queue. Otherwise, an empty list.
+   */
+  def reporterQueueDepths: List[(Reporter, Int)] =
+    for (lane <- lanes) yield (lane.reporter, lane.laneQueue.size)
 }
 
 // TODO: Not a real problem, but if a DispatchReporter ever got itself in
@@ -223,6 +351,9 @@ private[scalatest] class DispatchReporter(val reporters: List[Reporter], val out
 // bug.
 private[scalatest] object DispatchReporter {
 
+  // The most events the propagator, or a lane when pipelined, will take off its queue at once
+  private[scalatest] final val MaxBatchSize = 128
+
   def propagateDispose(reporter: Reporter) {
     reporter match {
       case dispatchReporter: DispatchReporter => dispatchReporter.dispatchDisposeAndWaitUntilDone()
@@ -85,28 +85,80 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
   // from the primary constructor, which will be all done by one thread, I just in effect use optimistic locking on the Bundle.
   // If two threads ever called test at the same time, they could get a ConcurrentModificationException.
   // Test names are in reverse order of test registration method invocations
+  //
+  // Copying testsMap and tagsMap into a new Bundle on each registration made registering n tests cost O(n log n)
+  // time and garbage, so while registration is open they are instead kept in a TestRegistryBuilder shared by
+  // all the Bundles. Only the constructing thread is expected to register tests, so the builder isn't synchronized.
+  // If another thread does, the optimistic check in updateAtomic still throws ConcurrentModificationException.
+  // When registration closes, the builder is frozen into immutable maps, which are all any other thread sees.
   class Bundle private(
     val currentBranch: Branch,
     val testNamesList: List[String],
-    val testsMap: Map[String, TestLeaf],
-    val tagsMap: Map[String, Set[String]],
+    val registry: TestRegistry,
     val registrationClosed: Boolean
   ) {
-    def unpack = (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed)
+    def testsMap: Map[String, TestLeaf] = registry.testsMap
+    def tagsMap: Map[String, Set[String]] = registry.tagsMap
+    def unpack = (currentBranch, testNamesList, registry, registrationClosed)
   }
 
   object Bundle {
     def apply(
       currentBranch: Branch,
       testNamesList: List[String],
-      testsMap: Map[String, TestLeaf],
-      tagsMap: Map[String, Set[String]],
+      registry: TestRegistry,
       registrationClosed: Boolean
     ): Bundle =
-      new Bundle(currentBranch, testNamesList, testsMap, tagsMap, registrationClosed)
+      new Bundle(currentBranch, testNamesList, registry, registrationClosed)
   }
 
-  final val atomic = new AtomicReference[Bundle](Bundle(Trunk, List(), Map(), Map(), false))
+  // The tests registered so far, and the tags of each
+  sealed abstract class TestRegistry {
+    def testsMap: Map[String, TestLeaf]
+    def tagsMap: Map[String, Set[String]]
+    def containsTest(testName: String): Boolean
+    def freeze: FrozenTestRegistry
+  }
+
+  final class FrozenTestRegistry(val testsMap: Map[String, TestLeaf], val tagsMap: Map[String, Set[String]]) extends TestRegistry {
+    def containsTest(testName: String): Boolean = testsMap.contains(testName)
+    def freeze: FrozenTestRegistry = this
+  }
+
+  // Reading testsMap or tagsMap before registration closes takes an immutable snapshot, which is
+  // reused until the next test or tags are added.
+  final class TestRegistryBuilder extends TestRegistry {
+
+    private val tests = new collection.mutable.HashMap[String, TestLeaf]
+    private val tags = new collection.mutable.HashMap[String, Set[String]]
+    @volatile private var snapshot: Option[FrozenTestRegistry] = None
+
+    def addTest(testName: String, testLeaf: TestLeaf) {
+      tests(testName) = testLeaf
+      snapshot = None
+    }
+
+    def setTags(testName: String, tagNames: Set[String]) {
+      tags(testName) = tagNames
+      snapshot = None
+    }
+
+    def containsTest(testName: String): Boolean = tests.contains(testName)
+
+    def testsMap: Map[String, TestLeaf] = freeze.testsMap
+    def tagsMap: Map[String, Set[String]] = freeze.tagsMap
+
+    def freeze: FrozenTestRegistry =
+      snapshot match {
+        case Some(frozen) => frozen
+        case None =>
+          val frozen = new FrozenTestRegistry(Map.empty ++ tests, Map.empty ++ tags)
+          snapshot = Some(frozen)
+          frozen
+      }
+  }
+
+  final val atomic = new AtomicReference[Bundle](Bundle(Trunk, List(), new TestRegistryBuilder, false))
 
   def updateAtomic(oldBundle: Bundle, newBundle: Bundle) {
     val shouldBeOldBundle = atomic.getAndSet(newBundle)
@@ -122,9 +174,9 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
       if (payload == null)
         throw new NullPointerException
       val oldBundle = atomic.get
-      var (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+      var (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
       currentBranch.subNodes ::= InfoLeaf(currentBranch, message, payload, getLineInFile(Thread.currentThread().getStackTrace, 2))
-      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, registry, registrationClosed))
     }
   }
 
@@ -133,9 +185,9 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
       if (message == null)
         throw new NullPointerException
       val oldBundle = atomic.get
-      var (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+      var (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
       currentBranch.subNodes ::= MarkupLeaf(currentBranch, message, getLineInFile(Thread.currentThread().getStackTrace, 2))
-      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, registry, registrationClosed))
     }
   }
 
@@ -147,6 +199,28 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
   // is the registration phase of a style trait's lifecycle.)
   final val atomicDocumenter = new AtomicReference[Documenter](new RegistrationDocumenter)
 
+  // When the tests of a OneInstanceParallelTestExecution run concurrently, the informer and documenter of each test are
+  // kept per thread, and atomicInformer and atomicDocumenter hold routers that forward to the ones of the test running
+  // on the calling thread. Anything given to them on a thread that isn't running a test goes to the suite's.
+  private final val testInformers = new ThreadLocal[Informer]
+  private final val testDocumenters = new ThreadLocal[Documenter]
+
+  private final class ThreadRoutingInformer(suiteInformer: Informer) extends Informer {
+    def apply(message: String, payload: Option[Any] = None) {
+      val testInformer = testInformers.get
+      if (testInformer != null) testInformer(message, payload) else suiteInformer(message, payload)
+    }
+  }
+
+  private final class ThreadRoutingDocumenter(suiteDocumenter: Documenter) extends Documenter {
+    def apply(text: String) {
+      val testDocumenter = testDocumenters.get
+      if (testDocumenter != null) testDocumenter(text) else suiteDocumenter(text)
+    }
+  }
+
+  private def runsTestsConcurrently(theSuite: Suite): Boolean = theSuite.isInstanceOf[OneInstanceParallelTestExecution]
+
   final val zombieInformer =
     new Informer {
       private val complaint = Resources("cantCallInfoNow", simpleClassName)
@@ -224,8 +298,17 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
         (message, None, isConstructingThread, testWasPending, testWasCanceled, location) => createMarkupProvided(theSuite, report, tracker, Some(testName), message, theTest.indentationLevel + 1, location, isConstructingThread)
       )
 
-    val oldInformer = atomicInformer.getAndSet(informerForThisTest)
-    val oldDocumenter = atomicDocumenter.getAndSet(documenterForThisTest)
+    val concurrently = runsTestsConcurrently(theSuite)
+    val oldInformer =
+      if (concurrently) {
+        testInformers.set(informerForThisTest)
+        testDocumenters.set(documenterForThisTest)
+        null
+      }
+      else {
+        atomicDocumenter.getAndSet(documenterForThisTest)
+        atomicInformer.getAndSet(informerForThisTest)
+      }
     //var testWasPending = false
     //var testWasCanceled = false
 
@@ -280,10 +363,16 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
       /*messageRecorderForThisTest.fireRecordedMessages(testWasPending, testWasCanceled)
       if (theTest.recordedMessages.isDefined)
         theTest.recordedMessages.get.fireRecordedMessages(testWasPending, theSuite, report, tracker, testName, theTest.indentationLevel + 1, includeIcon)*/
-      val shouldBeInformerForThisTest = atomicInformer.getAndSet(oldInformer)
-      val swapAndCompareSucceeded = shouldBeInformerForThisTest eq informerForThisTest
-      if (!swapAndCompareSucceeded)
-        throw new ConcurrentModificationException(Resources("concurrentInformerMod", theSuite.getClass.getName))
+      if (concurrently) {
+        testInformers.remove()
+        testDocumenters.remove()
+      }
+      else {
+        val shouldBeInformerForThisTest = atomicInformer.getAndSet(oldInformer)
+        val swapAndCompareSucceeded = shouldBeInformerForThisTest eq informerForThisTest
+        if (!swapAndCompareSucceeded)
+          throw new ConcurrentModificationException(Resources("concurrentInformerMod", theSuite.getClass.getName))
+      }
     }
   }
 
@@ -412,18 +501,28 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
     // which will disallow any further invocations of "test" or "ignore" with
     // an RegistrationClosedException.    
     val oldBundle = atomic.get
-    val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
     if (!registrationClosed)
-      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, testsMap, tagsMap, true))
+      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, registry.freeze, true))
 
     val report = Suite.wrapReporterIfNecessary(theSuite, reporter)
 
-    val informerForThisSuite =
-      ConcurrentInformer(
-        (message, payload, isConstructingThread, location) => {
-          reportInfoProvided(theSuite, report, tracker, None, message, payload, 1, location, isConstructingThread)
+    val informerForThisSuite = {
+      val informer =
+        ConcurrentInformer(
+          (message, payload, isConstructingThread, location) => {
+            reportInfoProvided(theSuite, report, tracker, None, message, payload, 1, location, isConstructingThread)
+          }
+        )
+      if (runsTestsConcurrently(theSuite)) {
+        atomicDocumenter.get match {
+          case _: ThreadRoutingDocumenter =>
+          case suiteDocumenter => atomicDocumenter.set(new ThreadRoutingDocumenter(suiteDocumenter))
         }
-      )
+        new ThreadRoutingInformer(informer)
+      }
+      else informer
+    }
 
     atomicInformer.set(informerForThisSuite)
 
@@ -443,7 +542,7 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
   def describeImpl(description: String, fun: => Unit, registrationClosedResource: String, sourceFile: String, methodName: String) {
 
     val oldBundle = atomic.get
-    val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
 
     if (registrationClosed)
       throw new TestRegistrationClosedException(Resources(registrationClosedResource), getStackDepth(sourceFile, methodName))
@@ -453,21 +552,21 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
     oldBranch.subNodes ::= newBranch
 
     // Update atomic, making the current branch to the new branch
-    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, registry, registrationClosed))
 
     fun // Execute the function
 
     { // Put the old branch back as the current branch
       val oldBundle = atomic.get
-      val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
-      updateAtomic(oldBundle, Bundle(oldBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+      val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
+      updateAtomic(oldBundle, Bundle(oldBranch, testNamesList, registry, registrationClosed))
     }
   } */
 
   def registerNestedBranch(description: String, childPrefix: Option[String], fun: => Unit, registrationClosedResource: String, sourceFile: String, methodName: String, stackDepth: Int, adjustment: Int, location: Option[Location]) {
 
     val oldBundle = atomic.get
-    val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
 
     if (registrationClosed)
       throw new TestRegistrationClosedException(Resources(registrationClosedResource), getStackDepthFun(sourceFile, methodName, stackDepth + adjustment))
@@ -482,7 +581,7 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
     val newBranch = DescriptionBranch(currentBranch, description, childPrefix, branchLocation)
 
     // Update atomic, making the current branch to the new branch
-    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, registry, registrationClosed))
     oldBranch.subNodes ::= newBranch
     
     try {
@@ -495,8 +594,8 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
       
     { // Put the old branch back as the current branch
       val oldBundle = atomic.get
-      val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
-      updateAtomic(oldBundle, Bundle(oldBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+      val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
+      updateAtomic(oldBundle, Bundle(oldBranch, testNamesList, registry, registrationClosed))
     }
   }
 
@@ -504,7 +603,7 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
   def registerFlatBranch(description: String, registrationClosedResource: String, sourceFile: String, methodName: String, stackDepth: Int, adjustment: Int) {
 
     val oldBundle = atomic.get
-    val (_, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    val (_, testNamesList, registry, registrationClosed) = oldBundle.unpack
 
     if (registrationClosed)
       throw new TestRegistrationClosedException(Resources(registrationClosedResource), getStackDepthFun(sourceFile, methodName, stackDepth + adjustment))
@@ -515,13 +614,13 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
     Trunk.subNodes ::= newBranch
 
     // Update atomic, making the current branch to the new branch
-    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, registry, registrationClosed))
   }
 
   def currentBranchIsTrunk: Boolean = {
 
     val oldBundle = atomic.get
-    var (currentBranch, _, _, _, _) = oldBundle.unpack
+    var (currentBranch, _, _, _) = oldBundle.unpack
     currentBranch == Trunk
   }
 
@@ -535,11 +634,11 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
 //    throw new TestRegistrationClosedException(Resources("testCannotAppearInsideAnotherTest"), getStackDepth(sourceFileName, "test"))
 
     val oldBundle = atomic.get
-    var (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    var (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
 
     val testName = getTestName(testText, currentBranch)
 
-    if (atomic.get.testsMap.keySet.contains(testName))
+    if (registry.containsTest(testName))
       throw new DuplicateTestNameException(testName, getStackDepthFun(sourceFileName, methodName, stackDepth + adjustment))
     
     val testLocation = 
@@ -548,16 +647,17 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
         case None => getLineInFile(Thread.currentThread().getStackTrace, stackDepth)
       }
 
+    val builder = registry.asInstanceOf[TestRegistryBuilder] // Registration is still open, so not yet frozen
     val testLeaf = TestLeaf(currentBranch, testName, testText, testFun, testLocation, duration, informer)
-    testsMap += (testName -> testLeaf)
+    builder.addTest(testName, testLeaf)
     testNamesList ::= testName
     currentBranch.subNodes ::= testLeaf
 
     val tagNames = Set[String]() ++ testTags.map(_.name)
     if (!tagNames.isEmpty)
-      tagsMap += (testName -> tagNames)
+      builder.setTags(testName, tagNames)
 
-    updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+    updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, registry, registrationClosed))
 
     testName
   }
@@ -573,12 +673,12 @@ private[scalatest] sealed abstract class SuperEngine[T](concurrentBundleModResou
     val testName = registerTest(testText, f, testRegistrationClosedResourceName, sourceFileName, methodName, stackDepth + 1, adjustment, None, location, None) // Call test without passing the tags
 
     val oldBundle = atomic.get
-    var (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    var (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
 
     val tagNames = Set[String]() ++ testTags.map(_.name)
-    tagsMap += (testName -> (tagNames + IgnoreTagName))
+    registry.asInstanceOf[TestRegistryBuilder].setTags(testName, tagNames + IgnoreTagName)
 
-    updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+    updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, registry, registrationClosed))
   }
 
   private[scalatest] def getTestNamePrefix(branch: Branch): String =
@@ -859,7 +959,7 @@ private[scalatest] class PathEngine(concurrentBundleModResourceName: String, sim
  def navigateToNestedBranch(path: List[Int], fun: => Unit, registrationClosedResource: String, sourceFile: String, methodName: String, stackDepth: Int, adjustment: Int) {
 
     val oldBundle = atomic.get
-    val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
 
     if (registrationClosed)
       throw new TestRegistrationClosedException(Resources(registrationClosedResource), getStackDepthFun(sourceFile, methodName, stackDepth + adjustment))
@@ -879,14 +979,14 @@ private[scalatest] class PathEngine(concurrentBundleModResourceName: String, sim
     // oldBranch.subNodes ::= newBranch
 
     // Update atomic, making the current branch to the new branch
-    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+    updateAtomic(oldBundle, Bundle(newBranch, testNamesList, registry, registrationClosed))
 
     fun // Execute the function
 
     { // Put the old branch back as the current branch
       val oldBundle = atomic.get
-      val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
-      updateAtomic(oldBundle, Bundle(oldBranch, testNamesList, testsMap, tagsMap, registrationClosed))
+      val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
+      updateAtomic(oldBundle, Bundle(oldBranch, testNamesList, registry, registrationClosed))
     }
   }
 
@@ -907,9 +1007,9 @@ private[scalatest] class PathEngine(concurrentBundleModResourceName: String, sim
     // which will disallow any further invocations of "test" or "ignore" with
     // an RegistrationClosedException.    
     val oldBundle = atomic.get
-    val (currentBranch, testNamesList, testsMap, tagsMap, registrationClosed) = oldBundle.unpack
+    val (currentBranch, testNamesList, registry, registrationClosed) = oldBundle.unpack
     if (!registrationClosed)
-      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, testsMap, tagsMap, true))
+      updateAtomic(oldBundle, Bundle(currentBranch, testNamesList, registry.freeze, true))
 
     val report = Suite.wrapReporterIfNecessary(theSuite, reporter)
     val newArgs = if (report eq reporter) args else args.copy(reporter = report)
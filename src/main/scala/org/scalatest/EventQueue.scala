@@ -0,0 +1,358 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.events.Event
+import org.scalatest.events.InfoProvided
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.InputStream
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.io.ObjectStreamClass
+import java.io.PrintStream
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.Semaphore
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.ReentrantLock
+
+/**
+ * What an <code>EventQueue</code> with a bounded capacity does with an event that arrives when it is full.
+ */
+private[scalatest] sealed abstract class OverflowPolicy
+
+/**
+ * Block the thread that fired the event until the queue has room for it.
+ */
+private[scalatest] case object BlockProducer extends OverflowPolicy
+
+/**
+ * Merge consecutive <code>InfoProvided</code> events that arrive while the queue is full into a single
+ * <code>InfoProvided</code>, whose message is the original messages separated by line breaks. Other events
+ * block the thread that fired them until the queue has room.
+ */
+private[scalatest] case object CoalesceInfoProvided extends OverflowPolicy
+
+/**
+ * Serialize events that arrive while the queue is full to a temporary file, from which they are read back in order
+ * once the events ahead of them have been taken. Events that cannot be serialized block the thread that fired them
+ * until the queue has room.
+ */
+private[scalatest] case object SpillToDisk extends OverflowPolicy
+
+/**
+ * The capacity and overflow policy of the queues used by a <code>DispatchReporter</code>. A capacity of 0 or less
+ * means the queues are unbounded, in which case the overflow policy is never consulted.
+ */
+private[scalatest] case class EventQueueConfig(capacity: Int, overflowPolicy: OverflowPolicy) {
+  def isBounded: Boolean = capacity > 0
+}
+
+private[scalatest] object EventQueueConfig {
+  val Unbounded = EventQueueConfig(0, BlockProducer)
+}
+
+/*
+ * The queue used by DispatchReporter between the threads that fire events and the thread that propagates them.
+ * Anything that isn't an Event (such as DispatchReporter's Dispose marker) is never held back, never counted against
+ * the capacity, and is always enqueued behind any events that were coalesced or spilled before it.
+ *
+ * Events that are admitted into memory hold one of the capacity permits until they are taken. Spilled events are
+ * written to the current spill segment, which is sealed (and a marker for it placed in the in-memory queue) as soon as
+ * the queue has room again, or the segment holds capacity events. The taker replaces each marker with the segment's
+ * events, so events always come out in the order they went in. A segment is read back no more than a batch at a time,
+ * and the items taken from the in-memory queue behind it are held back until it has been read, so that spilling never
+ * brings more than a batch of events into memory beyond the capacity.
+ */
+private[scalatest] class EventQueue(config: EventQueueConfig, out: PrintStream) {
+
+  private val queue = new LinkedBlockingQueue[AnyRef]
+
+  // Only consulted when bounded
+  private val permits = new Semaphore(config.capacity max 0)
+
+  // Guards pendingInfo and spillSegment. The taker only ever tries this lock, because a producer
+  // may hold it while blocked waiting for a permit that only the taker can release.
+  private val lock = new ReentrantLock
+
+  private var pendingInfo: Option[InfoProvided] = None
+
+  private var spillSegment: Option[SpillSegment] = None
+
+  private val depth = new AtomicInteger
+
+  // Captured so that spilled events whose payloads are instances of classes loaded from the runpath
+  // can be read back in.
+  private val loader = Thread.currentThread.getContextClassLoader
+
+  private case class SealedSegment(file: File, count: Int)
+
+  // Only used by the taker: the spill segment being read back, and the items taken from the queue behind it
+  private var segmentReader: Option[SegmentReader] = None
+  private val heldBack = new java.util.ArrayDeque[AnyRef]
+
+  private class SpillSegment {
+    val file = File.createTempFile("scalatest-events", ".spill")
+    file.deleteOnExit()
+    private val data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))
+    var count = 0
+    def write(bytes: Array[Byte]) {
+      data.writeInt(bytes.length)
+      data.write(bytes)
+      count += 1
+    }
+    def seal(): SealedSegment = {
+      data.close()
+      SealedSegment(file, count)
+    }
+  }
+
+  /**
+   * The number of events currently waiting in this queue, including any that have been spilled to disk.
+   */
+  def size: Int = depth.get
+
+  def put(eventOrMarker: AnyRef) {
+    eventOrMarker match {
+      case event: Event if config.isBounded =>
+        config.overflowPolicy match {
+          case BlockProducer => blockingPut(event)
+          case CoalesceInfoProvided => coalescingPut(event)
+          case SpillToDisk => spillingPut(event)
+        }
+      case event: Event =>
+        depth.incrementAndGet()
+        queue.put(event)
+      case marker =>
+        lock.lock()
+        try {
+          flushPending()
+          queue.put(marker)
+        }
+        finally {
+          lock.unlock()
+        }
+    }
+  }
+
+  // Blocks until at least one event or marker is available, then moves as many as are already
+  // waiting, up to maxBatchSize, into the passed (empty) batch. Doesn't block while a spill
+  // segment, or the items taken from behind one, still have to be handed out.
+  def takeBatch(batch: java.util.ArrayList[AnyRef], maxBatchSize: Int) {
+    if (config.isBounded && config.overflowPolicy != BlockProducer && queue.isEmpty && lock.tryLock()) {
+      // Don't leave a coalesced InfoProvided or an unsealed spill segment stranded if the producers have gone quiet
+      try {
+        if (pendingInfo.isDefined && permits.tryAcquire()) {
+          depth.incrementAndGet()
+          queue.put(pendingInfo.get)
+          pendingInfo = None
+        }
+        sealSpillSegment()
+      }
+      finally {
+        lock.unlock()
+      }
+    }
+    if (segmentReader.isEmpty && heldBack.isEmpty) {
+      heldBack.add(queue.take())
+      queue.drainTo(heldBack, maxBatchSize - 1)
+    }
+    while (batch.size < maxBatchSize && (segmentReader.isDefined || !heldBack.isEmpty)) {
+      segmentReader match {
+        case Some(reader) =>
+          reader.readInto(batch, maxBatchSize - batch.size)
+          if (reader.isDone)
+            segmentReader = None
+        case None =>
+          heldBack.poll() match {
+            case SealedSegment(file, count) =>
+              segmentReader = Some(new SegmentReader(file, count))
+            case event: Event =>
+              if (config.isBounded)
+                permits.release()
+              depth.decrementAndGet()
+              batch.add(event)
+            case marker =>
+              batch.add(marker)
+          }
+      }
+    }
+  }
+
+  private def blockingPut(event: Event) {
+    permits.acquire()
+    depth.incrementAndGet()
+    queue.put(event)
+  }
+
+  private def coalescingPut(event: Event) {
+    lock.lock()
+    try {
+      event match {
+        case info: InfoProvided if pendingInfo.isDefined || !permits.tryAcquire() =>
+          pendingInfo match {
+            case Some(pending) if pending.nameInfo == info.nameInfo && pending.throwable.isEmpty && info.throwable.isEmpty =>
+              pendingInfo = Some(pending.copy(message = pending.message + "\n" + info.message))
+            case Some(pending) =>
+              flushPending()
+              pendingInfo = Some(info)
+            case None =>
+              pendingInfo = Some(info)
+          }
+          if (permits.tryAcquire()) {
+            depth.incrementAndGet()
+            queue.put(pendingInfo.get)
+            pendingInfo = None
+          }
+        case info: InfoProvided => // Got a permit
+          depth.incrementAndGet()
+          queue.put(info)
+        case _ =>
+          flushPending()
+          blockingPut(event)
+      }
+    }
+    finally {
+      lock.unlock()
+    }
+  }
+
+  private def spillingPut(event: Event) {
+    lock.lock()
+    try {
+      if (spillSegment.isDefined && (permits.availablePermits > 0 || spillSegment.get.count >= config.capacity))
+        sealSpillSegment()
+      if (spillSegment.isEmpty && permits.tryAcquire()) {
+        depth.incrementAndGet()
+        queue.put(event)
+      }
+      else {
+        serialize(event) match {
+          case Some(bytes) =>
+            if (spillSegment.isEmpty)
+              spillSegment = Some(new SpillSegment)
+            try {
+              spillSegment.get.write(bytes)
+              depth.incrementAndGet()
+            }
+            catch {
+              case e: IOException =>
+                sealSpillSegment()
+                blockingPut(event)
+            }
+          case None =>
+            sealSpillSegment()
+            blockingPut(event)
+        }
+      }
+    }
+    finally {
+      lock.unlock()
+    }
+  }
+
+  // Must be called while holding the lock
+  private def flushPending() {
+    pendingInfo match {
+      case Some(pending) =>
+        pendingInfo = None
+        blockingPut(pending)
+      case None =>
+    }
+    sealSpillSegment()
+  }
+
+  // Must be called while holding the lock
+  private def sealSpillSegment() {
+    spillSegment match {
+      case Some(segment) =>
+        spillSegment = None
+        queue.put(segment.seal())
+      case None =>
+    }
+  }
+
+  private def serialize(event: Event): Option[Array[Byte]] = {
+    try {
+      val bytes = new ByteArrayOutputStream
+      val oos = new ObjectOutputStream(bytes)
+      oos.writeObject(event)
+      oos.close()
+      Some(bytes.toByteArray)
+    }
+    catch {
+      case e: IOException => None // Most likely a NotSerializableException from a payload
+    }
+  }
+
+  // Reads a sealed spill segment's events back into batches, a few at a time
+  private class SegmentReader(file: File, count: Int) {
+
+    private var read = 0
+    private var in: DataInputStream = null
+
+    def isDone: Boolean = read >= count
+
+    def readInto(batch: java.util.ArrayList[AnyRef], maxEvents: Int) {
+      var readNow = 0
+      try {
+        if (in == null)
+          in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+        while (read < count && readNow < maxEvents) {
+          val bytes = new Array[Byte](in.readInt())
+          in.readFully(bytes)
+          val ois = new LoaderAwareObjectInputStream(new ByteArrayInputStream(bytes))
+          batch.add(ois.readObject())
+          read += 1
+          readNow += 1
+          depth.decrementAndGet()
+        }
+      }
+      catch {
+        case e: Exception =>
+          out.println(Resources("cannotReadSpilledEvents", (count - read).toString, file.getAbsolutePath))
+          e.printStackTrace(out)
+          depth.addAndGet(read - count)
+          read = count
+      }
+      finally {
+        if (isDone) {
+          if (in != null)
+            in.close()
+          file.delete()
+        }
+      }
+    }
+  }
+
+  private class LoaderAwareObjectInputStream(in: InputStream) extends ObjectInputStream(in) {
+    override def resolveClass(desc: ObjectStreamClass): Class[_] =
+      try {
+        Class.forName(desc.getName, false, loader)
+      }
+      catch {
+        case e: ClassNotFoundException => super.resolveClass(desc)
+      }
+  }
+}
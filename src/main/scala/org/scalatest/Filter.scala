@@ -54,17 +54,95 @@ final class Filter private (val tagsToInclude: Option[Set[String]], val tagsToEx
   @deprecated("This overloaded constructor has been deprecated and will be removed in a future version of ScalaTest. Please use the factory method (named apply) in the Filter companion object instead.")
   def this(tagsToInclude: Option[Set[String]], tagsToExclude: Set[String]) = this(tagsToInclude, tagsToExclude, false, DynaTags(Map.empty, Map.empty))
 
-  private def includedTestNames(testNamesAsList: List[String], tags: Map[String, Set[String]]): List[String] = 
-    tagsToInclude match {
-      case None => testNamesAsList
-      case Some(tagsToInclude) =>
-        for {
-          testName <- testNamesAsList
-          if tags contains testName
-          intersection = tagsToInclude intersect tags(testName)
-          if intersection.size > 0
-        } yield testName
+  // The tags that can affect whether a test is filtered out or ignored, each given a bit in a bitset of wordCount
+  // Longs. Any other tag a test has makes no difference, so it isn't given a bit. Filtering a test then takes a
+  // lookup for each of its tags, and a few word operations, rather than intersecting sets.
+  private val tagBitIndex: Map[String, Int] = {
+    val relevantTags = (tagsToInclude.getOrElse(Set.empty) ++ tagsToExclude + IgnoreTag).toList
+    Map() ++ relevantTags.zipWithIndex
+  }
+
+  private val wordCount = (tagBitIndex.size + 63) / 64
+
+  private def bitsFor(tagNames: Iterable[String]): Array[Long] = {
+    val bits = new Array[Long](wordCount)
+    for (tagName <- tagNames) {
+      tagBitIndex.get(tagName) match {
+        case Some(i) => bits(i >> 6) |= 1L << (i & 63)
+        case None =>
+      }
+    }
+    bits
+  }
+
+  private val includeBits: Option[Array[Long]] = tagsToInclude.map(bitsFor)
+
+  private val excludeBits = bitsFor(tagsToExclude)
+
+  private val ignoreBits = bitsFor(List(IgnoreTag))
+
+  private val excludeOrIgnoreBits = bitsFor(tagsToExclude + IgnoreTag)
+
+  private def intersects(a: Array[Long], b: Array[Long]): Boolean = {
+    var i = 0
+    while (i < wordCount) {
+      if ((a(i) & b(i)) != 0L)
+        return true
+      i += 1
     }
+    false
+  }
+
+  // Whether the only excluded-or-ignored tag among the passed bits is the Ignore tag
+  private def onlyIgnoredAmongExcluded(bits: Array[Long]): Boolean = {
+    var i = 0
+    while (i < wordCount) {
+      if ((bits(i) & excludeOrIgnoreBits(i)) != ignoreBits(i))
+        return false
+      i += 1
+    }
+    true
+  }
+
+  private def testBits(testName: String, tags: Map[String, Set[String]]): Array[Long] =
+    tags.get(testName) match {
+      case Some(tagNames) => bitsFor(tagNames)
+      case None => bitsFor(Nil)
+    }
+
+  private def isIncluded(bits: Array[Long]): Boolean =
+    includeBits match {
+      case None => true
+      case Some(include) => intersects(bits, include)
+    }
+
+  // Returns the filtered test names, in the order of testNames, each paired with whether it is ignored
+  private def filterTests(testNames: Set[String], tags: Map[String, Set[String]]): List[(String, Boolean)] = {
+    val filtered = new scala.collection.mutable.ListBuffer[(String, Boolean)]
+    for (testName <- testNames) {
+      val bits = testBits(testName, tags)
+      if (isIncluded(bits) && (!intersects(bits, excludeBits) || onlyIgnoredAmongExcluded(bits)))
+        filtered += ((testName, intersects(bits, ignoreBits)))
+    }
+    filtered.toList
+  }
+
+  private def countRunnableTests(testNames: Set[String], tags: Map[String, Set[String]]): Int = {
+    var count = 0
+    for (testName <- testNames) {
+      val bits = testBits(testName, tags)
+      if (isIncluded(bits) && !intersects(bits, excludeOrIgnoreBits))
+        count += 1
+    }
+    count
+  }
+
+  private def hasDynaTagsFor(suiteId: String): Boolean =
+    dynaTags.testTags.isDefinedAt(suiteId) || dynaTags.suiteTags.isDefinedAt(suiteId)
+
+  // Only merges when there are dynamic tags for the suite, which is rare, so as not to copy tags for every suite
+  private def withDynaTags(tags: Map[String, Set[String]], suiteId: String, testNames: Set[String]): Map[String, Set[String]] =
+    if (hasDynaTagsFor(suiteId)) mergeTestDynamicTags(tags, suiteId, testNames) else tags
 
   private def verifyPreconditionsForMethods(testNames: Set[String], tags: Map[String, Set[String]]) {
     val testWithEmptyTagSet = tags.find(tuple => tuple._2.isEmpty)
@@ -141,33 +219,13 @@ final class Filter private (val tagsToInclude: Option[Set[String]], val tagsToEx
   def apply(testNames: Set[String], tags: Map[String, Set[String]]): List[(String, Boolean)] = {
 
     verifyPreconditionsForMethods(testNames, tags)
-
-    val testNamesAsList = testNames.toList // to preserve the order
-    val filtered =
-      for {
-        testName <- includedTestNames(testNamesAsList, tags)
-        if !tags.contains(testName) ||
-                (tags(testName).contains(IgnoreTag) && (tags(testName) intersect (tagsToExclude + "org.scalatest.Ignore")).size == 1) ||
-                (tags(testName) intersect tagsToExclude).size == 0
-      } yield (testName, tags.contains(testName) && tags(testName).contains(IgnoreTag))
-
-    filtered
+    filterTests(testNames, tags)
   }
   
   def apply(testNames: Set[String], tags: Map[String, Set[String]], suiteId: String): List[(String, Boolean)] = {
-    val testTags: Map[String, Set[String]] = mergeTestDynamicTags(tags, suiteId, testNames)
+    val testTags: Map[String, Set[String]] = withDynaTags(tags, suiteId, testNames)
     verifyPreconditionsForMethods(testNames, testTags)
-
-    val testNamesAsList = testNames.toList // to preserve the order
-    val filtered =
-      for {
-        testName <- includedTestNames(testNamesAsList, testTags)
-        if !testTags.contains(testName) ||
-                (testTags(testName).contains(IgnoreTag) && (testTags(testName) intersect (tagsToExclude + "org.scalatest.Ignore")).size == 1) ||
-                (testTags(testName) intersect tagsToExclude).size == 0
-      } yield (testName, testTags.contains(testName) && testTags(testName).contains(IgnoreTag))
-
-    filtered
+    filterTests(testNames, testTags)
   }
 
   /**
@@ -211,8 +269,7 @@ final class Filter private (val tagsToInclude: Option[Set[String]], val tagsToEx
   }
   
   def apply(testName: String, tags: Map[String, Set[String]], suiteId: String): (Boolean, Boolean) = {
-    val testTags: Map[String, Set[String]] = mergeTestDynamicTags(tags, suiteId, Set(testName))
-    val list = apply(Set(testName), testTags)
+    val list = apply(Set(testName), tags, suiteId)
     if (list.isEmpty)
       (true, false)
     else
@@ -239,29 +296,13 @@ final class Filter private (val tagsToInclude: Option[Set[String]], val tagsToEx
   def runnableTestCount(testNames: Set[String], tags: Map[String, Set[String]]): Int = {
 
     verifyPreconditionsForMethods(testNames, tags)
-
-    val testNamesAsList = testNames.toList // to preserve the order
-    val runnableTests = 
-      for {
-        testName <- includedTestNames(testNamesAsList, tags)
-        if !tags.contains(testName) || (!tags(testName).contains(IgnoreTag) && (tags(testName) intersect tagsToExclude).size == 0)
-      } yield testName
-
-    runnableTests.size
+    countRunnableTests(testNames, tags)
   }
 
   def runnableTestCount(testNames: Set[String], testTags: Map[String, Set[String]], suiteId: String): Int = {
-    val tags: Map[String, Set[String]] = mergeTestDynamicTags(testTags, suiteId, testNames)
+    val tags: Map[String, Set[String]] = withDynaTags(testTags, suiteId, testNames)
     verifyPreconditionsForMethods(testNames, tags)
-
-    val testNamesAsList = testNames.toList // to preserve the order
-    val runnableTests = 
-      for {
-        testName <- includedTestNames(testNamesAsList, tags)
-        if !tags.contains(testName) || (!tags(testName).contains(IgnoreTag) && (tags(testName) intersect tagsToExclude).size == 0)
-      } yield testName
-
-    runnableTests.size
+    countRunnableTests(testNames, tags)
   }
 }
 
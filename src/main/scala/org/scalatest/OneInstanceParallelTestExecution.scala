@@ -0,0 +1,147 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import events.Event
+import org.scalatest.time.Span
+import tools.{DistributedTestInInstanceSuite, TestSortingReporter, Runner}
+
+/**
+ * Trait that causes the tests of any suite it is mixed into to be run in parallel, all in the one instance of the
+ * suite that registered them, if a <code>Distributor</code> is passed to <code>runTests</code>.
+ *
+ * <p>
+ * <code>ParallelTestExecution</code> runs each test in its own instance of the suite, so that tests can share instance
+ * <code>var</code>s and mutable objects without synchronizing. Every instance registers every test again, however, so for a
+ * suite with <em>n</em> tests the registration work grows as <em>n</em><sup>2</sup>. If your tests don't share mutable state, or
+ * synchronize access to what they share, you can mix in this trait instead. The tests are registered once, and each is handed
+ * to the <code>Distributor</code> to run in the same instance. Because that is only safe if the tests are thread-safe, you
+ * must say whether they are by defining <code>testsAreThreadSafe</code>. If it returns <code>false</code>, the tests run
+ * sequentially as usual.
+ * </p>
+ *
+ * <p>
+ * This trait is intended for the style traits whose tests are registered as functions, such as <code>FunSuite</code>,
+ * <code>FunSpec</code>, <code>FlatSpec</code>, <code>WordSpec</code>, <code>FreeSpec</code>, <code>PropSpec</code> and
+ * <code>FeatureSpec</code>. As with <code>ParallelTestExecution</code>, the events fired by the tests are sorted back into
+ * the order they would have been fired in had the tests run sequentially. The <code>info</code> and <code>markup</code> of each
+ * test are kept for the thread running it, so anything given to them from another thread the test starts is reported
+ * for the suite rather than for the test. This trait's <code>runTests</code> method returns only once all the tests
+ * it distributed have completed.
+ * </p>
+ *
+ * <p>
+ * Note: This trait's implementation of <code>runTest</code> is <code>final</code>, for the same reason as that of
+ * <code>ParallelTestExecution</code>: so that behavior related to each test, such as that of <code>BeforeAndAfter</code>,
+ * is executed by the thread that executes the test. Put this trait last, as in:
+ * <code>with BeforeAndAfter with OneInstanceParallelTestExecution</code>.
+ * </p>
+ *
+ * @author Bill Venners
+ */
+trait OneInstanceParallelTestExecution extends SuiteMixin { this: Suite =>
+
+  /**
+   * Declares whether the tests of this suite may safely run at the same time in this one instance.
+   *
+   * @return <code>true</code> if the tests may run concurrently, <code>false</code> if they must run sequentially
+   */
+  protected def testsAreThreadSafe: Boolean
+
+  /**
+   * The sorting timeout that will be passed to the <code>TestSortingReporter</code>.
+   *
+   * <p>
+   * This trait's implementation of this method returns the value of <code>Runner.testSortingReporterTimeout</code>,
+   * as does that of <code>ParallelTestExecution</code>.
+   * </p>
+   *
+   * @return a maximum amount of time to wait for events while resorting them into sequential order
+   */
+  protected def sortingTimeout: Span = Runner.testSortingReporterTimeout
+
+  /**
+   * Modifies the behavior of <code>super.runTests</code> to run the tests in parallel.
+   *
+   * <p>
+   * If <code>testName</code> is empty, <code>testsAreThreadSafe</code> returns <code>true</code> and <code>args.distributor</code>
+   * is defined, this trait's implementation of this method wraps the passed <code>args.reporter</code> in a
+   * <code>TestSortingReporter</code>, and invokes <code>super.runTests</code> with it as both the reporter and the
+   * <code>DistributedTestSorter</code>. It then waits until every test distributed by <code>runTest</code> has completed.
+   * Otherwise it invokes <code>super.runTests</code>, passing along the same <code>testName</code> and <code>args</code>
+   * except without a <code>DistributedTestSorter</code>, so that the tests run sequentially.
+   * </p>
+   *
+   * @param testName an optional name of one test to run. If <code>None</code>, all relevant tests should be run.
+   *                 I.e., <code>None</code> acts like a wildcard that means run all relevant tests in this <code>Suite</code>.
+   * @param args the <code>Args</code> for this run
+   * @return a <code>Status</code> object that indicates when all tests started by this method have completed, and whether or not a failure occurred.
+   */
+  protected abstract override def runTests(testName: Option[String], args: Args): Status = {
+    (testName, args.distributor) match {
+      case (None, Some(distributor)) if testsAreThreadSafe =>
+        val testSortingReporter = new TestSortingReporter(suiteId, args.reporter, sortingTimeout, testNames.size, args.distributedSuiteSorter, System.err)
+        val status = super.runTests(testName, args.copy(reporter = testSortingReporter, distributedTestSorter = Some(testSortingReporter)))
+        // Tests report info through this instance, so don't let run return, and retire the suite's informer, while any are running
+        status.waitUntilCompleted()
+        status
+      case _ =>
+        super.runTests(testName, args.copy(distributedTestSorter = None))
+    }
+  }
+
+  /**
+   * Modifies the behavior of <code>super.runTest</code> to hand the test to the <code>Distributor</code>.
+   *
+   * <p>
+   * If <code>args.distributor</code> and <code>args.distributedTestSorter</code> are both defined, as they are when this
+   * trait's <code>runTests</code> is running the tests in parallel, this trait's implementation of this method notifies
+   * the sorter that it is distributing the test, and passes the distributor a suite that, when run, invokes <code>super.runTest</code> on this instance with a
+   * reporter that hands the test's events to the sorter, then notifies the sorter that the test has completed. Otherwise it
+   * simply invokes <code>super.runTest</code>, passing along the same <code>testName</code> and <code>args</code>.
+   * </p>
+   *
+   * @param testName the name of one test to execute.
+   * @param args the <code>Args</code> for this run
+   * @return a <code>Status</code> object that indicates when the test started by this method has completed, and whether or not it failed .
+   */
+  final protected abstract override def runTest(testName: String, args: Args): Status = {
+    (args.distributor, args.distributedTestSorter) match {
+      case (Some(distribute), Some(sorter)) =>
+        sorter.distributingTest(testName)
+        val distributedTest =
+          new DistributedTestInInstanceSuite(tracker => runDistributedTest(testName, sorter, args.copy(tracker = tracker)))
+        distribute(distributedTest, args.copy(tracker = args.tracker.nextTracker))
+      case _ =>
+        super.runTest(testName, args)
+    }
+  }
+
+  private def runDistributedTest(testName: String, sorter: DistributedTestSorter, args: Args): Status = {
+    try {
+      super.runTest(testName, args.copy(reporter = new TestSpecificReporter(sorter, testName)))
+    }
+    finally {
+      sorter.completedTest(testName)
+    }
+  }
+
+  private class TestSpecificReporter(testSorter: DistributedTestSorter, testName: String) extends Reporter {
+    def apply(event: Event) {
+      testSorter.apply(testName, event)
+    }
+  }
+}
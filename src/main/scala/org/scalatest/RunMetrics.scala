@@ -0,0 +1,293 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import javax.management.JMException
+import javax.management.ObjectName
+import scala.concurrent.forkjoin.ForkJoinPool
+
+/**
+ * A histogram of durations in nanoseconds, kept in power-of-two buckets so that recording is a few atomic
+ * increments, whichever thread records. Percentiles are reported as the upper bound of the bucket they fall in,
+ * so they are accurate to within a factor of two.
+ */
+private[scalatest] final class LatencyHistogram {
+
+  // Bucket i holds durations d with 2^i <= d + 1 < 2^(i + 1)
+  private val buckets = new AtomicLongArray(64)
+  private val total = new AtomicLong
+  private val max = new AtomicLong
+
+  def record(nanos: Long) {
+    val d = nanos max 0L
+    buckets.incrementAndGet(63 - java.lang.Long.numberOfLeadingZeros(d + 1))
+    total.addAndGet(d)
+    var m = max.get
+    while (d > m && !max.compareAndSet(m, d))
+      m = max.get
+  }
+
+  def time[T](f: => T): T = {
+    val start = System.nanoTime
+    try f finally record(System.nanoTime - start)
+  }
+
+  def count: Long = {
+    var c = 0L
+    for (i <- 0 until buckets.length)
+      c += buckets.get(i)
+    c
+  }
+
+  def totalNanos: Long = total.get
+
+  def maxNanos: Long = max.get
+
+  def meanNanos: Long = {
+    val c = count
+    if (c == 0) 0L else totalNanos / c
+  }
+
+  /**
+   * The upper bound of the bucket holding the duration below which the passed fraction (between 0 and 1)
+   * of the recorded durations fall, or 0 if nothing has been recorded.
+   */
+  def percentileNanos(fraction: Double): Long = {
+    val counts = for (i <- 0 until buckets.length) yield buckets.get(i)
+    val c = counts.sum
+    if (c == 0) 0L
+    else {
+      val rank = math.ceil(fraction * c).toLong max 1L
+      var seen = 0L
+      var i = 0
+      while (seen + counts(i) < rank) {
+        seen += counts(i)
+        i += 1
+      }
+      if (i >= 62) Long.MaxValue else ((1L << (i + 1)) - 2) min maxNanos
+    }
+  }
+
+  def summary: String =
+    "count=" + count + ", meanMicros=" + micros(meanNanos) + ", p50Micros=" + micros(percentileNanos(0.5)) +
+    ", p99Micros=" + micros(percentileNanos(0.99)) + ", maxMicros=" + micros(maxNanos)
+
+  def toJson: String =
+    "{\"count\":" + count + ",\"meanMicros\":" + micros(meanNanos) + ",\"p50Micros\":" + micros(percentileNanos(0.5)) +
+    ",\"p99Micros\":" + micros(percentileNanos(0.99)) + ",\"maxMicros\":" + micros(maxNanos) + "}"
+
+  private def micros(nanos: Long): Long = TimeUnit.NANOSECONDS.toMicros(nanos)
+}
+
+/**
+ * Samples of the number of events waiting in a queue, keeping the last, the peak and the mean.
+ */
+private[scalatest] final class DepthGauge {
+
+  private val samples = new AtomicLong
+  private val sum = new AtomicLong
+  private val peak = new AtomicInteger
+  @volatile private var last = 0
+
+  def record(depth: Int) {
+    last = depth
+    samples.incrementAndGet()
+    sum.addAndGet(depth)
+    var p = peak.get
+    while (depth > p && !peak.compareAndSet(p, depth))
+      p = peak.get
+  }
+
+  def current: Int = last
+
+  def peakDepth: Int = peak.get
+
+  def meanDepth: Double = {
+    val n = samples.get
+    if (n == 0) 0.0 else sum.get.toDouble / n
+  }
+
+  def toJson: String = "{\"current\":" + current + ",\"peak\":" + peakDepth + ",\"mean\":" + RunMetrics.formatDouble(meanDepth) + "}"
+}
+
+/**
+ * The time spent in one phase of a run, accumulated over every time the phase was entered.
+ */
+private[scalatest] final class PhaseTimer(val name: String) {
+
+  private val nanos = new AtomicLong
+
+  def time[T](f: => T): T = {
+    val start = System.nanoTime
+    try f finally nanos.addAndGet(System.nanoTime - start)
+  }
+
+  def millis: Long = TimeUnit.NANOSECONDS.toMillis(nanos.get)
+}
+
+/**
+ * The handling latency of one of a <code>DispatchReporter</code>'s reporters, and, when pipelined, the depth of
+ * its own queue.
+ */
+private[scalatest] final class ReporterMetrics(val name: String) {
+  val latency = new LatencyHistogram
+  val queueDepth = new DepthGauge
+}
+
+/**
+ * The management interface through which a <code>RunMetrics</code> is exposed over JMX while its run is in progress.
+ */
+private[scalatest] trait RunMetricsMBean {
+  def getDiscoveryMillis: Long
+  def getSuiteInstantiationMillis: Long
+  def getExpectedTestCountMillis: Long
+  def getTeardownMillis: Long
+  def getQueueDepth: Int
+  def getPeakQueueDepth: Int
+  def getPoolSize: Int
+  def getActiveThreadCount: Int
+  def getPeakActiveThreadCount: Int
+  def getStealCount: Long
+  def getQueuedTaskCount: Long
+  def getSuitesRun: Long
+  def getReporterLatencies: Array[String]
+  def getJson: String
+}
+
+/**
+ * Instrumentation of a run, filled in by <code>Runner</code>, the <code>DispatchReporter</code> that carries its
+ * events, and the <code>ConcurrentDistributor</code> and <code>SuiteRunner</code>s that run its suites. Everything
+ * here may be updated from any thread, and read while the run is in progress.
+ *
+ * @param reporterNames the name of each of the <code>DispatchReporter</code>'s reporters, in order
+ */
+private[scalatest] final class RunMetrics(reporterNames: List[String]) extends RunMetricsMBean {
+
+  val discovery = new PhaseTimer("discovery")
+  val suiteInstantiation = new PhaseTimer("suiteInstantiation")
+  val expectedTestCount = new PhaseTimer("expectedTestCount")
+  val teardown = new PhaseTimer("teardown")
+
+  private val phases = List(discovery, suiteInstantiation, expectedTestCount, teardown)
+
+  /**
+   * The number of events waiting in the <code>DispatchReporter</code>'s queue each time its propagator took a batch.
+   */
+  val queueDepth = new DepthGauge
+
+  val reporters: List[ReporterMetrics] = reporterNames.map(new ReporterMetrics(_))
+
+  /**
+   * How long each suite's <code>run</code> method took.
+   */
+  val suiteDurations = new LatencyHistogram
+
+  @volatile private var pool: Option[ForkJoinPool] = None
+  private val peakActiveThreads = new AtomicInteger
+
+  def watchPool(forkJoinPool: ForkJoinPool) {
+    pool = Some(forkJoinPool)
+  }
+
+  def samplePool() {
+    for (p <- pool) {
+      val active = p.getActiveThreadCount
+      var peak = peakActiveThreads.get
+      while (active > peak && !peakActiveThreads.compareAndSet(peak, active))
+        peak = peakActiveThreads.get
+    }
+  }
+
+  def getDiscoveryMillis: Long = discovery.millis
+  def getSuiteInstantiationMillis: Long = suiteInstantiation.millis
+  def getExpectedTestCountMillis: Long = expectedTestCount.millis
+  def getTeardownMillis: Long = teardown.millis
+  def getQueueDepth: Int = queueDepth.current
+  def getPeakQueueDepth: Int = queueDepth.peakDepth
+  def getPoolSize: Int = pool.map(_.getParallelism).getOrElse(0)
+  def getActiveThreadCount: Int = pool.map(_.getActiveThreadCount).getOrElse(0)
+  def getPeakActiveThreadCount: Int = peakActiveThreads.get
+  def getStealCount: Long = pool.map(_.getStealCount).getOrElse(0L)
+  def getQueuedTaskCount: Long = pool.map(_.getQueuedTaskCount).getOrElse(0L)
+  def getSuitesRun: Long = suiteDurations.count
+  def getReporterLatencies: Array[String] = reporters.map(r => r.name + ": " + r.latency.summary).toArray
+  def getJson: String = toJson
+
+  /**
+   * All of these metrics as a single JSON object.
+   */
+  def toJson: String = {
+    import RunMetrics.quote
+    val phasesJson = phases.map(p => quote(p.name) + ":" + p.millis).mkString("{", ",", "}")
+    val reportersJson =
+      reporters.map { r =>
+        "{\"reporter\":" + quote(r.name) + ",\"latency\":" + r.latency.toJson + ",\"queueDepth\":" + r.queueDepth.toJson + "}"
+      }.mkString("[", ",", "]")
+    val poolJson =
+      "{\"size\":" + getPoolSize + ",\"active\":" + getActiveThreadCount + ",\"peakActive\":" + getPeakActiveThreadCount +
+      ",\"steals\":" + getStealCount + ",\"queuedTasks\":" + getQueuedTaskCount + "}"
+    "{\"phaseMillis\":" + phasesJson + ",\"queueDepth\":" + queueDepth.toJson + ",\"reporters\":" + reportersJson +
+    ",\"pool\":" + poolJson + ",\"suiteDurations\":" + suiteDurations.toJson + "}"
+  }
+}
+
+private[scalatest] object RunMetrics {
+
+  /**
+   * Registers the passed metrics with the platform MBean server, under a name that includes the passed run stamp,
+   * returning the name, or <code>None</code> if it could not be registered (for example, because another run with
+   * the same run stamp is in progress).
+   */
+  def register(metrics: RunMetrics, runStamp: Int): Option[ObjectName] =
+    try {
+      val name = new ObjectName("org.scalatest:type=RunMetrics,runStamp=" + runStamp)
+      ManagementFactory.getPlatformMBeanServer.registerMBean(metrics, name)
+      Some(name)
+    }
+    catch {
+      case e: JMException => None
+      case e: SecurityException => None
+    }
+
+  def unregister(name: ObjectName) {
+    try {
+      ManagementFactory.getPlatformMBeanServer.unregisterMBean(name)
+    }
+    catch {
+      case e: JMException =>
+      case e: SecurityException =>
+    }
+  }
+
+  private[scalatest] def quote(s: String): String = {
+    val sb = new StringBuilder("\"")
+    for (c <- s)
+      c match {
+        case '"' => sb.append("\\\"")
+        case '\\' => sb.append("\\\\")
+        case c if c < ' ' => sb.append("\\u%04x".format(c.toInt))
+        case c => sb.append(c)
+      }
+    sb.append('"').toString
+  }
+
+  private[scalatest] def formatDouble(d: Double): String = "%.2f".formatLocal(java.util.Locale.US, d)
+}
@@ -1,6 +1,7 @@
 package org.scalatest
 import org.scalatest.tools.SuiteRunner
 import java.util.concurrent.CountDownLatch
+import scala.concurrent.forkjoin.ForkJoinPool
 import scala.collection.GenSet
 
 /**
@@ -117,7 +118,7 @@ private[scalatest] final class ScalaTestStatefulStatus extends Status {
   def isCompleted = latch.getCount() == 0L
   
   def waitUntilCompleted() {
-    latch.await()
+    ManagedLatch.await(latch)
   }
   
   def setFailed() {
@@ -172,7 +173,7 @@ final class StatefulStatus extends Status {
    * Blocking call that returns only after <code>setCompleted</code> has been invoked on this <code>StatefulStatus</code> instance.
    */
   def waitUntilCompleted() {
-    latch.await()
+    ManagedLatch.await(latch)
   }
 
   /**
@@ -237,3 +238,20 @@ final class CompositeStatus(statuses: Set[Status]) extends Status {
   }
 }
 
+// Waits on a latch through ForkJoinPool.managedBlock, so that if the waiting thread belongs to a ForkJoinPool,
+// the pool can activate a spare thread to keep its parallelism while this one is blocked. On any other
+// thread, this just waits on the latch.
+private[scalatest] object ManagedLatch {
+  def await(latch: CountDownLatch) {
+    if (latch.getCount > 0L)
+      ForkJoinPool.managedBlock(
+        new ForkJoinPool.ManagedBlocker {
+          def block(): Boolean = {
+            latch.await()
+            true
+          }
+          def isReleasable: Boolean = latch.getCount == 0L
+        }
+      )
+  }
+}
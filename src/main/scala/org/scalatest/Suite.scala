@@ -919,18 +919,14 @@ trait Suite extends Assertions with AbstractSuite with Serializable { thisSuite
     val testNameSet = testNames
       
     val testTags = Map() ++ 
-      (for (testName <- testNameSet; if !getTags(testName).isEmpty)
-        yield testName -> (Set() ++ getTags(testName)))
+      (for (testName <- testNameSet; tagNames = getTags(testName); if !tagNames.isEmpty)
+        yield testName -> tagNames)
 
     autoTagClassAnnotations(testTags, this)
   }
   
-  private def getTags(testName: String) =
-    for {
-      a <- getMethodForTestName(thisSuite, testName).getDeclaredAnnotations
-      annotationClass = a.annotationType
-      if annotationClass.isAnnotationPresent(classOf[TagAnnotation])
-    } yield annotationClass.getName
+  private def getTags(testName: String): Set[String] =
+    SuiteReflection(getClass).tagNamesFor(getMethodForTestName(thisSuite, testName))
 
   /**
   * A <code>Set</code> of test names. If this <code>Suite</code> contains no tests, this method returns an empty <code>Set</code>.
@@ -1043,15 +1039,17 @@ trait Suite extends Assertions with AbstractSuite with Serializable { thisSuite
       isInstanceMethod && (firstFour == "test") && !isTestDataFor && ((hasNoParams && !isTestNames && !isTestTags) || takesInformer(m))
     }
 
-    val testNameArray =
-      for (m <- getClass.getMethods; if isTestMethod(m)) 
-        yield if (takesInformer(m)) m.getName + InformerInParens else m.getName
+    SuiteReflection(getClass).testNames("org.scalatest.Suite") { methods =>
+      val testNameArray =
+        for (m <- methods; if isTestMethod(m)) 
+          yield if (takesInformer(m)) m.getName + InformerInParens else m.getName
 
-    val result = TreeSet.empty[String](EncodedOrdering) ++ testNameArray
-    if (result.size != testNameArray.length) {
-      throw new NotAllowedException("Howdy", 0)
+      val result = TreeSet.empty[String](EncodedOrdering) ++ testNameArray
+      if (result.size != testNameArray.length) {
+        throw new NotAllowedException("Howdy", 0)
+      }
+      result
     }
-    result
   }
 
   /*
@@ -1727,14 +1725,10 @@ trait Suite extends Assertions with AbstractSuite with Serializable { thisSuite
    * @return a <code>TestData</code> instance for the specified test, which includes the specified config map
    */
   def testDataFor(testName: String, theConfigMap: ConfigMap = ConfigMap.empty): TestData = {
-    val suiteTags = for { 
-      a <- this.getClass.getDeclaredAnnotations
-      annotationClass = a.annotationType
-      if annotationClass.isAnnotationPresent(classOf[TagAnnotation])
-    } yield annotationClass.getName
+    val suiteTags = SuiteReflection(getClass).classTagNames
     val testTags: Set[String] = 
       try {
-        getTags(testName).toSet
+        getTags(testName)
       }
       catch {
         case e: IllegalArgumentException => Set.empty[String]
@@ -2350,15 +2344,11 @@ used for test events like succeeded/failed, etc.
   }
   
   def autoTagClassAnnotations(tags: Map[String, Set[String]], theSuite: Suite) = {
-    val suiteTags = for { 
-      a <- theSuite.getClass.getDeclaredAnnotations
-      annotationClass = a.annotationType
-      if annotationClass.isAnnotationPresent(classOf[TagAnnotation])
-    } yield annotationClass.getName
+    val suiteTags = SuiteReflection(theSuite.getClass).classTagNames
     
     val autoTestTags = 
       if (suiteTags.size > 0)
-        Map() ++ theSuite.testNames.map(tn => (tn, suiteTags.toSet))
+        Map() ++ theSuite.testNames.map(tn => (tn, suiteTags))
       else
         Map.empty[String, Set[String]]
     
@@ -2434,7 +2424,11 @@ used for test events like succeeded/failed, etc.
       testName
 
   def getMethodForTestName(theSuite: org.scalatest.Suite, testName: String): Method = {
-    val candidateMethods = theSuite.getClass.getMethods.filter(_.getName == Suite.simpleNameForTest(testName))
+    val reflection = SuiteReflection(theSuite.getClass)
+    reflection.testMethod(testName) { resolveTestMethod(reflection.methodsNamed(Suite.simpleNameForTest(testName)), testName) }
+  }
+
+  private def resolveTestMethod(candidateMethods: Array[Method], testName: String): Method = {
     val found =
       if (testMethodTakesAFixtureAndInformer(testName))
         candidateMethods.find(
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import java.lang.ref.SoftReference
+import java.lang.reflect.Method
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * What reflection has discovered about the public methods of one suite class: the methods themselves, grouped by
+ * name, the test names each discovery strategy found among them, the method each test name resolved to, and the
+ * names of the tag annotations on each of those methods and on the class.
+ *
+ * <p>
+ * <code>Class.getMethods</code> copies every public method each time it is called, and <code>Suite</code> used to call it
+ * from <code>testNames</code>, and several times for each test from <code>runTest</code>, <code>tags</code> and
+ * <code>testDataFor</code>. Because what it finds depends only on the class, it is done once per class and shared by
+ * every instance, including those created by <code>OneInstancePerTest</code> and <code>ParallelTestExecution</code>.
+ * Everything here may be used from any thread.
+ * </p>
+ */
+private[scalatest] final class SuiteReflection private (clazz: Class[_]) {
+
+  /**
+   * The public methods of the class, which must not be modified.
+   */
+  val methods: Array[Method] = clazz.getMethods
+
+  private val methodsByName: Map[String, Array[Method]] = methods.groupBy(_.getName)
+
+  private val testNameSets = new ConcurrentHashMap[String, Set[String]]
+
+  private val testMethods = new ConcurrentHashMap[String, Method]
+
+  private val tagNames = new ConcurrentHashMap[Method, Set[String]]
+
+  /**
+   * The names of the tag annotations on the class itself.
+   */
+  lazy val classTagNames: Set[String] = SuiteReflection.tagAnnotationNames(clazz.getDeclaredAnnotations)
+
+  def methodsNamed(name: String): Array[Method] = methodsByName.getOrElse(name, SuiteReflection.NoMethods)
+
+  /**
+   * Returns the test names that the discovery strategy with the passed key found among <code>methods</code>, running
+   * <code>discover</code> only the first time. If <code>discover</code> throws an exception, nothing is cached.
+   */
+  def testNames(key: String)(discover: Array[Method] => Set[String]): Set[String] = {
+    val cached = testNameSets.get(key)
+    if (cached != null) cached
+    else {
+      testNameSets.putIfAbsent(key, discover(methods))
+      testNameSets.get(key)
+    }
+  }
+
+  /**
+   * Returns the method the passed test name resolves to, running <code>resolve</code> only the first time. The method's
+   * access checks are suppressed, if the security manager allows it, so that invoking it for each test, in each
+   * instance, doesn't repeat them. If <code>resolve</code> throws an exception, nothing is cached.
+   */
+  def testMethod(testName: String)(resolve: => Method): Method = {
+    val cached = testMethods.get(testName)
+    if (cached != null) cached
+    else {
+      val method = resolve
+      try {
+        method.setAccessible(true)
+      }
+      catch {
+        case e: SecurityException =>
+      }
+      testMethods.putIfAbsent(testName, method)
+      testMethods.get(testName)
+    }
+  }
+
+  /**
+   * The names of the tag annotations on the passed method, which must be one of <code>methods</code>.
+   */
+  def tagNamesFor(method: Method): Set[String] = {
+    val cached = tagNames.get(method)
+    if (cached != null) cached
+    else {
+      tagNames.putIfAbsent(method, SuiteReflection.tagAnnotationNames(method.getDeclaredAnnotations))
+      tagNames.get(method)
+    }
+  }
+}
+
+private[scalatest] object SuiteReflection {
+
+  private val NoMethods = new Array[Method](0)
+
+  // Keyed weakly so that suite classes loaded from a runpath can be unloaded once a run is over. The values are held
+  // softly, because the methods they hold strongly reference their class, which would otherwise keep each key alive.
+  private val cache = new WeakHashMap[Class[_], SoftReference[SuiteReflection]]
+
+  /**
+   * Returns what has been discovered about the passed class, discovering it if this is the first time it was asked for
+   * (or if the memory it occupied was reclaimed since).
+   */
+  def apply(clazz: Class[_]): SuiteReflection = {
+    cache.synchronized {
+      val ref = cache.get(clazz)
+      val cached = if (ref == null) null else ref.get
+      if (cached != null) cached
+      else {
+        val reflection = new SuiteReflection(clazz)
+        cache.put(clazz, new SoftReference(reflection))
+        reflection
+      }
+    }
+  }
+
+  private def tagAnnotationNames(annotations: Array[java.lang.annotation.Annotation]): Set[String] =
+    Set.empty ++ (
+      for {
+        a <- annotations
+        annotationClass = a.annotationType
+        if annotationClass.isAnnotationPresent(classOf[TagAnnotation])
+      } yield annotationClass.getName
+    )
+}
@@ -16,6 +16,7 @@
 package org.scalatest
 
 import org.scalatest.events.Ordinal
+import java.util.concurrent.atomic.AtomicReference
 
 // Note: The reason Tracker is mutable is that methods would have to pass back, and that's hard because exceptions can
 // also be thrown. So this mutable object is how methods invoked "returns" updates to the current ordinal whether those
@@ -39,6 +40,12 @@ import org.scalatest.events.Ordinal
  * <code>nextTracker</code> for each nested suite it passes to the <code>Dispatcher</code>.
  * </p>
  *
+ * <p>
+ * Neither method blocks. The current <code>Ordinal</code> is updated with a compare-and-set, so threads that invoke
+ * <code>nextOrdinal</code> or <code>nextTracker</code> on the same <code>Tracker</code> at the same time each get a
+ * different <code>Ordinal</code>, in the order their updates took effect, without waiting for a lock.
+ * </p>
+ *
  * @param firstOrdinal the first <code>Ordinal</code> in the series of <code>Ordinal</code>s
  *        tracked by this <code>Tracker</code>, which will be used to initialize this <code>Tracker</code>'s
  *        current <code>Ordinal</code>.
@@ -47,7 +54,7 @@ import org.scalatest.events.Ordinal
  */
 final class Tracker(firstOrdinal: Ordinal = new Ordinal(0)) {
 
-  private var currentOrdinal = firstOrdinal
+  private val currentOrdinal = new AtomicReference[Ordinal](firstOrdinal)
 
   /**
    * Returns the next <code>Ordinal</code> in the series tracked by this <code>Tracker</code>.
@@ -62,11 +69,10 @@ final class Tracker(firstOrdinal: Ordinal = new Ordinal(0)) {
    * @return the next <code>Ordinal</code> in the series
    */
   def nextOrdinal(): Ordinal = {
-    synchronized {
-      val ordinalToReturn = currentOrdinal
-      currentOrdinal = currentOrdinal.next
-      ordinalToReturn
-    }
+    var ordinalToReturn = currentOrdinal.get
+    while (!currentOrdinal.compareAndSet(ordinalToReturn, ordinalToReturn.next))
+      ordinalToReturn = currentOrdinal.get
+    ordinalToReturn
   }
 
   /**
@@ -86,11 +92,13 @@ final class Tracker(firstOrdinal: Ordinal = new Ordinal(0)) {
    * @return the next <code>Tracker</code> in this series
    */
   def nextTracker(): Tracker = {
-    synchronized {
-      val (nextForNewThread, nextForThisThread) = currentOrdinal.nextNewOldPair
-      currentOrdinal = nextForThisThread
-      new Tracker(nextForNewThread)
+    var current = currentOrdinal.get
+    var pair = current.nextNewOldPair
+    while (!currentOrdinal.compareAndSet(current, pair._2)) {
+      current = currentOrdinal.get
+      pair = current.nextNewOldPair
     }
+    new Tracker(pair._1)
   }
 }
 
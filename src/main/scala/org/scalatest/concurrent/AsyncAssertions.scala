@@ -19,7 +19,10 @@ import org.scalatest._
 import Assertions.fail
 import org.scalatest.exceptions.NotAllowedException
 import org.scalatest.exceptions.TestFailedException
-import time.{Nanoseconds, Second, Span}
+import time.{Second, Span}
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.locks.LockSupport
 
 /**
  * Trait that facilitates performing assertions outside the main test thread, such as assertions in callback methods
@@ -302,13 +305,13 @@ trait AsyncAssertions extends PatienceConfiguration {
 
     private final val creatingThread = Thread.currentThread
 
-    @volatile private var dismissedCount = 0
-    @volatile private var thrown: Option[Throwable] = None
+    // The creating thread parks in await until it is unparked by apply or dismiss, rather than waiting on
+    // a monitor, so that a virtual thread that awaits doesn't hold on to its carrier thread
+    private final val dismissedCount = new AtomicInteger
+    private final val thrown = new AtomicReference[Option[Throwable]](None)
 
     private def setThrownIfEmpty(t: Throwable) {
-      synchronized {      // Why is this synchronized?
-        if (thrown.isEmpty) thrown = Some(t)
-      }
+      thrown.compareAndSet(None, Some(t))
     }
 
     /**
@@ -332,9 +335,7 @@ trait AsyncAssertions extends PatienceConfiguration {
       }
       catch { // Exceptions after the first are swallowed (need to get to dismissals later)
         case t: Throwable => setThrownIfEmpty(t)
-        synchronized {
-          notifyAll()
-        }
+        LockSupport.unpark(creatingThread)
       }
     }
 
@@ -366,18 +367,14 @@ trait AsyncAssertions extends PatienceConfiguration {
       val startTime: Long = System.nanoTime
       val endTime: Long = startTime + timeout.totalNanos
       def timedOut: Boolean = endTime < System.nanoTime
-      while (dismissedCount < dismissals && !timedOut && thrown.isEmpty) {
-        val timeLeft: Span = {
-          val diff = endTime - System.nanoTime
-          if (diff > 0) Span(diff, Nanoseconds) else Span.ZeroLength
-        }
-        synchronized {
-          wait(timeLeft.millisPart, timeLeft.nanosPart)
-        }
+      while (dismissedCount.get < dismissals && !timedOut && thrown.get.isEmpty) {
+        LockSupport.parkNanos(this, endTime - System.nanoTime)
+        if (Thread.interrupted())
+          throw new InterruptedException
       }
-      dismissedCount = 0 // reset the dismissed count to support multiple await calls
-      if (thrown.isDefined)
-        throw thrown.get
+      dismissedCount.set(0) // reset the dismissed count to support multiple await calls
+      if (thrown.get.isDefined)
+        throw thrown.get.get
       else if (timedOut)
         throw new TestFailedException(Resources("awaitTimedOut"), 2)
     }
@@ -523,10 +520,8 @@ trait AsyncAssertions extends PatienceConfiguration {
      * </p>
      */
     def dismiss() {
-      dismissedCount += 1
-      synchronized {
-        notifyAll()
-      }
+      dismissedCount.incrementAndGet()
+      LockSupport.unpark(creatingThread)
     }
   }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.concurrent
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.LockSupport
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import PimpedReadWriteLock._
+
+/**
+ * The clock of beats by which a <code>Conductor</code> coordinates its threads.
+ *
+ * <p>
+ * The current beat is an atomic counter, so reading it takes no lock. A thread that waits for a beat parks in a queue
+ * kept for that beat, and advancing the beat unparks only the threads in the queue for the new beat. The only lock is
+ * the read-write lock that freezes the clock: <code>withClockFrozen</code> holds its read lock, and <code>advance</code>
+ * takes its write lock just long enough to increment the beat, so the clock can't advance while it is frozen.
+ * </p>
+ *
+ * @param onWaiting invoked by each thread that is about to wait for a beat, with the number of threads then waiting
+ */
+private[scalatest] final class BeatClock(onWaiting: Int => Unit) {
+
+  import BeatClock.Waiter
+
+  def this() = this(count => ())
+
+  // clock starts at time 0
+  private val beat = new AtomicInteger
+
+  private val highestBeatBeingWaitedOn = new AtomicInteger
+
+  // A thread stops being counted as soon as the beat it is waiting for is reached, before it has woken up,
+  // so that the clock can't mistake it for one that is still waiting
+  private val waitingCount = new AtomicInteger
+
+  private val waiters = new ConcurrentHashMap[Int, ConcurrentLinkedQueue[Waiter]]
+
+  private val rwLock = new ReentrantReadWriteLock
+
+  /**
+   * Advances the current beat, once the clock is not frozen, and wakes the threads waiting for the new beat.
+   * Only the clock thread should be calling this.
+   */
+  def advance() {
+    val newBeat = rwLock.write { beat.incrementAndGet() }
+    val released = waiters.remove(newBeat)
+    if (released != null) {
+      var waiter = released.poll()
+      while (waiter != null) {
+        if (waiter.release()) {
+          waitingCount.decrementAndGet()
+          LockSupport.unpark(waiter.thread)
+        }
+        waiter = released.poll()
+      }
+    }
+  }
+
+  /**
+   * The current beat.
+   */
+  def currentBeat: Int = beat.get
+
+  /**
+   * Blocks the current thread until the clock reaches the passed beat.
+   */
+  def waitForBeat(beatToWaitFor: Int) {
+    var highest = highestBeatBeingWaitedOn.get
+    while (beatToWaitFor > highest && !highestBeatBeingWaitedOn.compareAndSet(highest, beatToWaitFor))
+      highest = highestBeatBeingWaitedOn.get
+    if (beat.get < beatToWaitFor) {
+      val waiter = new Waiter(Thread.currentThread)
+      val queue = queueFor(beatToWaitFor)
+      // Queued before it is counted, so that once it is counted, an advance to its beat is sure to find it, and
+      // uncount it, rather than leaving it counted as waiting while it goes on to do its work. Whichever of advance
+      // and this thread releases the waiter uncounts it, so the count balances even if advance gets there first.
+      queue.add(waiter)
+      val count = waitingCount.incrementAndGet()
+      // The beat is read again after the waiter is queued, and advance drains the queue after incrementing
+      // the beat, so either this thread sees the new beat, or advance sees this waiter and unparks it
+      if (beat.get < beatToWaitFor)
+        onWaiting(count)
+      try {
+        while (beat.get < beatToWaitFor) {
+          LockSupport.park(this)
+          if (Thread.interrupted())
+            throw new AssertionError(new InterruptedException)
+        }
+      }
+      finally {
+        if (waiter.release())
+          waitingCount.decrementAndGet()
+        if (beat.get >= beatToWaitFor)
+          waiters.remove(beatToWaitFor, queue) // In case this thread queued itself after advance had drained it
+      }
+    }
+  }
+
+  private def queueFor(beatToWaitFor: Int): ConcurrentLinkedQueue[Waiter] = {
+    val existing = waiters.get(beatToWaitFor)
+    if (existing != null) existing
+    else {
+      val created = new ConcurrentLinkedQueue[Waiter]
+      val raced = waiters.putIfAbsent(beatToWaitFor, created)
+      if (raced == null) created else raced
+    }
+  }
+
+  /**
+   * Returns true if any thread is waiting for a beat in the future (greater than the current beat).
+   */
+  def isAnyThreadWaitingForABeat: Boolean = highestBeatBeingWaitedOn.get > beat.get
+
+  /**
+   * The number of threads waiting for a beat that has not yet been reached.
+   */
+  def waitingThreadCount: Int = waitingCount.get
+
+  /**
+   * Runs the passed function with the clock frozen, so that it will not advance even when all threads
+   * are blocked.
+   */
+  def withClockFrozen[T](fun: => T): T = rwLock read fun
+
+  /**
+   * Check if the clock has been frozen by any threads.
+   */
+  def isFrozen: Boolean = rwLock.getReadLockCount > 0
+}
+
+private[scalatest] object BeatClock {
+
+  // A thread waiting for a beat, released exactly once, either by advance or by the thread itself
+  private final class Waiter(val thread: Thread) extends AtomicBoolean {
+    def release(): Boolean = compareAndSet(false, true)
+  }
+}
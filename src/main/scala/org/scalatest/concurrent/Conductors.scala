@@ -18,7 +18,10 @@ package org.scalatest.concurrent
 import org.scalatest._
 import PimpedThreadGroup._
 import _root_.java.util.concurrent._
+import _root_.java.util.concurrent.atomic.AtomicInteger
 import _root_.java.util.concurrent.atomic.AtomicReference
+import _root_.java.util.concurrent.locks.LockSupport
+import scala.collection.JavaConverters._
 import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepthFun
 import org.scalatest.exceptions.NotAllowedException
 import time.{Seconds, Millis, Span}
@@ -478,17 +481,40 @@ trait Conductors extends PatienceConfiguration {
    * for regression tests, but you may have to tolerate occasional false negatives.
    * </p>
    *
+   * <p>
+   * To stress test code with many more threads than a JVM can comfortably run as platform threads, pass <code>true</code>
+   * as <code>virtualThreads</code>, and the <code>Conductor</code> will run its threads as virtual threads, if the JVM supports
+   * them (Java 21 or later). Virtual threads can't be placed in a thread group, so the <code>Conductor</code> then keeps track
+   * of only the threads created by its <code>thread</code> methods, not any threads they create in turn. A thread that is
+   * waiting for a beat is never sampled with <code>getState</code>: as soon as every live thread is waiting for a beat, the
+   * <code>Conductor</code> advances the beat without waiting for the next clock interval.
+   * </p>
+   *
+   * @param virtualThreads whether to run this <code>Conductor</code>'s threads as virtual threads, if the JVM supports them
+   *
    * @author Josh Cough
    * @author Bill Venners
    */
-  final class Conductor {
+  final class Conductor(virtualThreads: Boolean) {
+
+    /**
+     * Creates a <code>Conductor</code> that runs its threads as platform threads.
+     */
+    def this() = this(false)
+
+    /**
+     * Indicates whether this <code>Conductor</code> runs its threads as virtual threads, which it does if it was asked
+     * to, and the JVM supports them.
+     */
+    val usesVirtualThreads: Boolean = virtualThreads && VirtualThreads.areSupported
 
     /**
      * The metronome used to coordinate between threads.
      * This clock is advanced by the clock thread.
      * The clock will not advance if it is frozen.
      */
-    private final val clock = new Clock
+    private final val clock =
+      new BeatClock(waitingCount => if (waitingCount == unfinishedThreadCount.get) clockThread.foreach(LockSupport.unpark))
 
     /////////////////////// thread management start //////////////////////////////
 
@@ -507,6 +533,31 @@ trait Conductors extends PatienceConfiguration {
     // the main test thread
     private final val mainThread = Thread.currentThread
 
+    // The number of threads created by the thread methods that have not yet finished, used with the
+    // number of threads waiting for a beat to tell when every thread is waiting for one
+    private final val unfinishedThreadCount = new AtomicInteger
+
+    // The clock thread, once conducting has begun, which a thread that is about to wait for a beat
+    // wakes if every other thread is waiting for one too
+    @volatile private var clockThread: Option[Thread] = None
+
+    // The test threads that are still alive. When they are platform threads, this includes any threads
+    // they started, because those are placed in the same thread group.
+    private def liveThreads: List[Thread] =
+      if (usesVirtualThreads) threads.asScala.toList.filter(_.isAlive)
+      else threadGroup.getThreads
+
+    // Thread.stop is unsupported for virtual threads, and for all threads in recent JVMs, in which case
+    // all that can be done is interrupt the thread
+    private def stopThread(t: Thread) {
+      try {
+        t.stop()
+      }
+      catch {
+        case e: UnsupportedOperationException => t.interrupt()
+      }
+    }
+
     /**
      * Creates a new thread that will execute the specified function.
      *
@@ -541,7 +592,10 @@ trait Conductors extends PatienceConfiguration {
         case _ =>
           if (threadNames contains name)
             throw new NotAllowedException(Resources("cantRegisterThreadsWithSameName", name), getStackDepthFun("Conductors.scala", "thread"))
-          val t = TestThread(name, fun _)
+          val testRunnable = new TestRunnable(fun _)
+          val t =
+            if (usesVirtualThreads) VirtualThreads.newThread(name, testRunnable)
+            else new Thread(threadGroup, testRunnable, name)
           threads add t
           threadNames add name
           t.start()
@@ -559,10 +613,11 @@ trait Conductors extends PatienceConfiguration {
     * The main thread grants permission after it receives notication that
     * all test threads are ready to go.
     */
-    private case class TestThread(name: String, f: () => Unit) extends Thread(threadGroup, name) {
+    private class TestRunnable(f: () => Unit) extends Runnable {
 
-      // Indicate a TestThread has been created that has not yet started running
+      // Indicate a test thread has been created that has not yet started running
       testThreadsStartingCounter.increment()
+      unfinishedThreadCount.incrementAndGet()
 
       override def run() {
         try {
@@ -590,6 +645,9 @@ trait Conductors extends PatienceConfiguration {
               firstExceptionThrown offer t
             }
         }
+        finally {
+          unfinishedThreadCount.decrementAndGet()
+        }
       }
     }
 
@@ -830,8 +888,9 @@ trait Conductors extends PatienceConfiguration {
       greenLightForTestThreads.countDown()
 
       // start the clock thread
-      val clockThread = ClockThread(timeout, clockInterval)
-      clockThread.start()
+      val newClockThread = ClockThread(timeout, clockInterval)
+      clockThread = Some(newClockThread)
+      newClockThread.start()
 
       // wait until all threads have ended
       waitForThreads
@@ -861,8 +920,8 @@ trait Conductors extends PatienceConfiguration {
     // returns.
     private def waitForThreads {
       var interrupted = false
-      while(!interrupted && threadGroup.areAnyThreadsAlive) {
-        threadGroup.getThreads.foreach { t =>
+      while(!interrupted && !liveThreads.isEmpty) {
+        liveThreads.foreach { t =>
           if (!interrupted && t.isAlive && firstExceptionThrown.isEmpty)
             try {
               t.join()
@@ -881,124 +940,6 @@ trait Conductors extends PatienceConfiguration {
 
 
 
-    /**
-     * A Clock manages the current beat in a Conductor.
-     * Several duties stem from that responsibility.
-     *
-     * The clock will:
-     *
-     * <ol>
-     * <li>Block a thread until the tick has reached a particular time.</li>
-     * <li>Report the current time</li>
-     * <li>Run operations with the clock frozen.</li>
-     * </ol>
-     */
-    private class Clock {
-
-      import java.util.concurrent.locks.ReentrantReadWriteLock
-      import PimpedReadWriteLock._
-
-      // clock starts at time 0
-      private var currentTime = 0
-
-      // methods in Clock that access or modify the private instance vars of this
-      // Clock are synchronized on the object referenced from lock
-      private val lock = new AnyRef
-
-      /**
-       * Read locks are acquired when clock is frozen and must be
-       * released before the clock can advance in a advance(). (In a
-       * ReentrantReadWriteLock, multiple threads can hold the read lock (and these
-       * threads might read the value of currentTime (the currentBeat method), or just execute a
-       * function with the clock frozen (the withClockFrozen method). The write lock
-       * of a ReentrantReadWriteLock is exclusive, so only one can hold it, and it
-       * can't be held if there are a thread or threads holding the read lock. This
-       * is why the clock can't advance during a withClockFrozen, because the read
-       * lock is grabbed before the function is executed in withClockFrozen, thus
-       * advance will not be able to acquire the write lock to update currentTime
-       * until after withClockFrozen has released the read lock (and there are no other
-       * threads holding a read lock or the write lock).
-       */
-      private val rwLock = new ReentrantReadWriteLock
-
-      private var highestBeatBeingWaitedOn = 0
-
-      /**
-       * Advance the current beat. In order to do so, the clock will wait
-       * until it has become unfrozen.
-       *
-       * All threads waiting for the clock to advance (they would have been put in the lock
-       * object's wait set by invoking the waitForBeat method) will be notified after the advance.
-       *
-       * Only the clock thread should be calling this.
-       *
-       * If the clock has been frozen by a thread, then that thread will own the readLock. Write
-       * lock can only be acquired when there are no readers, so ticks won't progress while someone
-       * has the clock frozen. Other methods also grab the read lock, like time (which gets
-       * the current beat.)
-       */
-      def advance() {
-        lock.synchronized {
-          rwLock.write {
-            currentTime += 1
-          }
-          lock.notifyAll()
-        }
-      }
-
-      /**
-       * The current beat.
-       */
-      def currentBeat: Int =
-        lock.synchronized {
-          rwLock read currentTime
-        }
-
-      /**
-       * When wait for beat is called, the current thread will block until
-       * the given beat is reached by the clock.
-       */
-      def waitForBeat(beat: Int) {
-        lock.synchronized {
-          if (beat > highestBeatBeingWaitedOn)
-            highestBeatBeingWaitedOn = beat
-          while (currentBeat < beat) {
-            try {
-              lock.wait()
-            } catch {     // TODO: this is probably fine, but check JCIP about InterEx again
-              case e: InterruptedException => throw new AssertionError(e)
-            }         // Actually I"m not sure. Maybe should reset the interupted status
-          }
-        }
-      }
-
-      // The reason there's no race condition between calling currentBeat in the while and calling
-      // lock.wait() later (between that) and some other thread incrementing the beat and doing
-      // a notify that this thread would miss (which it would want to know about if that's the
-      // new time that it's waiting for) is because both this and the currentBeat method are synchronized
-      // on the lock.
-
-      /**
-       * Returns true if any thread is waiting for a beat in the future (greater than the current beat)
-       */
-      def isAnyThreadWaitingForABeat = {
-        lock.synchronized { highestBeatBeingWaitedOn > currentTime }
-      }
-
-      /**
-       * When the clock is frozen, it will not advance even when all threads
-       * are blocked. Use this to block the current thread with a time limit,
-       * but prevent the clock from advancing due to a waitForBeat(Int) in
-       * another thread.
-       */
-      def withClockFrozen[T](fun: => T): T = rwLock read fun
-
-      /**
-       * Check if the clock has been frozen by any threads.
-       */
-      def isFrozen: Boolean = rwLock.getReadLockCount > 0
-    }
-
     /**
      * The clock thread is the manager of the multi-threaded scenario.
      * Periodically checks all the test threads and regulates them.
@@ -1070,19 +1011,27 @@ trait Conductors extends PatienceConfiguration {
         // NEW after it has been instantiated, but run() hasn't been called yet.)
         // So this means there are threads that are RUNNABLE, BLOCKED, WAITING, or
         // TIMED_WAITING. (BLOCKED is waiting for a lock. WAITING is in the wait set.)
-        while (threadGroup.areAnyThreadsAlive) {
+        var live = liveThreads
+        while (!live.isEmpty) {
           if (!firstExceptionThrown.isEmpty) {
             // If any exception has been thrown, stop any live test thread.
-            threadGroup.getThreads.foreach { t =>
+            live.foreach { t =>
               if (t.isAlive)
-                t.stop()
+                stopThread(t)
             }
           }
+          // If every live thread is waiting for a beat, advance the beat, without
+          // asking any thread for its state.
+          else if (clock.waitingThreadCount == live.size) {
+            clock.advance()
+            deadlockCount = 0
+            lastProgress = System.nanoTime
+          }
           // If any threads are in the RUNNABLE state, just check to see if there's been
           // no progress for more than the timeout amount of time. If RUNNABLE threads
           // exist, but the timeout limit has not been reached, then just go
           // back to sleep.
-          else if (threadGroup.areAnyThreadsRunning) {
+          else if (live.exists(_.getState == Thread.State.RUNNABLE)) {
             if (runningTooLong) stopDueToTimeout()
           }
           // No RUNNABLE threads, so if any threads are waiting for a beat, advance
@@ -1092,14 +1041,16 @@ trait Conductors extends PatienceConfiguration {
             deadlockCount = 0
             lastProgress = System.nanoTime
           }
-          else if (!threadGroup.areAnyThreadsInTimedWaiting) {
+          else if (!live.exists(_.getState == Thread.State.TIMED_WAITING)) {
             // At this point, no threads are RUNNABLE, None
             // are waiting for a beat, and none are in TimedWaiting.
             // If this persists for MaxDeadlockDetectionsBeforeDeadlock,
             // go ahead and abort.
             detectDeadlock()
           }
-          Thread.sleep(clockInterval.millisPart, clockInterval.nanosPart)
+          // Parked rather than asleep, so that the last thread to start waiting for a beat can wake it
+          LockSupport.parkNanos(this, clockInterval.totalNanos)
+          live = liveThreads
         }
       }
 
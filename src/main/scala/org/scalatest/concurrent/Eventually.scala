@@ -21,8 +21,14 @@ import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepthFun
 import org.scalatest.Suite.anExceptionThatShouldCauseAnAbort
 import scala.annotation.tailrec
 import time.{Nanosecond, Span, Nanoseconds}
-
-// TODO describe backoff algo
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.{Future => FutureOfJava}
 
 /**
  * Trait that provides the <code>eventually</code> construct, which periodically retries executing
@@ -214,8 +220,9 @@ import time.{Nanosecond, Span, Nanoseconds}
  *
  * </p>
  * Rather than sleeping an entire interval if the initial attempt fails, <code>eventually</code> will only sleep 1/10 of the configured interval. It
- * will continue sleeping only 1/10 of the configured interval until the configured interval has passed, after which it sleeps the configured interval
- * between attempts. Here's an example in which the timeout is set equal to the interval:
+ * doubles the time it sleeps after each further attempt that fails, until it reaches the configured interval, and it always sleeps the
+ * configured interval once that much time has passed since the first attempt. It never sleeps past the timeout, so the last attempt is made
+ * just as the timeout expires. Here's an example in which the timeout is set equal to the interval:
  * </p>
  *
  * <pre class="stHighlight">
@@ -230,7 +237,7 @@ import time.{Nanosecond, Span, Nanoseconds}
  * </p>
  *
  *<p>
- * <code>The code passed to eventually never returned normally. Attempted 6 times over 100.485 milliseconds. Last failure message: 6 was not equal to 110.</code>
+ * <code>The code passed to eventually never returned normally. Attempted 5 times over 100.485 milliseconds. Last failure message: 5 was not equal to 110.</code>
  *</p>
  *
  * <p>
@@ -239,6 +246,13 @@ import time.{Nanosecond, Span, Nanoseconds}
  * was <code>Thread.sleep(50)</code>. 
  * </p>
  *
+ * <p>
+ * While waiting between attempts, <code>eventually</code> holds on to the thread that called it, as it would if it slept, so a test waiting in
+ * <code>eventually</code> on one of the threads <a href="../tools/Runner$.html"><code>Runner</code></a> runs suites on when given <code>-P</code>
+ * keeps that thread from running other suites meanwhile. If many tests wait for a long time, use <code>eventuallyAsync</code> instead, which makes
+ * its attempts on a few threads shared by every test, and returns a <code>java.util.concurrent.Future</code> that completes with the result.
+ * </p>
+ *
  * <a name="patienceConfig"></a><h2>Usage note: <code>Eventually</code> intended primarily for integration testing</h2>
  *
  * <p>
@@ -399,43 +413,56 @@ trait Eventually extends PatienceConfiguration {
       }
     }
 
-    val initialInterval = Span(config.interval.totalNanos * 0.1, Nanoseconds) // config.interval scaledBy 0.1
-
     @tailrec
     def tryTryAgain(attempt: Int): T = {
-      val timeout = config.timeout
-      val interval = config.interval
       makeAValiantAttempt() match {
         case Right(result) => result
         case Left(e) => 
           val duration = System.nanoTime - startNanos
-          if (duration < timeout.totalNanos) {
-            if (duration < interval.totalNanos) // For first interval, we wake up every 1/10 of the interval.  This is mainly for optimization purpose. 
-              Thread.sleep(initialInterval.millisPart, initialInterval.nanosPart)
-            else
-              Thread.sleep(interval.millisPart, interval.nanosPart)
-          }
-          else {
-            val durationSpan = Span(1, Nanosecond) scaledBy duration // Use scaledBy to get pretty units
-            def msg =
-              if (e.getMessage == null)
-                Resources("didNotEventuallySucceed", attempt.toString, durationSpan.prettyString)
-              else
-                Resources("didNotEventuallySucceedBecause", attempt.toString, durationSpan.prettyString, e.getMessage)
-            throw new TestFailedDueToTimeoutException(
-              sde => Some(msg),
-              Some(e),
-              getStackDepthFun("Eventually.scala", "eventually"),
-              None,
-              config.timeout
-            )
-          }
+          if (duration < config.timeout.totalNanos)
+            SharedScheduler.pause(Eventually.nanosBeforeNextAttempt(attempt, duration, config))
+          else
+            throw Eventually.timedOut(attempt, duration, e, config, "eventually")
 
           tryTryAgain(attempt + 1)
       }
     }
     tryTryAgain(1)
   }
+
+  /**
+   * Invokes the passed by-name parameter repeatedly, on a thread shared by all tests, until it either succeeds, or a
+   * configured maximum amount of time has passed, without holding up the calling thread.
+   *
+   * <p>
+   * This method returns immediately. Each attempt is made by one of a few threads that ScalaTest shares between all the
+   * tests that are waiting for something, so no thread sleeps between attempts. The returned <code>Future</code>
+   * completes with the by-name parameter's result the first time it succeeds. If it never does within the timeout, the
+   * <code>Future</code> fails with the <code>TestFailedDueToTimeoutException</code> that <code>eventually</code> would
+   * have thrown, wrapped in an <code>ExecutionException</code>. If it throws an exception that <code>eventually</code> would
+   * let through immediately, such as <code>TestPendingException</code>, the <code>Future</code> fails with that exception.
+   * Cancelling the <code>Future</code> stops any further attempts.
+   * </p>
+   *
+   * <p>
+   * Because the attempts are made on another thread, the by-name parameter should be quick, and should not rely on
+   * anything that is specific to the thread running the test. You can wait for the result with
+   * <code>whenReady</code> or <code>futureValue</code> from trait <a href="JavaFutures.html"><code>JavaFutures</code></a>.
+   * The timeout and interval are taken from the <code>PatienceConfig</code> passed implicitly as the last parameter,
+   * and the attempts are spaced out as described for <code>eventually</code>.
+   * </p>
+   *
+   * @param fun the by-name parameter to repeatedly invoke
+   * @param config the <code>PatienceConfig</code> object containing the <code>timeout</code> and
+   *          <code>interval</code> parameters
+   * @return a <code>Future</code> that completes with the result of invoking the <code>fun</code> by-name parameter,
+   *          the first time it succeeds
+   */
+  def eventuallyAsync[T](fun: => T)(implicit config: PatienceConfig): FutureOfJava[T] = {
+    val attempts = new Eventually.ScheduledAttempts(fun, config, (new Throwable).getStackTrace)
+    SharedScheduler.executor.execute(attempts)
+    attempts
+  }
 }
 
 /**
@@ -474,4 +501,115 @@ trait Eventually extends PatienceConfiguration {
  *   ...
  * </pre>
  */
-object Eventually extends Eventually
+object Eventually extends Eventually {
+
+  //
+  // Returns how long to wait after the passed failed attempt, which failed the passed number of nanoseconds
+  // after the first began. The wait starts at a tenth of the configured interval, and is doubled after each attempt
+  // until it reaches the interval, which it also is once an interval has elapsed. The wait never goes past the
+  // timeout, so that the last attempt is made just as it expires.
+  //
+  private[concurrent] def nanosBeforeNextAttempt(attempt: Int, elapsedNanos: Long, config: PatienceConfig): Long = {
+    val intervalNanos = config.interval.totalNanos max 1L
+    val backedOff =
+      if (elapsedNanos >= intervalNanos) intervalNanos
+      else ((intervalNanos / 10) max 1L) << ((attempt - 1) min 10)
+    (backedOff min intervalNanos) min (config.timeout.totalNanos - elapsedNanos)
+  }
+
+  private[concurrent] def timedOut(attempt: Int, duration: Long, e: Throwable, config: PatienceConfig, methodName: String): TestFailedDueToTimeoutException = {
+    val durationSpan = Span(1, Nanosecond) scaledBy duration // Use scaledBy to get pretty units
+    def msg =
+      if (e.getMessage == null)
+        Resources("didNotEventuallySucceed", attempt.toString, durationSpan.prettyString)
+      else
+        Resources("didNotEventuallySucceedBecause", attempt.toString, durationSpan.prettyString, e.getMessage)
+    new TestFailedDueToTimeoutException(
+      sde => Some(msg),
+      Some(e),
+      getStackDepthFun("Eventually.scala", methodName),
+      None,
+      config.timeout
+    )
+  }
+
+  //
+  // The attempts made by eventuallyAsync, each of which is run on the SharedScheduler and, if it fails, schedules
+  // the next. Only one attempt is ever scheduled or running at a time. The stack trace of the thread that called
+  // eventuallyAsync is given to the exception it fails with, so that it points at the call.
+  //
+  private[concurrent] final class ScheduledAttempts[T](fun: => T, config: PatienceConfig, callerStackTrace: Array[StackTraceElement]) extends FutureOfJava[T] with Runnable {
+
+    private val startNanos = System.nanoTime
+    private val result = new AtomicReference[Either[Throwable, T]]
+    private val done = new CountDownLatch(1)
+    @volatile private var attempt = 0
+    @volatile private var nextAttempt: Option[ScheduledFuture[_]] = None
+
+    def run() {
+      if (!isDone) {
+        attempt += 1
+        try {
+          complete(Right(fun))
+        }
+        catch {
+          case e: Throwable if !e.isInstanceOf[TestPendingException] && !anExceptionThatShouldCauseAnAbort(e) =>
+            val duration = System.nanoTime - startNanos
+            if (duration < config.timeout.totalNanos) {
+              val delay = nanosBeforeNextAttempt(attempt, duration, config)
+              nextAttempt = Some(SharedScheduler.executor.schedule(this, delay, TimeUnit.NANOSECONDS))
+              if (isDone) // Cancelled while scheduling
+                nextAttempt.foreach(_.cancel(false))
+            }
+            else {
+              val timeoutException = timedOut(attempt, duration, e, config, "eventuallyAsync")
+              timeoutException.setStackTrace(callerStackTrace)
+              complete(Left(timeoutException))
+            }
+          case e: Throwable =>
+            complete(Left(e))
+        }
+      }
+    }
+
+    private def complete(outcome: Either[Throwable, T]): Boolean =
+      if (result.compareAndSet(null, outcome)) {
+        done.countDown()
+        true
+      }
+      else false
+
+    def cancel(mayInterruptIfRunning: Boolean): Boolean =
+      if (complete(Left(new CancellationException))) {
+        nextAttempt.foreach(_.cancel(false))
+        true
+      }
+      else false
+
+    def isCancelled: Boolean =
+      result.get match {
+        case Left(e: CancellationException) => true
+        case _ => false
+      }
+
+    def isDone: Boolean = result.get != null
+
+    def get(): T = {
+      ManagedLatch.await(done)
+      outcome
+    }
+
+    def get(timeout: Long, unit: TimeUnit): T = {
+      if (!done.await(timeout, unit))
+        throw new TimeoutException
+      outcome
+    }
+
+    private def outcome: T =
+      result.get match {
+        case Right(value) => value
+        case Left(e: CancellationException) => throw e
+        case Left(e) => throw new ExecutionException(e)
+      }
+  }
+}
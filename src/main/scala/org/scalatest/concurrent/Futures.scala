@@ -16,11 +16,13 @@
 package org.scalatest.concurrent
 
 import org.scalatest._
-import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepthFun
+import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepth
 import org.scalatest.Suite.anExceptionThatShouldCauseAnAbort
 import scala.annotation.tailrec
 import org.scalatest.time.Span
-import exceptions.{TestCanceledException, TestFailedException, TestPendingException, TimeoutField}
+import exceptions.{StackDepthException, TestCanceledException, TestFailedException, TestPendingException, TimeoutField}
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 
 /**
  * Trait that facilitates testing with futures.
@@ -280,6 +282,23 @@ trait Futures extends PatienceConfiguration {
      */
     def isCanceled: Boolean
 
+    /**
+     * Arranges for the passed <code>Runnable</code> to be run once this future is ready, canceled or expired, if the
+     * underlying future offers a way to be notified of that.
+     *
+     * <p>
+     * This trait's implementation returns <code>false</code>, in which case <code>futureValue</code> queries this future
+     * once every <code>interval</code> until it is ready. If the underlying future accepts a callback to be invoked on completion,
+     * override this method to register one that runs the passed <code>Runnable</code>, and return <code>true</code>. Then
+     * <code>futureValue</code> will return as soon as the future is ready, without sleeping between queries. The <code>Runnable</code>
+     * may be run on any thread, including the calling thread if the future is already complete.
+     * </p>
+     *
+     * @param listener the <code>Runnable</code> to run once this future is ready, canceled or expired
+     * @return <code>true</code> if <code>listener</code> will be run once this future is ready, canceled or expired
+     */
+    def notifyWhenReady(listener: Runnable): Boolean = false
+
     /**
      * Indicates whether this future is ready within the specified timeout.
      *
@@ -404,7 +423,9 @@ trait Futures extends PatienceConfiguration {
      * <p>
      * This trait's implementation of this method queries the future repeatedly until it either is
      * ready, or a configured maximum amount of time has passed, sleeping a configured interval between
-     * attempts; and when ready, returns the future's value. For greater efficiency, implementations of
+     * attempts; and when ready, returns the future's value. If <code>notifyWhenReady</code> registers a
+     * listener with the underlying future, this method waits for the listener instead of sleeping, so that
+     * it returns as soon as the future is ready. For greater efficiency, implementations of
      * this trait may override this method so that it blocks the specified timeout while waiting for
      * the result, if the underlying future supports this.
      * </p>
@@ -427,27 +448,21 @@ trait Futures extends PatienceConfiguration {
      */
     def futureValue(implicit config: PatienceConfig): T = {
 
-      val st = Thread.currentThread.getStackTrace
-      val callerStackFrame = 
-        if (!st(2).getMethodName.contains("futureValue"))
-         st(2)
-        else
-         st(3)
-      
-      val methodName = 
-        if (callerStackFrame.getFileName == "Futures.scala" && callerStackFrame.getMethodName == "whenReady")
-          "whenReady"
-        else if (callerStackFrame.getFileName == "Futures.scala" && callerStackFrame.getMethodName == "isReadyWithin")
-          "isReadyWithin"
-        else
-          "futureValue"
-          
-      val adjustment =
-        methodName match {
-          case "whenReady" => 3
-          case "isReadyWithin" => 3
-          case _ => 0
-        }
+      // Worked out from the stack trace of the exception, so that the stack is only inspected if the future fails
+      def stackDepthFun(sde: StackDepthException): Int = {
+        val methodName = Futures.invokerOfFutureValue(sde.getStackTrace)
+        val adjustment =
+          methodName match {
+            case "whenReady" => 3
+            case "isReadyWithin" => 3
+            case _ => 0
+          }
+        getStackDepth(sde.getStackTrace, "Futures.scala", methodName, adjustment)
+      }
+
+      // Created the first time the future is found not to be ready
+      var ready: CountDownLatch = null
+      var notifies = false
 
       val startNanos = System.nanoTime
 
@@ -459,13 +474,13 @@ trait Futures extends PatienceConfiguration {
           throw new TestFailedException(
             sde => Some(Resources("futureWasCanceled")),
             None,
-            getStackDepthFun("Futures.scala", methodName, adjustment)
+            stackDepthFun _
           )
         if (thisFuture.isExpired)
           throw new TestFailedException(
             sde => Some(Resources("futureExpired", attempt.toString, interval.prettyString)),
             None,
-            getStackDepthFun("Futures.scala", methodName, adjustment)
+            stackDepthFun _
           )
         thisFuture.eitherValue match {
           case Some(Right(v)) => v
@@ -481,17 +496,27 @@ trait Futures extends PatienceConfiguration {
                   Resources("futureReturnedAnExceptionWithMessage", e.getClass.getName, e.getMessage)
               },
               Some(e),
-              getStackDepthFun("Futures.scala", methodName, adjustment)
+              stackDepthFun _
             )
           case None =>
             val duration = System.nanoTime - startNanos
-            if (duration < timeout.totalNanos)
-              Thread.sleep(interval.millisPart, interval.nanosPart)
+            if (duration < timeout.totalNanos) {
+              if (ready == null) {
+                val latch = new CountDownLatch(1)
+                ready = latch
+                notifies = thisFuture.notifyWhenReady(new Runnable { def run() { latch.countDown() } })
+                // Query again straight away, in case the future became ready before the listener was registered
+              }
+              else if (notifies)
+                ready.await(timeout.totalNanos - duration, TimeUnit.NANOSECONDS)
+              else
+                SharedScheduler.pause(interval.totalNanos)
+            }
             else {
               throw new TestFailedException(
                 sde => Some(Resources("wasNeverReady", attempt.toString, interval.prettyString)),
                 None,
-                getStackDepthFun("Futures.scala", methodName, adjustment)
+                stackDepthFun _
               ) with TimeoutField {
                 val timeout: Span = config.timeout
               }
@@ -698,4 +723,16 @@ trait Futures extends PatienceConfiguration {
  *   ...
  * </pre>
  */
-private[scalatest] object Futures extends Futures
+private[scalatest] object Futures extends Futures {
+
+  // The name of the method that invoked futureValue, found in the stack trace of an exception thrown from within it:
+  // whenReady or isReadyWithin, if futureValue was invoked by one of those, otherwise futureValue.
+  private[concurrent] def invokerOfFutureValue(stackTrace: Array[StackTraceElement]): String = {
+    val fromInvoker = stackTrace.dropWhile(!_.getMethodName.contains("futureValue")).dropWhile(_.getMethodName.contains("futureValue"))
+    fromInvoker.headOption match {
+      case Some(frame) if frame.getFileName == "Futures.scala" && (frame.getMethodName == "whenReady" || frame.getMethodName == "isReadyWithin") =>
+        frame.getMethodName
+      case _ => "futureValue"
+    }
+  }
+}
@@ -17,10 +17,10 @@ package org.scalatest.concurrent
 
 import org.scalatest.time.Span
 import java.util.concurrent.{TimeUnit, Future => FutureOfJava}
-import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepthFun
+import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepth
 import org.scalatest.Suite.anExceptionThatShouldCauseAnAbort
 import org.scalatest.Resources
-import org.scalatest.exceptions.{TestPendingException, TestFailedException, TimeoutField}
+import org.scalatest.exceptions.{StackDepthException, TestPendingException, TestFailedException, TimeoutField}
 import org.scalatest.exceptions.TestCanceledException
 
 /**
@@ -76,32 +76,22 @@ trait JavaFutures extends Futures {
       // TODO: Catch TimeoutException and wrap that in a TFE with ScalaTest's TimeoutException I think.
       // def awaitAtMost(span: Span): T = javaFuture.get(span.totalNanos, TimeUnit.NANOSECONDS)
       override def futureValue(implicit config: PatienceConfig): T = {
-        val st = Thread.currentThread.getStackTrace
-        val callerStackFrame =
-          if (!st(2).getMethodName.contains("futureValue"))
-            st(2)
-          else
-            st(3)
-
-        val methodName =
-          if (callerStackFrame.getFileName == "Futures.scala" && callerStackFrame.getMethodName == "whenReady")
-            "whenReady"
-          else if (callerStackFrame.getFileName == "Futures.scala" && callerStackFrame.getMethodName == "isReadyWithin")
-            "isReadyWithin"
-          else
-            "futureValue"
-
-        val adjustment =
-          if (methodName == "whenReady")
-            3
-          else
-            0
+        // Worked out from the stack trace of the exception, so that the stack is only inspected if the future fails
+        def stackDepthFun(sde: StackDepthException): Int = {
+          val methodName = Futures.invokerOfFutureValue(sde.getStackTrace)
+          val adjustment =
+            if (methodName == "whenReady")
+              3
+            else
+              0
+          getStackDepth(sde.getStackTrace, "JavaFutures.scala", methodName, adjustment)
+        }
 
         if (javaFuture.isCanceled)
           throw new TestFailedException(
             sde => Some(Resources("futureWasCanceled")),
             None,
-            getStackDepthFun("JavaFutures.scala", methodName, adjustment)
+            stackDepthFun _
           )
         try {
           javaFuture.get(config.timeout.totalNanos, TimeUnit.NANOSECONDS)
@@ -111,7 +101,7 @@ trait JavaFutures extends Futures {
             throw new TestFailedException(
               sde => Some(Resources("wasNeverReady")),
               None,
-              getStackDepthFun("JavaFutures.scala", methodName, adjustment)
+              stackDepthFun _
             ) with TimeoutField {
               val timeout: Span = config.timeout
             }
@@ -129,7 +119,7 @@ trait JavaFutures extends Futures {
                   Resources("futureReturnedAnExceptionWithMessage", exToReport.getClass.getName, exToReport.getMessage)
               },
               Some(exToReport),
-              getStackDepthFun("JavaFutures.scala", methodName, adjustment)
+              stackDepthFun _
             )
         }
       }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.concurrent
+
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.LockSupport
+
+/*
+ * The daemon threads shared by the constructs in this package that wait for something to happen later, so that
+ * waiting doesn't take a thread of its own per test. Anything run on it should take little time, because it
+ * holds up whatever else is scheduled.
+ */
+private[concurrent] object SharedScheduler {
+
+  private val threadCount = Runtime.getRuntime.availableProcessors max 2
+
+  val executor: ScheduledThreadPoolExecutor = {
+    val threadFactory =
+      new ThreadFactory {
+        private val count = new AtomicInteger
+        def newThread(runnable: Runnable): Thread = {
+          val thread = new Thread(runnable, "ScalaTest-scheduler-" + count.incrementAndGet())
+          thread.setDaemon(true)
+          thread
+        }
+      }
+    new ScheduledThreadPoolExecutor(threadCount, threadFactory)
+  }
+
+  //
+  // Parks the calling thread for the passed number of nanoseconds. A thread of a ForkJoinPool, such as the one
+  // Runner runs suites on with -P, waits without compensation, as it would in Thread.sleep, because letting the
+  // pool activate a spare thread for every waiting test would only add threads. Throws InterruptedException if
+  // the thread is interrupted while waiting, as Thread.sleep would.
+  //
+  def pause(nanos: Long) {
+    val deadline = System.nanoTime + nanos
+    var remaining = nanos
+    while (remaining > 0L) {
+      LockSupport.parkNanos(this, remaining)
+      if (Thread.interrupted())
+        throw new InterruptedException
+      remaining = deadline - System.nanoTime
+    }
+  }
+}
@@ -15,8 +15,6 @@
  */
 package org.scalatest.concurrent
 
-import java.util.TimerTask
-import java.util.Timer
 import org.scalatest.exceptions.StackDepthExceptionHelper.getStackDepthFun
 import org.scalatest.Resources
 import org.scalatest.exceptions.StackDepthException
@@ -83,9 +81,10 @@ import org.scalatest.exceptions.TestFailedDueToTimeoutException
  * </pre>
  *
  * <p>
- * The <code>failAfter</code> method will create a timer that runs on a different thread than the thread that
+ * The <code>failAfter</code> method will schedule a timeout on a timer that runs on a different thread than the thread that
  * invoked <code>failAfter</code>, so that it can detect when the timeout has expired and attempt to <em>interrupt</em>
- * the main thread. Because different operations can require different interruption strategies, the <code>failAfter</code>
+ * the main thread. The timer, and its one daemon thread, is shared by every <code>failAfter</code> invocation in the JVM,
+ * so the <code>Interruptor</code> should return promptly. Because different operations can require different interruption strategies, the <code>failAfter</code>
  * method accepts an implicit third parameter of type <code>Interruptor</code> that is responsible for interrupting
  * the main thread.
  * </p>
@@ -186,7 +185,7 @@ import org.scalatest.exceptions.TestFailedDueToTimeoutException
  */
 trait Timeouts {
 
-  private class TimeoutTask(testThread: Thread, interrupt: Interruptor) extends TimerTask {
+  private class TimeoutTask(testThread: Thread, interrupt: Interruptor) extends Runnable {
     @volatile var timedOut = false
     @volatile var needToResetInterruptedStatus = false
     override def run() {
@@ -288,12 +287,11 @@ trait Timeouts {
   }*/
   
   private def timeoutAfter[T](timeout: Span, f: => T, interruptor: Interruptor, exceptionFun: Option[Throwable] => StackDepthException): T = {
-    val timer = new Timer()
     val task = new TimeoutTask(Thread.currentThread(), interruptor)
-    timer.schedule(task, timeout.totalNanos / 1000 / 1000) // TODO: Probably use a sleep so I can use nanos
+    val scheduled = TimerWheel.shared.schedule(timeout.totalNanos, task)
     try {
       val result = f
-      timer.cancel()
+      scheduled.cancel()
       result match {
         case Exceptional(ex) => throw ex  // If the result is Exceptional, the exception is already wrapped, just re-throw it to get the old behavior.
         case _ => 
@@ -307,7 +305,7 @@ trait Timeouts {
     }
     catch {
       case t: Throwable => 
-        timer.cancel() // Duplicate code could be factored out I think. Maybe into a finally? Oh, not that doesn't work. So a method.
+        scheduled.cancel() // Duplicate code could be factored out I think. Maybe into a finally? Oh, not that doesn't work. So a method.
         if(task.timedOut) {
           if (task.needToResetInterruptedStatus)
             Thread.interrupted() // Clear the interrupt status (There's a race condition here, but not sure we an do anything about that.)
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.concurrent
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.LockSupport
+
+/*
+ * A hashed timing wheel: a ring of wheelSize buckets, each tickNanos wide, turned by a single daemon thread. A task
+ * due in d nanoseconds goes in the bucket d / tickNanos ticks ahead, with a count of the whole turns of the wheel
+ * still to go before it is due, so scheduling and cancelling take constant time however many tasks are pending.
+ * Deadlines are kept in nanoseconds, and a task runs on the first tick at or after its deadline, so no more than one
+ * tick late.
+ *
+ * Only the wheel's thread touches the buckets. Other threads hand it newly scheduled and cancelled tasks through
+ * lock-free queues, which it drains on each tick. When nothing is pending, the thread parks until something is
+ * scheduled, rather than waking every tick. Tasks are run on the wheel's thread, so they should take little time.
+ */
+private[concurrent] final class TimerWheel(tickNanos: Long, wheelSize: Int, threadName: String) {
+
+  require(tickNanos > 0, "tickNanos must be positive")
+  require(wheelSize > 0 && (wheelSize & (wheelSize - 1)) == 0, "wheelSize must be a power of two")
+
+  import TimerWheel.{Pending, Cancelled, Expired}
+
+  /**
+   * A task scheduled on a <code>TimerWheel</code>, which can be cancelled until it has run.
+   */
+  final class Timeout private[TimerWheel] (val deadlineNanos: Long, task: Runnable) {
+
+    private[TimerWheel] val state = new AtomicInteger(Pending)
+
+    // Only read and written by the wheel's thread
+    private[TimerWheel] var remainingRounds = 0L
+    private[TimerWheel] var bucket: Bucket = null
+    private[TimerWheel] var prev: Timeout = null
+    private[TimerWheel] var next: Timeout = null
+
+    /**
+     * Prevents the task from running, returning <code>true</code> if it had neither run nor been cancelled before.
+     */
+    def cancel(): Boolean = {
+      val wasPending = state.compareAndSet(Pending, Cancelled)
+      if (wasPending) {
+        pendingCount.decrementAndGet()
+        cancelled.add(this)
+      }
+      wasPending
+    }
+
+    def isCancelled: Boolean = state.get == Cancelled
+
+    def isExpired: Boolean = state.get == Expired
+
+    private[TimerWheel] def expire() {
+      if (state.compareAndSet(Pending, Expired)) {
+        pendingCount.decrementAndGet()
+        try {
+          task.run()
+        }
+        catch {
+          case t: Throwable =>
+            // Report it as the thread would have had the task been given one of its own, but keep the wheel turning
+            val thread = Thread.currentThread
+            thread.getUncaughtExceptionHandler.uncaughtException(thread, t)
+        }
+      }
+    }
+  }
+
+  private[TimerWheel] final class Bucket {
+
+    private var head: Timeout = null
+    private var tail: Timeout = null
+
+    def add(timeout: Timeout) {
+      timeout.bucket = this
+      if (head == null) {
+        head = timeout
+        tail = timeout
+      }
+      else {
+        tail.next = timeout
+        timeout.prev = tail
+        tail = timeout
+      }
+    }
+
+    def remove(timeout: Timeout) {
+      if (timeout.prev == null) head = timeout.next else timeout.prev.next = timeout.next
+      if (timeout.next == null) tail = timeout.prev else timeout.next.prev = timeout.prev
+      timeout.prev = null
+      timeout.next = null
+      timeout.bucket = null
+    }
+
+    // Runs the tasks in this bucket that are due on this turn of the wheel, and counts down the turns of the others.
+    // A task with no turns left is due, because the wheel only reaches a bucket once the bucket's tick has passed.
+    def expire() {
+      var timeout = head
+      while (timeout != null) {
+        val next = timeout.next
+        if (timeout.state.get != Pending)
+          remove(timeout)
+        else if (timeout.remainingRounds <= 0) {
+          remove(timeout)
+          timeout.expire()
+        }
+        else
+          timeout.remainingRounds -= 1
+        timeout = next
+      }
+    }
+  }
+
+  private val mask = wheelSize - 1
+  private val buckets = Array.fill(wheelSize)(new Bucket)
+  private val added = new ConcurrentLinkedQueue[Timeout]
+  private val cancelled = new ConcurrentLinkedQueue[Timeout]
+  private val pendingCount = new AtomicInteger
+  private val startNanos = System.nanoTime
+  @volatile private var stopped = false
+
+  private val thread = {
+    val t = new Thread(threadName) { override def run() { turn() } }
+    t.setDaemon(true)
+    t.start()
+    t
+  }
+
+  /**
+   * Schedules the passed task to run on this wheel's thread once the passed number of nanoseconds has elapsed.
+   */
+  def schedule(delayNanos: Long, task: Runnable): Timeout = {
+    val timeout = new Timeout(System.nanoTime + (delayNanos max 0L), task)
+    added.add(timeout)
+    if (pendingCount.getAndIncrement() == 0)
+      LockSupport.unpark(thread)
+    timeout
+  }
+
+  /**
+   * The number of tasks that have been scheduled and have neither run nor been cancelled.
+   */
+  def pending: Int = pendingCount.get
+
+  /**
+   * Stops this wheel's thread. Tasks still pending will not run.
+   */
+  def stop() {
+    stopped = true
+    LockSupport.unpark(thread)
+  }
+
+  private def turn() {
+    var tick = 0L
+    while (!stopped) {
+      if (pendingCount.get == 0 && added.isEmpty) {
+        LockSupport.park(this)
+        // Nothing was due on the ticks skipped while parked, so carry on from the current one
+        tick = tick max ((System.nanoTime - startNanos) / tickNanos)
+      }
+      else {
+        val tickEnd = startNanos + (tick + 1) * tickNanos
+        val remaining = tickEnd - System.nanoTime
+        if (remaining > 0)
+          LockSupport.parkNanos(this, remaining)
+        else {
+          removeCancelled()
+          transferAdded(tick)
+          buckets((tick & mask).toInt).expire()
+          tick += 1
+        }
+      }
+    }
+  }
+
+  private def removeCancelled() {
+    var timeout = cancelled.poll()
+    while (timeout != null) {
+      if (timeout.bucket != null)
+        timeout.bucket.remove(timeout)
+      timeout = cancelled.poll()
+    }
+  }
+
+  // Bounded, so that a flood of newly scheduled tasks can't hold up the ones already due
+  private def transferAdded(tick: Long) {
+    var transferred = 0
+    var timeout = added.poll()
+    while (timeout != null) {
+      if (timeout.state.get == Pending) {
+        val dueTick = ((timeout.deadlineNanos - startNanos) max 0L) / tickNanos
+        timeout.remainingRounds = (dueTick - tick) / wheelSize
+        buckets(((dueTick max tick) & mask).toInt).add(timeout)
+      }
+      transferred += 1
+      timeout = if (transferred < TimerWheel.MaxTransferPerTick) added.poll() else null
+    }
+  }
+}
+
+private[concurrent] object TimerWheel {
+
+  private val Pending = 0
+  private val Cancelled = 1
+  private val Expired = 2
+
+  private val MaxTransferPerTick = 100000
+
+  /**
+   * The wheel shared by everything in this package that needs a task run after a time limit, such as
+   * <code>Timeouts.failAfter</code>, whose one thread is started the first time it is used.
+   */
+  lazy val shared: TimerWheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(1), 512, "ScalaTest-timer")
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.concurrent
+
+/*
+ * Creates virtual threads on a JVM that has them (Java 21 or later). They are created through reflection, because
+ * ScalaTest is built for, and must still run on, JVMs that predate them.
+ */
+private[concurrent] object VirtualThreads {
+
+  private val newUnstartedThread: Option[(String, Runnable) => Thread] =
+    try {
+      val ofVirtual = classOf[Thread].getMethod("ofVirtual")
+      val builderClass = Class.forName("java.lang.Thread$Builder")
+      val name = builderClass.getMethod("name", classOf[String])
+      val unstarted = builderClass.getMethod("unstarted", classOf[Runnable])
+      ofVirtual.invoke(null) // Throws if virtual threads are a preview feature that has not been enabled
+      Some((threadName: String, runnable: Runnable) => unstarted.invoke(name.invoke(ofVirtual.invoke(null), threadName), runnable).asInstanceOf[Thread])
+    }
+    catch {
+      case e: Exception => None
+      case e: LinkageError => None
+    }
+
+  /**
+   * Whether this JVM can create virtual threads.
+   */
+  def areSupported: Boolean = newUnstartedThread.isDefined
+
+  /**
+   * Creates an unstarted virtual thread with the passed name, that will run the passed <code>Runnable</code>.
+   *
+   * @throws UnsupportedOperationException if this JVM can't create virtual threads
+   */
+  def newThread(name: String, runnable: Runnable): Thread =
+    newUnstartedThread match {
+      case Some(newThread) => newThread(name, runnable)
+      case None => throw new UnsupportedOperationException("This JVM does not support virtual threads")
+    }
+}
@@ -17,8 +17,6 @@ package org.scalatest.events
 
 import org.scalatest._
 
-import java.util.Arrays
-
 /**
  * Class used to specify a sequential order for events reported during a test run, so they
  * can be arranged in that order in a report even if the events were fired in some other order
@@ -167,26 +165,28 @@ import java.util.Arrays
  *
  * @author Bill Venners
  */
-final class Ordinal private (val runStamp: Int, private val stamps: Array[Int]) extends Ordered[Ordinal] with java.io.Serializable {
+final class Ordinal private (val runStamp: Int, private val prefix: Ordinal, private val last: Int) extends Ordered[Ordinal] with java.io.Serializable {
+
+  // The stamps sequence is represented as a chain of Ordinals, each of which holds only the last element
+  // of its stamps sequence. Its prefix is the Ordinal whose stamps are all but the last element, or null if
+  // it has only one. Because an Ordinal for a new suite simply points at the Ordinal from which it was created,
+  // next and nextNewOldPair allocate only the new Ordinals themselves, no matter how deeply suites are nested.
+  private val length: Int = if (prefix eq null) 1 else prefix.length + 1
+
+  // Equal to java.util.Arrays.hashCode of the stamps sequence
+  private val stampsHash: Int = 31 * (if (prefix eq null) 1 else prefix.stampsHash) + last
 
   /**
    * Construct a the first <code>Ordinal</code> for a run.
    *
    * @param runStamp a number that identifies a particular run
    */
-  def this(runStamp: Int) = this(runStamp, Array(0))
+  def this(runStamp: Int) = this(runStamp, null, 0)
 
   /**
    * Construct the next <code>Ordinal</code> for the current suite or other entity, such as a runner.
    */
-  def next: Ordinal = {
-    val newArray = new Array[Int](stamps.length) // Can't seem to clone
-    val zipped = stamps.zipWithIndex
-    for ((num, idx) <- zipped)
-      newArray(idx) = num
-    newArray(stamps.length - 1) += 1
-    new Ordinal(runStamp, newArray)
-  }
+  def next: Ordinal = new Ordinal(runStamp, prefix, last + 1)
 
   /**
    * Construct two new <code>Ordinal</code>s, one for a new <code>Suite</code> about to be executed and
@@ -208,17 +208,7 @@ final class Ordinal private (val runStamp: Int, private val stamps: Array[Int])
    *          second element is the next <code>Ordinal</code> for the current <code>Suite</code> or other entity, such
    *          as a runner.
    */
-  def nextNewOldPair: (Ordinal, Ordinal) = {
-    val newArrayForNewSuite = new Array[Int](stamps.length + 1)
-    val newArrayForOldSuite = new Array[Int](stamps.length)
-    val zipped = stamps.zipWithIndex
-    for ((num, idx) <- zipped) {
-      newArrayForNewSuite(idx) = num
-      newArrayForOldSuite(idx) = num
-    }
-    newArrayForOldSuite(stamps.length - 1) += 1
-    (new Ordinal(runStamp, newArrayForNewSuite), new Ordinal(runStamp, newArrayForOldSuite))
-  }
+  def nextNewOldPair: (Ordinal, Ordinal) = (new Ordinal(runStamp, this, 0), next)
 
   /**
    * Returns a <code>List[Int]</code> representation of this <code>Ordinal</code>. A set of <code>Ordinal</code>s will be ordered
@@ -227,7 +217,15 @@ final class Ordinal private (val runStamp: Int, private val stamps: Array[Int])
    *
    * @return a <code>List[Int]</code> representation of this <code>Ordinal</code>.
    */
-  def toList: List[Int] = runStamp :: stamps.toList
+  def toList: List[Int] = {
+    var stampsList: List[Int] = Nil
+    var ord = this
+    while (ord ne null) {
+      stampsList = ord.last :: stampsList
+      ord = ord.prefix
+    }
+    runStamp :: stampsList
+  }
 
   /**
    * Compares this <code>Ordinal</code> with the passed <code>Ordinal</code> for order. If this object is "less than" (ordered before)
@@ -240,22 +238,26 @@ final class Ordinal private (val runStamp: Int, private val stamps: Array[Int])
   def compare(that: Ordinal) = {
     val runStampDiff = this.runStamp - that.runStamp
     if (runStampDiff == 0) {
-      val shorterLength =
-        if (this.stamps.length < that.stamps.length)
-          this.stamps.length
-        else
-          that.stamps.length
-      var i = 0
+      // Walk the longer one up to the shorter one's length, then walk both up together
+      // until they meet. The last difference found is the one closest to the front.
+      var thisOrd = this
+      var thatOrd = that
+      while (thisOrd.length > thatOrd.length)
+        thisOrd = thisOrd.prefix
+      while (thatOrd.length > thisOrd.length)
+        thatOrd = thatOrd.prefix
       var diff = 0
-      while (diff == 0 && i < shorterLength) {
-        diff = this.stamps(i) - that.stamps(i)
-        i += 1
+      while (thisOrd ne thatOrd) {
+        if (thisOrd.last != thatOrd.last)
+          diff = thisOrd.last - thatOrd.last
+        thisOrd = thisOrd.prefix
+        thatOrd = thatOrd.prefix
       }
-      // If they were equal all the way to the shorterLength, the longest array
+      // If they were equal all the way to the shorterLength, the longest
       // one is the greater ordinal. This is because the newSuite stuff happens
       // before the next thing that happens in the old suite.
       if (diff != 0) diff
-      else this.stamps.length - that.stamps.length
+      else this.length - that.length
     }
     else runStampDiff
   }
@@ -270,7 +272,9 @@ final class Ordinal private (val runStamp: Int, private val stamps: Array[Int])
     other match {
       case that: Ordinal =>
         runStamp == that.runStamp &&
-        (stamps.deep equals that.stamps.deep)
+        length == that.length &&
+        stampsHash == that.stampsHash &&
+        compare(that) == 0
       case _ => false
     }
 
@@ -282,10 +286,20 @@ final class Ordinal private (val runStamp: Int, private val stamps: Array[Int])
   override def hashCode: Int =
     41 * (
       41 + runStamp
-    ) + Arrays.hashCode(stamps)
+    ) + stampsHash
 
   /**
    * Returns a string that includes the integers returned by <code>toList</code>.
    */
   override def toString: String = toList.mkString("Ordinal(", ", ", ")")
 }
+
+private[scalatest] object Ordinal {
+
+  // Rebuilds the Ordinal whose toList is the passed list, such as one received from another JVM
+  def fromList(list: List[Int]): Ordinal = {
+    require(list.length >= 2, "an Ordinal's list holds a run stamp and at least one stamp")
+    val runStamp = list.head
+    list.tail.foldLeft(null: Ordinal) { (prefix, stamp) => new Ordinal(runStamp, prefix, stamp) }
+  }
+}
@@ -172,17 +172,19 @@ trait Suite extends org.scalatest.Suite { thisSuite =>
           takesInformer(m) || takesOneParamOfAnyType(m) || takesTwoParamsOfTypesAnyAndInformer(m))
     }
 
-    val testNameArray =
-      for (m <- getClass.getMethods; if isTestMethod(m)) yield
-        if (takesInformer(m))
-          m.getName + InformerInParens
-        else if (takesOneParamOfAnyType(m))
-          m.getName + FixtureInParens
-        else if (takesTwoParamsOfTypesAnyAndInformer(m))
-          m.getName + FixtureAndInformerInParens
-        else m.getName
-
-    TreeSet[String]() ++ testNameArray
+    SuiteReflection(getClass).testNames("org.scalatest.fixture.Suite") { methods =>
+      val testNameArray =
+        for (m <- methods; if isTestMethod(m)) yield
+          if (takesInformer(m))
+            m.getName + InformerInParens
+          else if (takesOneParamOfAnyType(m))
+            m.getName + FixtureInParens
+          else if (takesTwoParamsOfTypesAnyAndInformer(m))
+            m.getName + FixtureAndInformerInParens
+          else m.getName
+
+      TreeSet[String]() ++ testNameArray
+    }
   }
 
   protected override def runTest(testName: String, args: Args): Status = {
@@ -182,11 +182,13 @@ class JUnit3Suite extends TestCase with Suite with AssertionsForJUnit { thisSuit
       isInstanceMethod && (firstFour == "test") && hasNoParams && hasVoidReturnType
     }
 
-    val testNameArray =
-      for (m <- getClass.getMethods; if isTestMethod(m))
-      yield m.getName
+    SuiteReflection(getClass).testNames("org.scalatest.junit.JUnit3Suite") { methods =>
+      val testNameArray =
+        for (m <- methods; if isTestMethod(m))
+        yield m.getName
 
-    TreeSet[String]() ++ testNameArray
+      TreeSet[String]() ++ testNameArray
+    }
   }
 
   /**
@@ -162,11 +162,13 @@ trait JUnitSuiteLike extends Suite with AssertionsForJUnit { thisSuite =>
       isInstanceMethod && hasNoParams && hasTestAnnotation
     }
 
-    val testNameArray =
-      for (m <- getClass.getMethods; if isTestMethod(m))
-      yield m.getName
+    SuiteReflection(getClass).testNames("org.scalatest.junit.JUnitSuite") { methods =>
+      val testNameArray =
+        for (m <- methods; if isTestMethod(m))
+        yield m.getName
 
-    TreeSet[String]() ++ testNameArray
+      TreeSet[String]() ++ testNameArray
+    }
   }
 
   /**
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.nio.file.Files
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.jar.JarFile
+import scala.collection.JavaConverters._
+
+/*
+ * Identifies the contents of a runpath entry: for a jar, its size and modification time, and for a directory, the
+ * number of class files under it and the latest of their modification times.
+ */
+private[tools] case class EntryStamp(lastModified: Long, size: Long)
+
+/*
+ * The ClassFileInfos of the classes in one runpath entry, keyed by class name.
+ */
+private[tools] case class EntryIndex(stamp: EntryStamp, classes: Map[String, ClassFileInfo])
+
+/**
+ * Reads the class files of jars and directories on the runpath, in parallel, into <code>ClassFileInfo</code>s, without
+ * loading any classes. The index of each entry is cached, in memory and in <code>cacheFile</code>, for as long as the
+ * entry is unchanged, so that later runs need not read the class files of entries that haven't changed.
+ *
+ * <p>
+ * The cache file is kept in the <code>.scalatest</code> directory under the user's home directory, unless the
+ * <code>org.scalatest.tools.Runner.discoveryCache</code> system property names another file, or is <code>off</code>, in
+ * which case indexes are only cached in memory. A cache file that the current user doesn't own is neither read nor
+ * replaced.
+ * </p>
+ */
+private[tools] object ClassFileIndex {
+
+  private val CacheFileVersion = 1
+
+  private val CacheFileProperty = "org.scalatest.tools.Runner.discoveryCache"
+
+  // Where the indexes of runpath entries are kept between runs, or None to keep them only in memory
+  @volatile private[tools] var cacheFile: Option[File] =
+    System.getProperty(CacheFileProperty) match {
+      case "off" => None
+      case null => Some(new File(new File(System.getProperty("user.home"), ".scalatest"), "discovery.cache"))
+      case path => Some(new File(path))
+    }
+
+  private val cache = new ConcurrentHashMap[String, EntryIndex]
+
+  private val cacheFileLoaded = new AtomicBoolean
+
+  private val cacheChanged = new AtomicBoolean
+
+  //
+  // Returns the ClassFileInfos of all classes in the passed jars and directories, keyed
+  // by class name. Where two entries contain the same class, the one that comes first
+  // in the runpath wins, as it would when loading.
+  //
+  def index(entries: List[File]): Map[String, ClassFileInfo] = {
+    if (cacheFileLoaded.compareAndSet(false, true))
+      cacheFile.foreach(loadCacheFile)
+    val threadCount = entries.length min Runtime.getRuntime.availableProcessors max 1
+    val execSvc = Executors.newFixedThreadPool(threadCount)
+    try {
+      val tasks =
+        for (entry <- entries) yield
+          new Callable[Map[String, ClassFileInfo]] {
+            def call() = entryIndex(entry).classes
+          }
+      val futures = execSvc.invokeAll(tasks.asJava).asScala.toList
+      val entryMaps =
+        for (future <- futures) yield
+          try {
+            future.get
+          }
+          catch {
+            case e: ExecutionException => throw e.getCause
+          }
+      if (cacheChanged.compareAndSet(true, false))
+        cacheFile.foreach(saveCacheFile)
+      entryMaps.reverse.foldLeft(Map.empty[String, ClassFileInfo])(_ ++ _)
+    }
+    finally {
+      execSvc.shutdown()
+    }
+  }
+
+  def entryIndex(entry: File): EntryIndex = {
+    val path = entry.getAbsolutePath
+    val stamp = stampOf(entry)
+    val cached = cache.get(path)
+    if (cached != null && cached.stamp == stamp)
+      cached
+    else {
+      val fresh = EntryIndex(stamp, readEntry(entry))
+      cache.put(path, fresh)
+      cacheChanged.set(true)
+      fresh
+    }
+  }
+
+  def stampOf(entry: File): EntryStamp =
+    if (entry.isDirectory) {
+      val classFiles = classFilesUnder(entry)
+      EntryStamp(if (classFiles.isEmpty) 0L else classFiles.map(_.lastModified).max, classFiles.length)
+    }
+    else
+      EntryStamp(entry.lastModified, entry.length)
+
+  private def readEntry(entry: File): Map[String, ClassFileInfo] = {
+    val infos =
+      if (entry.isDirectory)
+        for (file <- classFilesUnder(entry)) yield readClassFile(file)
+      else if (entry.getName.endsWith(".jar"))
+        readJar(entry)
+      else
+        Nil
+    Map() ++ infos.flatten.map(info => (info.name, info))
+  }
+
+  private def readClassFile(file: File): Option[ClassFileInfo] =
+    try {
+      val in = new BufferedInputStream(new FileInputStream(file))
+      try {
+        ClassFileInfo.read(in)
+      }
+      finally {
+        in.close()
+      }
+    }
+    catch {
+      case e: IOException => None
+    }
+
+  private def readJar(file: File): List[Option[ClassFileInfo]] =
+    try {
+      val jar = new JarFile(file)
+      try {
+        (for (entry <- jar.entries.asScala if entry.getName.endsWith(".class")) yield {
+          val in = new BufferedInputStream(jar.getInputStream(entry))
+          try {
+            ClassFileInfo.read(in)
+          }
+          finally {
+            in.close()
+          }
+        }).toList
+      }
+      finally {
+        jar.close()
+      }
+    }
+    catch {
+      case e: IOException => Nil
+    }
+
+  private def classFilesUnder(dir: File): List[File] = {
+    val children = dir.listFiles
+    if (children == null)
+      Nil
+    else
+      children.toList.flatMap { child =>
+        if (child.isDirectory) classFilesUnder(child)
+        else if (child.getName.endsWith(".class")) List(child)
+        else Nil
+      }
+  }
+
+  private[tools] def clearCache() {
+    cache.clear()
+  }
+
+  //
+  // Adds the entry indexes in the passed cache file to the in-memory cache. A missing,
+  // unreadable or out of date cache file is ignored, and will be overwritten.
+  //
+  private[tools] def loadCacheFile(file: File) {
+    if (file.isFile && isOwnedByCurrentUser(file)) {
+      try {
+        val in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+        try {
+          if (in.readInt() == CacheFileVersion) {
+            for (i <- 0 until in.readInt()) {
+              val path = in.readUTF()
+              val stamp = EntryStamp(in.readLong(), in.readLong())
+              val infos = List.fill(in.readInt())(readInfo(in))
+              cache.putIfAbsent(path, EntryIndex(stamp, Map() ++ infos.map(info => (info.name, info))))
+            }
+          }
+        }
+        finally {
+          in.close()
+        }
+      }
+      catch {
+        case e: Exception => // Corrupt, so start afresh
+      }
+    }
+  }
+
+  // Another user could otherwise plant a cache file that hides suites
+  private[tools] def isOwnedByCurrentUser(file: File): Boolean =
+    try {
+      val owner = Files.getOwner(file.toPath).getName
+      val user = System.getProperty("user.name")
+      owner == user || owner.endsWith("\\" + user) // On Windows, the owner is qualified by its domain
+    }
+    catch {
+      case e: Exception => false
+    }
+
+  //
+  // Writes the in-memory cache, less the entries that no longer exist, to the passed
+  // cache file. It is written to a temporary file first and then renamed, so that a
+  // run reading the cache file concurrently sees either the old or the new one. A cache
+  // file that belongs to another user is left alone.
+  //
+  private[tools] def saveCacheFile(file: File) {
+    val indexes = cache.asScala.toList.filter { case (path, _) => new File(path).exists }
+    if (!file.exists || isOwnedByCurrentUser(file)) {
+      try {
+        file.getAbsoluteFile.getParentFile.mkdirs()
+        val temp = File.createTempFile("scalatest-discovery", ".cache", file.getAbsoluteFile.getParentFile)
+        val out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))
+        try {
+          out.writeInt(CacheFileVersion)
+          out.writeInt(indexes.length)
+          for ((path, EntryIndex(stamp, classes)) <- indexes) {
+            out.writeUTF(path)
+            out.writeLong(stamp.lastModified)
+            out.writeLong(stamp.size)
+            out.writeInt(classes.size)
+            classes.values.foreach(writeInfo(out, _))
+          }
+        }
+        finally {
+          out.close()
+        }
+        if (!temp.renameTo(file)) {
+          file.delete()
+          if (!temp.renameTo(file))
+            temp.delete()
+        }
+      }
+      catch {
+        case e: IOException => // The cache file is only an optimization
+      }
+    }
+  }
+
+  private def writeInfo(out: DataOutputStream, info: ClassFileInfo) {
+    def writeOption(option: Option[String]) {
+      out.writeBoolean(option.isDefined)
+      option.foreach(out.writeUTF)
+    }
+    out.writeUTF(info.name)
+    writeOption(info.superName)
+    out.writeInt(info.interfaces.length)
+    info.interfaces.foreach(out.writeUTF)
+    out.writeBoolean(info.isPublic)
+    out.writeBoolean(info.isAbstract)
+    out.writeBoolean(info.hasPublicNoArgConstructor)
+    out.writeBoolean(info.hasClassArgConstructor)
+    out.writeBoolean(info.isDoNotDiscover)
+    writeOption(info.wrapWith)
+  }
+
+  private def readInfo(in: DataInputStream): ClassFileInfo = {
+    def readOption(): Option[String] = if (in.readBoolean()) Some(in.readUTF()) else None
+    val name = in.readUTF()
+    val superName = readOption()
+    val interfaces = List.fill(in.readInt())(in.readUTF())
+    ClassFileInfo(name, superName, interfaces, in.readBoolean(), in.readBoolean(), in.readBoolean(), in.readBoolean(),
+                  in.readBoolean(), readOption())
+  }
+}
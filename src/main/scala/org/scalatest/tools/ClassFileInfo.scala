@@ -0,0 +1,214 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import java.io.DataInputStream
+import java.io.IOException
+import java.io.InputStream
+
+/*
+ * What suite discovery needs to know about a class, read straight from its class file so that the
+ * class need not be loaded. The access flags are those reflection would report, which for a member
+ * class are the ones recorded in its InnerClasses attribute.
+ */
+private[tools] case class ClassFileInfo(
+  name: String,
+  superName: Option[String],
+  interfaces: List[String],
+  isPublic: Boolean,
+  isAbstract: Boolean,
+  hasPublicNoArgConstructor: Boolean,
+  hasClassArgConstructor: Boolean,
+  isDoNotDiscover: Boolean,
+  wrapWith: Option[String]
+)
+
+private[tools] object ClassFileInfo {
+
+  private val Magic = 0xCAFEBABE
+
+  private val AccPublic = 0x0001
+  private val AccInterface = 0x0200
+  private val AccAbstract = 0x0400
+
+  private val DoNotDiscoverDescriptor = "Lorg/scalatest/DoNotDiscover;"
+  private val WrapWithDescriptor = "Lorg/scalatest/WrapWith;"
+
+  //
+  // Reads the passed class file, which is left open. Returns None if it isn't a class file
+  // this parser understands.
+  //
+  def read(stream: InputStream): Option[ClassFileInfo] =
+    try {
+      val in = new DataInputStream(stream)
+      if (in.readInt() != Magic)
+        None
+      else {
+        in.readUnsignedShort() // minor version
+        in.readUnsignedShort() // major version
+        val pool = new ConstantPool(in)
+
+        val classAccess = in.readUnsignedShort()
+        val name = pool.className(in.readUnsignedShort())
+        val superIndex = in.readUnsignedShort()
+        val superName = if (superIndex == 0) None else Some(pool.className(superIndex))
+        val interfaces = List.fill(in.readUnsignedShort())(pool.className(in.readUnsignedShort()))
+
+        skipMembers(in) // fields
+
+        var hasPublicNoArgConstructor = false
+        var hasClassArgConstructor = false
+        for (i <- 0 until in.readUnsignedShort()) {
+          val access = in.readUnsignedShort()
+          val methodName = pool.utf8(in.readUnsignedShort())
+          val descriptor = pool.utf8(in.readUnsignedShort())
+          if (methodName == "<init>") {
+            if (descriptor == "()V" && (access & AccPublic) != 0)
+              hasPublicNoArgConstructor = true
+            if (descriptor == "(Ljava/lang/Class;)V")
+              hasClassArgConstructor = true
+          }
+          skipAttributes(in)
+        }
+
+        var access = classAccess
+        var isDoNotDiscover = false
+        var wrapWith: Option[String] = None
+        for (i <- 0 until in.readUnsignedShort()) {
+          val attributeName = pool.utf8(in.readUnsignedShort())
+          val length = in.readInt()
+          attributeName match {
+            case "RuntimeVisibleAnnotations" =>
+              for (j <- 0 until in.readUnsignedShort()) {
+                val annotationType = pool.utf8(in.readUnsignedShort())
+                for (k <- 0 until in.readUnsignedShort()) {
+                  val elementName = pool.utf8(in.readUnsignedShort())
+                  val value = readElementValue(in, pool)
+                  if (annotationType == WrapWithDescriptor && elementName == "value")
+                    wrapWith = value
+                }
+                if (annotationType == DoNotDiscoverDescriptor)
+                  isDoNotDiscover = true
+              }
+            case "InnerClasses" =>
+              for (j <- 0 until in.readUnsignedShort()) {
+                val innerIndex = in.readUnsignedShort()
+                in.readUnsignedShort() // outer class
+                in.readUnsignedShort() // simple name
+                val innerAccess = in.readUnsignedShort()
+                if (innerIndex != 0 && pool.className(innerIndex) == name)
+                  access = innerAccess
+              }
+            case _ =>
+              in.skipBytes(length)
+          }
+        }
+
+        Some(
+          ClassFileInfo(
+            name,
+            superName,
+            interfaces,
+            (access & AccPublic) != 0,
+            (access & (AccAbstract | AccInterface)) != 0,
+            hasPublicNoArgConstructor,
+            hasClassArgConstructor,
+            isDoNotDiscover,
+            wrapWith
+          )
+        )
+      }
+    }
+    catch {
+      case e: IOException => None
+      case e: IllegalArgumentException => None // An unknown constant pool tag, or one of the wrong kind
+      case e: IndexOutOfBoundsException => None
+    }
+
+  private def skipAttributes(in: DataInputStream) {
+    for (i <- 0 until in.readUnsignedShort()) {
+      in.readUnsignedShort()
+      in.skipBytes(in.readInt())
+    }
+  }
+
+  private def skipMembers(in: DataInputStream) {
+    for (i <- 0 until in.readUnsignedShort()) {
+      in.skipBytes(6) // access flags, name, and descriptor
+      skipAttributes(in)
+    }
+  }
+
+  // Returns the class named by a class element value, or None for any other kind of element value
+  private def readElementValue(in: DataInputStream, pool: ConstantPool): Option[String] =
+    in.readUnsignedByte().toChar match {
+      case 'c' =>
+        val descriptor = pool.utf8(in.readUnsignedShort())
+        if (descriptor.startsWith("L") && descriptor.endsWith(";"))
+          Some(descriptor.substring(1, descriptor.length - 1).replace('/', '.'))
+        else
+          None
+      case 'e' =>
+        in.skipBytes(4)
+        None
+      case '@' =>
+        in.readUnsignedShort()
+        for (i <- 0 until in.readUnsignedShort()) {
+          in.readUnsignedShort()
+          readElementValue(in, pool)
+        }
+        None
+      case '[' =>
+        for (i <- 0 until in.readUnsignedShort())
+          readElementValue(in, pool)
+        None
+      case _ =>
+        in.skipBytes(2)
+        None
+    }
+
+  private class ConstantPool(in: DataInputStream) {
+
+    private val count = in.readUnsignedShort()
+    private val strings = new Array[String](count)
+    private val classNameIndexes = new Array[Int](count)
+
+    private var i = 1
+    while (i < count) {
+      in.readUnsignedByte() match {
+        case 1 => strings(i) = in.readUTF()
+        case 7 => classNameIndexes(i) = in.readUnsignedShort()
+        case 8 | 16 | 19 | 20 => in.skipBytes(2)
+        case 15 => in.skipBytes(3)
+        case 3 | 4 | 9 | 10 | 11 | 12 | 17 | 18 => in.skipBytes(4)
+        case 5 | 6 =>
+          in.skipBytes(8)
+          i += 1 // Longs and doubles take two entries
+        case tag => throw new IllegalArgumentException("Unknown constant pool tag: " + tag)
+      }
+      i += 1
+    }
+
+    def utf8(index: Int): String = {
+      val s = strings(index)
+      if (s == null)
+        throw new IllegalArgumentException("Not a UTF8 constant: " + index)
+      s
+    }
+
+    def className(index: Int): String = utf8(classNameIndexes(index)).replace('/', '.')
+  }
+}
@@ -16,18 +16,67 @@
 package org.scalatest.tools
 
 import org.scalatest._
-import java.util.concurrent.ExecutorService
 import java.util.concurrent.LinkedBlockingQueue
-import java.util.concurrent.Future
+import scala.concurrent.forkjoin.ForkJoinPool
+import scala.concurrent.forkjoin.ForkJoinWorkerThread
+import scala.concurrent.forkjoin.RecursiveAction
 
 /**
  * This Distributor can be used by multiple threads.
  *
+ * <p>
+ * Suites are run as tasks in the passed <code>ForkJoinPool</code>. A suite distributed from one of the pool's own
+ * threads, such as a nested suite or a test distributed by <code>ParallelTestExecution</code>, is forked onto that
+ * thread's work queue, from which idle threads steal it. A thread of the pool that then waits on the returned
+ * <code>Status</code> joins the task, which runs it on the waiting thread if it hasn't been stolen yet, and
+ * otherwise helps run other queued tasks instead of parking. This keeps deeply nested suites from starving, or
+ * deadlocking, a small pool.
+ * </p>
+ *
+ * <p>
+ * If <code>metrics</code> is defined, the pool is watched by it, and its active thread count sampled as each suite
+ * starts and completes.
+ * </p>
+ *
  * @author Bill Venners
  */
-private[scalatest] class ConcurrentDistributor(args: Args, execSvc: ExecutorService) extends Distributor {
+private[scalatest] class ConcurrentDistributor(args: Args, pool: ForkJoinPool, metrics: Option[RunMetrics] = None) extends Distributor {
+
+  for (m <- metrics)
+    m.watchPool(pool)
+
+  private val taskQueue = new LinkedBlockingQueue[SuiteTask]
+
+  private class SuiteTask(suiteRunner: SuiteRunner) extends RecursiveAction {
+    def compute() {
+      for (m <- metrics)
+        m.samplePool()
+      try suiteRunner.run()
+      finally {
+        for (m <- metrics)
+          m.samplePool()
+      }
+    }
+  }
+
+  private class SuiteTaskStatus(task: SuiteTask, status: ScalaTestStatefulStatus) extends Status {
+    def succeeds() = {
+      waitUntilCompleted()
+      status.succeeds()
+    }
+    def isCompleted = status.isCompleted
+    def waitUntilCompleted() {
+      if (!status.isCompleted && onPoolThread)
+        task.quietlyJoin()
+      status.waitUntilCompleted()
+    }
+  }
 
-  private val futureQueue = new LinkedBlockingQueue[Future[T] forSome { type T }]
+  private def onPoolThread: Boolean =
+    Thread.currentThread match {
+      case worker: ForkJoinWorkerThread => worker.getPool eq pool
+      case _ => false
+    }
 
   def apply(suite: Suite, tracker: Tracker) {
     apply(suite, args.copy(tracker = tracker))
@@ -39,16 +88,24 @@ private[scalatest] class ConcurrentDistributor(args: Args, execSvc: ExecutorServ
     if (args == null)
       throw new NullPointerException("args is null")
     val status = new ScalaTestStatefulStatus
-    val suiteRunner = new SuiteRunner(suite, args, status)
-    val future: Future[_] = execSvc.submit(suiteRunner)
-    futureQueue.put(future)
-    status
+    val task = new SuiteTask(new SuiteRunner(suite, args, status, metrics))
+    if (onPoolThread)
+      task.fork()
+    else
+      pool.execute(task)
+    taskQueue.put(task)
+    new SuiteTaskStatus(task, status)
   }
 
   def poll() = None
 
   def waitUntilDone() {
-    while (futureQueue.peek != null)
-      futureQueue.poll().get()
+    while (taskQueue.peek != null) {
+      val task = taskQueue.poll()
+      if (onPoolThread)
+        task.join()
+      else
+        task.get()
+    }
   }
 }
@@ -17,6 +17,7 @@ package org.scalatest.tools
 
 import org.scalatest._
 import java.util.UUID
+import scala.concurrent.forkjoin.ForkJoinPool
 
 /**
  * A Suite that contains as nested suites accessible suites on the runpath whose fully qualified
@@ -24,40 +25,53 @@ import java.util.UUID
  * qualified name starts with the path will be included in nestedSuites. Else, only accessible suites that
  * are direct members of the path are included in nesteSuites.
  *
+ * <p>
+ * The nested suites are instantiated the first time they are asked for. If an <code>instantiationPool</code> is passed,
+ * each is instantiated by a task of its own on that pool.
+ * </p>
+ *
  * @author Bill Venners
  */
-private[scalatest] class DiscoverySuite(path: String, accessibleSuites: Set[String], wildcard: Boolean, runpathClassLoader: ClassLoader)  extends Suite {
+private[scalatest] class DiscoverySuite(path: String, accessibleSuites: Set[String], wildcard: Boolean, runpathClassLoader: ClassLoader, instantiationPool: Option[ForkJoinPool] = None)  extends Suite {
 
   if (path == null || accessibleSuites == null || runpathClassLoader == null)
     throw new NullPointerException
 
   override val suiteId = getClass.getName + "-" + UUID.randomUUID.toString
     
-  override val nestedSuites: collection.immutable.IndexedSeq[Suite] =
-    for (suiteClassName <- DiscoverySuite.nestedSuiteNames(path, accessibleSuites, wildcard))
-      yield {
-        try {
-          val clazz = runpathClassLoader.loadClass(suiteClassName)
-          val wrapWithAnnotation = clazz.getAnnotation(classOf[WrapWith])
-          if (wrapWithAnnotation == null)
-            clazz.newInstance.asInstanceOf[Suite]
-          else {
-            val suiteClazz = wrapWithAnnotation.value
-            val constructorList = suiteClazz.getDeclaredConstructors()
-            val constructor = constructorList.find { c => 
-              val types = c.getParameterTypes
-              types.length == 1 && types(0) == classOf[java.lang.Class[_]]
-            }
-            constructor.get.newInstance(clazz).asInstanceOf[Suite]
-          }
-        }
-        catch {
-          case e: Exception => {
-            val msg = Resources("cannotLoadDiscoveredSuite", suiteClassName)
-            throw new RuntimeException(msg, e)
-          }
+  // The fully qualified names of the classes of the nested suites, which are known before they are instantiated
+  val suiteClassNames: collection.immutable.IndexedSeq[String] = DiscoverySuite.nestedSuiteNames(path, accessibleSuites, wildcard)
+
+  override lazy val nestedSuites: collection.immutable.IndexedSeq[Suite] = {
+    instantiationPool match {
+      case Some(pool) => ParallelPreparation.map(suiteClassNames, pool)(instantiate)
+      case None => suiteClassNames.map(instantiate)
+    }
+  }
+
+  private def instantiate(suiteClassName: String): Suite =
+    try {
+      val clazz = runpathClassLoader.loadClass(suiteClassName)
+      val wrapWithAnnotation = clazz.getAnnotation(classOf[WrapWith])
+      if (wrapWithAnnotation == null)
+        clazz.newInstance.asInstanceOf[Suite]
+      else {
+        val suiteClazz = wrapWithAnnotation.value
+        val constructorList = suiteClazz.getDeclaredConstructors()
+        val constructor = constructorList.find { c => 
+          val types = c.getParameterTypes
+          types.length == 1 && types(0) == classOf[java.lang.Class[_]]
         }
+        constructor.get.newInstance(clazz).asInstanceOf[Suite]
+      }
+    }
+    catch {
+      case e: Exception => {
+        val msg = Resources("cannotLoadDiscoveredSuite", suiteClassName)
+        throw new RuntimeException(msg, e)
       }
+    }
+
      // TODO: probably override run to just call runNestedSuites
   override protected def runTests(testName: Option[String], args: Args): Status = {
     if (testName == null)
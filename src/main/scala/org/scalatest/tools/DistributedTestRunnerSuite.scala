@@ -21,4 +21,10 @@ private[scalatest] class DistributedTestRunnerSuite(val suite: ParallelTestExecu
   override def run(ignoreThisTestName: Option[String], ignoreExceptForTheTracker: Args): Status = {
     suite.run(Some(testName), args.copy(tracker = ignoreExceptForTheTracker.tracker))
   }
-}
\ No newline at end of file
+}
+// Runs one test of a OneInstanceParallelTestExecution in the same instance that distributed it
+private[scalatest] class DistributedTestInInstanceSuite(runTheTest: Tracker => Status) extends Suite {
+  override def run(ignoreThisTestName: Option[String], ignoreExceptForTheTracker: Args): Status = {
+    runTheTest(ignoreExceptForTheTracker.tracker)
+  }
+}
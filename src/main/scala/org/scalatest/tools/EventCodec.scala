@@ -0,0 +1,623 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest.ConfigMap
+import org.scalatest.events._
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInput
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.io.IOException
+import java.io.InputStream
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.io.ObjectStreamClass
+import java.io.OutputStream
+import scala.collection.mutable
+
+/*
+ * The binary wire format in which SocketReporter sends events, and in which the JVMs that start ScalaTest in child
+ * JVMs receive them.
+ *
+ * A stream starts with Magic and the Version of the schema, followed by one frame per event. A frame is the length of
+ * its body as a 4-byte int, followed by the body: a tag byte identifying the kind of event, then its fields in
+ * declaration order. Ints and longs other than time stamps are written as variable-length zig-zag integers. Names
+ * (of suites, tests, classes and threads) are written through a dictionary shared by all frames of the stream: the
+ * first time a name appears its text is written and it is given the next index, and after that only its index is
+ * written. Payloads, throwables and config maps are written as Java serialized blobs, each with its own
+ * ObjectOutputStream, so that no back-reference table outlives a frame.
+ */
+private[scalatest] object EventCodec {
+
+  val Magic = 0x53544556 // "STEV"
+  val Version = 1
+
+  // Names beyond this many are written as text each time, to bound the size of the dictionary
+  val MaxDictionarySize = 65536
+
+  private[tools] val TestStartingTag = 1
+  private[tools] val TestSucceededTag = 2
+  private[tools] val TestFailedTag = 3
+  private[tools] val TestIgnoredTag = 4
+  private[tools] val TestPendingTag = 5
+  private[tools] val TestCanceledTag = 6
+  private[tools] val SuiteStartingTag = 7
+  private[tools] val SuiteCompletedTag = 8
+  private[tools] val SuiteAbortedTag = 9
+  private[tools] val RunStartingTag = 10
+  private[tools] val RunCompletedTag = 11
+  private[tools] val RunStoppedTag = 12
+  private[tools] val RunAbortedTag = 13
+  private[tools] val InfoProvidedTag = 14
+  private[tools] val MarkupProvidedTag = 15
+  private[tools] val ScopeOpenedTag = 16
+  private[tools] val ScopeClosedTag = 17
+  private[tools] val ScopePendingTag = 18
+  private[tools] val DiscoveryStartingTag = 19
+  private[tools] val DiscoveryCompletedTag = 20
+
+  // Name dictionary codes: a literal that is not added to the dictionary, a literal that is, or an index plus this
+  private[tools] val LiteralName = 0
+  private[tools] val NewName = 1
+  private[tools] val FirstNameIndex = 2
+
+  def writeVarLong(out: DataOutputStream, value: Long) {
+    var v = (value << 1) ^ (value >> 63)
+    while ((v & ~0x7FL) != 0L) {
+      out.writeByte(((v & 0x7F) | 0x80).toInt)
+      v >>>= 7
+    }
+    out.writeByte(v.toInt)
+  }
+
+  def readVarLong(in: DataInput): Long = {
+    var v = 0L
+    var shift = 0
+    var b = 0
+    do {
+      if (shift > 63)
+        throw new IOException("malformed variable-length integer")
+      b = in.readByte()
+      v |= (b & 0x7FL) << shift
+      shift += 7
+    } while ((b & 0x80) != 0)
+    (v >>> 1) ^ -(v & 1)
+  }
+}
+
+/**
+ * Writes events to the passed stream in the format described in <code>EventCodec</code>. The stream header is written
+ * on construction. Not thread safe, and doesn't flush the passed stream.
+ */
+private[scalatest] class EventEncoder(stream: OutputStream) {
+
+  import EventCodec._
+
+  private val dictionary = mutable.HashMap[String, Int]()
+  private val frame = new ByteArrayOutputStream(512)
+  private val body = new DataOutputStream(frame)
+  private val out = new DataOutputStream(stream)
+
+  out.writeInt(Magic)
+  out.writeByte(Version)
+
+  def write(event: Event) {
+    frame.reset()
+    writeEvent(event)
+    body.flush()
+    out.writeInt(frame.size)
+    frame.writeTo(out)
+  }
+
+  private def writeEvent(event: Event) {
+    event match {
+      case e: TestStarting =>
+        body.writeByte(TestStartingTag)
+        writeOrdinal(e.ordinal)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeName(e.testName); writeText(e.testText)
+        writeFormatter(e.formatter); writeLocation(e.location); writeOptionalName(e.rerunner); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: TestSucceeded =>
+        body.writeByte(TestSucceededTag)
+        writeOrdinal(e.ordinal)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeName(e.testName); writeText(e.testText)
+        writeRecordedEvents(e.recordedEvents); writeOptionalLong(e.duration)
+        writeFormatter(e.formatter); writeLocation(e.location); writeOptionalName(e.rerunner); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: TestFailed =>
+        body.writeByte(TestFailedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeName(e.testName); writeText(e.testText)
+        writeRecordedEvents(e.recordedEvents); writeThrowable(e.throwable); writeOptionalLong(e.duration)
+        writeFormatter(e.formatter); writeLocation(e.location); writeOptionalName(e.rerunner); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: TestIgnored =>
+        body.writeByte(TestIgnoredTag)
+        writeOrdinal(e.ordinal)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeName(e.testName); writeText(e.testText)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: TestPending =>
+        body.writeByte(TestPendingTag)
+        writeOrdinal(e.ordinal)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeName(e.testName); writeText(e.testText)
+        writeRecordedEvents(e.recordedEvents); writeOptionalLong(e.duration)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: TestCanceled =>
+        body.writeByte(TestCanceledTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeName(e.testName); writeText(e.testText)
+        writeRecordedEvents(e.recordedEvents); writeThrowable(e.throwable); writeOptionalLong(e.duration)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: SuiteStarting =>
+        body.writeByte(SuiteStartingTag)
+        writeOrdinal(e.ordinal)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName)
+        writeFormatter(e.formatter); writeLocation(e.location); writeOptionalName(e.rerunner); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: SuiteCompleted =>
+        body.writeByte(SuiteCompletedTag)
+        writeOrdinal(e.ordinal)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName); writeOptionalLong(e.duration)
+        writeFormatter(e.formatter); writeLocation(e.location); writeOptionalName(e.rerunner); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: SuiteAborted =>
+        body.writeByte(SuiteAbortedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message)
+        writeName(e.suiteName); writeName(e.suiteId); writeOptionalName(e.suiteClassName)
+        writeThrowable(e.throwable); writeOptionalLong(e.duration)
+        writeFormatter(e.formatter); writeLocation(e.location); writeOptionalName(e.rerunner); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: RunStarting =>
+        body.writeByte(RunStartingTag)
+        writeOrdinal(e.ordinal)
+        writeVarLong(body, e.testCount); writeBlob(Some(e.configMap))
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: RunCompleted =>
+        body.writeByte(RunCompletedTag)
+        writeOrdinal(e.ordinal)
+        writeOptionalLong(e.duration); writeSummary(e.summary)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: RunStopped =>
+        body.writeByte(RunStoppedTag)
+        writeOrdinal(e.ordinal)
+        writeOptionalLong(e.duration); writeSummary(e.summary)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: RunAborted =>
+        body.writeByte(RunAbortedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message); writeThrowable(e.throwable); writeOptionalLong(e.duration); writeSummary(e.summary)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: InfoProvided =>
+        body.writeByte(InfoProvidedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message); writeOptionalNameInfo(e.nameInfo); writeThrowable(e.throwable)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: MarkupProvided =>
+        body.writeByte(MarkupProvidedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.text); writeOptionalNameInfo(e.nameInfo)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: ScopeOpened =>
+        body.writeByte(ScopeOpenedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message); writeNameInfo(e.nameInfo)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: ScopeClosed =>
+        body.writeByte(ScopeClosedTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message); writeNameInfo(e.nameInfo)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: ScopePending =>
+        body.writeByte(ScopePendingTag)
+        writeOrdinal(e.ordinal)
+        writeText(e.message); writeNameInfo(e.nameInfo)
+        writeFormatter(e.formatter); writeLocation(e.location); writeBlob(e.payload)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: DiscoveryStarting =>
+        body.writeByte(DiscoveryStartingTag)
+        writeOrdinal(e.ordinal)
+        writeBlob(Some(e.configMap))
+        writeThreadAndTime(e.threadName, e.timeStamp)
+      case e: DiscoveryCompleted =>
+        body.writeByte(DiscoveryCompletedTag)
+        writeOrdinal(e.ordinal)
+        writeOptionalLong(e.duration)
+        writeThreadAndTime(e.threadName, e.timeStamp)
+    }
+  }
+
+  private def writeOrdinal(ordinal: Ordinal) {
+    val list = ordinal.toList
+    body.writeInt(list.head)
+    writeVarLong(body, list.length - 1)
+    list.tail.foreach(writeVarLong(body, _))
+  }
+
+  private def writeText(text: String) {
+    val bytes = text.getBytes("UTF-8")
+    writeVarLong(body, bytes.length)
+    body.write(bytes)
+  }
+
+  private def writeName(name: String) {
+    dictionary.get(name) match {
+      case Some(index) =>
+        writeVarLong(body, index + FirstNameIndex)
+      case None if dictionary.size < MaxDictionarySize =>
+        writeVarLong(body, NewName)
+        writeText(name)
+        dictionary(name) = dictionary.size
+      case None =>
+        writeVarLong(body, LiteralName)
+        writeText(name)
+    }
+  }
+
+  private def writeOptionalName(name: Option[String]) {
+    body.writeBoolean(name.isDefined)
+    name.foreach(writeName)
+  }
+
+  private def writeOptionalLong(value: Option[Long]) {
+    body.writeBoolean(value.isDefined)
+    value.foreach(writeVarLong(body, _))
+  }
+
+  private def writeThreadAndTime(threadName: String, timeStamp: Long) {
+    writeName(threadName)
+    body.writeLong(timeStamp)
+  }
+
+  private def writeNameInfo(nameInfo: NameInfo) {
+    writeName(nameInfo.suiteName)
+    writeName(nameInfo.suiteId)
+    writeOptionalName(nameInfo.suiteClassName)
+    writeOptionalName(nameInfo.testName)
+  }
+
+  private def writeOptionalNameInfo(nameInfo: Option[NameInfo]) {
+    body.writeBoolean(nameInfo.isDefined)
+    nameInfo.foreach(writeNameInfo)
+  }
+
+  private def writeFormatter(formatter: Option[Formatter]) {
+    formatter match {
+      case None => body.writeByte(0)
+      case Some(MotionToSuppress) => body.writeByte(1)
+      case Some(IndentedText(formattedText, rawText, indentationLevel)) =>
+        body.writeByte(2)
+        writeText(formattedText)
+        writeText(rawText)
+        writeVarLong(body, indentationLevel)
+    }
+  }
+
+  private def writeLocation(location: Option[Location]) {
+    location match {
+      case None => body.writeByte(0)
+      case Some(TopOfClass(className)) =>
+        body.writeByte(1)
+        writeName(className)
+      case Some(TopOfMethod(className, methodId)) =>
+        body.writeByte(2)
+        writeName(className)
+        writeName(methodId)
+      case Some(LineInFile(lineNumber, fileName)) =>
+        body.writeByte(3)
+        writeVarLong(body, lineNumber)
+        writeName(fileName)
+      case Some(SeeStackDepthException) => body.writeByte(4)
+    }
+  }
+
+  private def writeSummary(summary: Option[Summary]) {
+    body.writeBoolean(summary.isDefined)
+    for (s <- summary) {
+      writeVarLong(body, s.testsSucceededCount)
+      writeVarLong(body, s.testsFailedCount)
+      writeVarLong(body, s.testsIgnoredCount)
+      writeVarLong(body, s.testsPendingCount)
+      writeVarLong(body, s.testsCanceledCount)
+      writeVarLong(body, s.suitesCompletedCount)
+      writeVarLong(body, s.suitesAbortedCount)
+      writeVarLong(body, s.scopesPendingCount)
+    }
+  }
+
+  private def writeRecordedEvents(recordedEvents: collection.immutable.IndexedSeq[RecordableEvent]) {
+    writeVarLong(body, recordedEvents.length)
+    recordedEvents.foreach(writeEvent)
+  }
+
+  //
+  // Writes the passed throwable as a blob. If it (or its cause) can't be serialized, writes
+  // a RuntimeException with the same message and stack trace instead.
+  //
+  private def writeThrowable(throwable: Option[Throwable]) {
+    throwable match {
+      case Some(t) =>
+        serialize(t) match {
+          case Some(bytes) =>
+            body.writeBoolean(true)
+            writeVarLong(body, bytes.length)
+            body.write(bytes)
+          case None =>
+            val substitute = new RuntimeException(t.getClass.getName + ": " + t.getMessage)
+            substitute.setStackTrace(t.getStackTrace)
+            writeThrowable(Some(substitute))
+        }
+      case None =>
+        body.writeBoolean(false)
+    }
+  }
+
+  // Writes the passed value as a blob, or as None if it can't be serialized
+  private def writeBlob(value: Option[Any]) {
+    value.flatMap(serialize) match {
+      case Some(bytes) =>
+        body.writeBoolean(true)
+        writeVarLong(body, bytes.length)
+        body.write(bytes)
+      case None =>
+        body.writeBoolean(false)
+    }
+  }
+
+  private def serialize(value: Any): Option[Array[Byte]] =
+    try {
+      val bytes = new ByteArrayOutputStream
+      val oos = new ObjectOutputStream(bytes)
+      oos.writeObject(value)
+      oos.close()
+      Some(bytes.toByteArray)
+    }
+    catch {
+      case e: IOException => None // Most likely a NotSerializableException
+    }
+}
+
+/**
+ * Reads events in the format described in <code>EventCodec</code>, resolving the classes of payloads and throwables
+ * with the passed class loader. Not thread safe. The frames of a stream must be read in order, by the same decoder,
+ * because later frames may refer to names first written in earlier ones.
+ */
+private[scalatest] class EventDecoder(loader: ClassLoader) {
+
+  import EventCodec._
+
+  private val dictionary = new mutable.ArrayBuffer[String]
+
+  //
+  // Reads and checks the stream header.
+  //
+  def readHeader(in: DataInput) {
+    if (in.readInt() != Magic)
+      throw new IOException("not a ScalaTest event stream")
+    val version = in.readByte()
+    if (version != Version)
+      throw new IOException("unsupported ScalaTest event stream version: " + version)
+  }
+
+  //
+  // Reads the next frame from a blocking stream whose header has already been read, returning
+  // None if the stream has ended between frames.
+  //
+  def readFrame(in: DataInputStream): Option[Event] = {
+    val length =
+      try {
+        in.readInt()
+      }
+      catch {
+        case e: EOFException => -1
+      }
+    if (length < 0)
+      None
+    else {
+      val bytes = new Array[Byte](length)
+      in.readFully(bytes)
+      Some(read(new DataInputStream(new ByteArrayInputStream(bytes))))
+    }
+  }
+
+  //
+  // Reads the body of one frame, without its length.
+  //
+  def read(in: DataInput): Event = {
+    val tag = in.readByte().toInt
+    val ordinal = readOrdinal(in)
+    tag match {
+      case TestStartingTag =>
+        TestStarting(ordinal, readName(in), readName(in), readOptionalName(in), readName(in), readText(in),
+                     readFormatter(in), readLocation(in), readOptionalName(in), readBlob(in), readName(in), in.readLong())
+      case TestSucceededTag =>
+        TestSucceeded(ordinal, readName(in), readName(in), readOptionalName(in), readName(in), readText(in),
+                      readRecordedEvents(in), readOptionalLong(in),
+                      readFormatter(in), readLocation(in), readOptionalName(in), readBlob(in), readName(in), in.readLong())
+      case TestFailedTag =>
+        TestFailed(ordinal, readText(in), readName(in), readName(in), readOptionalName(in), readName(in), readText(in),
+                   readRecordedEvents(in), readThrowable(in), readOptionalLong(in),
+                   readFormatter(in), readLocation(in), readOptionalName(in), readBlob(in), readName(in), in.readLong())
+      case TestIgnoredTag =>
+        TestIgnored(ordinal, readName(in), readName(in), readOptionalName(in), readName(in), readText(in),
+                    readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case TestPendingTag =>
+        TestPending(ordinal, readName(in), readName(in), readOptionalName(in), readName(in), readText(in),
+                    readRecordedEvents(in), readOptionalLong(in),
+                    readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case TestCanceledTag =>
+        TestCanceled(ordinal, readText(in), readName(in), readName(in), readOptionalName(in), readName(in), readText(in),
+                     readRecordedEvents(in), readThrowable(in), readOptionalLong(in),
+                     readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case SuiteStartingTag =>
+        SuiteStarting(ordinal, readName(in), readName(in), readOptionalName(in),
+                      readFormatter(in), readLocation(in), readOptionalName(in), readBlob(in), readName(in), in.readLong())
+      case SuiteCompletedTag =>
+        SuiteCompleted(ordinal, readName(in), readName(in), readOptionalName(in), readOptionalLong(in),
+                       readFormatter(in), readLocation(in), readOptionalName(in), readBlob(in), readName(in), in.readLong())
+      case SuiteAbortedTag =>
+        SuiteAborted(ordinal, readText(in), readName(in), readName(in), readOptionalName(in), readThrowable(in), readOptionalLong(in),
+                     readFormatter(in), readLocation(in), readOptionalName(in), readBlob(in), readName(in), in.readLong())
+      case RunStartingTag =>
+        RunStarting(ordinal, readVarLong(in).toInt, readConfigMap(in),
+                    readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case RunCompletedTag =>
+        RunCompleted(ordinal, readOptionalLong(in), readSummary(in),
+                     readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case RunStoppedTag =>
+        RunStopped(ordinal, readOptionalLong(in), readSummary(in),
+                   readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case RunAbortedTag =>
+        RunAborted(ordinal, readText(in), readThrowable(in), readOptionalLong(in), readSummary(in),
+                   readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case InfoProvidedTag =>
+        InfoProvided(ordinal, readText(in), readOptionalNameInfo(in), readThrowable(in),
+                     readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case MarkupProvidedTag =>
+        MarkupProvided(ordinal, readText(in), readOptionalNameInfo(in),
+                       readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case ScopeOpenedTag =>
+        ScopeOpened(ordinal, readText(in), readNameInfo(in),
+                    readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case ScopeClosedTag =>
+        ScopeClosed(ordinal, readText(in), readNameInfo(in),
+                    readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case ScopePendingTag =>
+        ScopePending(ordinal, readText(in), readNameInfo(in),
+                     readFormatter(in), readLocation(in), readBlob(in), readName(in), in.readLong())
+      case DiscoveryStartingTag =>
+        DiscoveryStarting(ordinal, readConfigMap(in), readName(in), in.readLong())
+      case DiscoveryCompletedTag =>
+        DiscoveryCompleted(ordinal, readOptionalLong(in), readName(in), in.readLong())
+      case other =>
+        throw new IOException("unknown event tag: " + other)
+    }
+  }
+
+  private def readOrdinal(in: DataInput): Ordinal = {
+    val runStamp = in.readInt()
+    val stamps = List.fill(readVarLong(in).toInt)(readVarLong(in).toInt)
+    Ordinal.fromList(runStamp :: stamps)
+  }
+
+  private def readText(in: DataInput): String = {
+    val bytes = new Array[Byte](readVarLong(in).toInt)
+    in.readFully(bytes)
+    new String(bytes, "UTF-8")
+  }
+
+  private def readName(in: DataInput): String =
+    readVarLong(in).toInt match {
+      case LiteralName => readText(in)
+      case NewName =>
+        val name = readText(in)
+        dictionary += name
+        name
+      case code =>
+        val index = code - FirstNameIndex
+        if (index >= dictionary.length)
+          throw new IOException("unknown name index: " + index)
+        dictionary(index)
+    }
+
+  private def readOptionalName(in: DataInput): Option[String] =
+    if (in.readBoolean()) Some(readName(in)) else None
+
+  private def readOptionalLong(in: DataInput): Option[Long] =
+    if (in.readBoolean()) Some(readVarLong(in)) else None
+
+  private def readNameInfo(in: DataInput): NameInfo =
+    NameInfo(readName(in), readName(in), readOptionalName(in), readOptionalName(in))
+
+  private def readOptionalNameInfo(in: DataInput): Option[NameInfo] =
+    if (in.readBoolean()) Some(readNameInfo(in)) else None
+
+  private def readFormatter(in: DataInput): Option[Formatter] =
+    in.readByte().toInt match {
+      case 0 => None
+      case 1 => Some(MotionToSuppress)
+      case 2 => Some(IndentedText(readText(in), readText(in), readVarLong(in).toInt))
+      case other => throw new IOException("unknown formatter tag: " + other)
+    }
+
+  private def readLocation(in: DataInput): Option[Location] =
+    in.readByte().toInt match {
+      case 0 => None
+      case 1 => Some(TopOfClass(readName(in)))
+      case 2 => Some(TopOfMethod(readName(in), readName(in)))
+      case 3 => Some(LineInFile(readVarLong(in).toInt, readName(in)))
+      case 4 => Some(SeeStackDepthException)
+      case other => throw new IOException("unknown location tag: " + other)
+    }
+
+  private def readSummary(in: DataInput): Option[Summary] =
+    if (in.readBoolean())
+      Some(Summary(readVarLong(in).toInt, readVarLong(in).toInt, readVarLong(in).toInt, readVarLong(in).toInt,
+                   readVarLong(in).toInt, readVarLong(in).toInt, readVarLong(in).toInt, readVarLong(in).toInt))
+    else
+      None
+
+  private def readRecordedEvents(in: DataInput): collection.immutable.IndexedSeq[RecordableEvent] =
+    Vector.fill(readVarLong(in).toInt)(read(in).asInstanceOf[RecordableEvent])
+
+  private def readThrowable(in: DataInput): Option[Throwable] = readBlob(in).map(_.asInstanceOf[Throwable])
+
+  private def readConfigMap(in: DataInput): ConfigMap = readBlob(in).map(_.asInstanceOf[ConfigMap]).getOrElse(ConfigMap.empty)
+
+  private def readBlob(in: DataInput): Option[Any] =
+    if (in.readBoolean()) {
+      val bytes = new Array[Byte](readVarLong(in).toInt)
+      in.readFully(bytes)
+      val ois = new LoaderAwareObjectInputStream(new ByteArrayInputStream(bytes))
+      try {
+        Some(ois.readObject())
+      }
+      catch {
+        case e: ClassNotFoundException => None // Not available in this JVM
+      }
+      finally {
+        ois.close()
+      }
+    }
+    else
+      None
+
+  private class LoaderAwareObjectInputStream(in: InputStream) extends ObjectInputStream(in) {
+    override def resolveClass(desc: ObjectStreamClass): Class[_] =
+      try {
+        Class.forName(desc.getName, false, loader)
+      }
+      catch {
+        case e: ClassNotFoundException => super.resolveClass(desc)
+      }
+  }
+}
@@ -331,6 +331,7 @@ class Framework extends SbtFramework {
     
     def done = {
       if (!isDone) {
+        remoteEventReceiver.foreach(_.close())
         val duration = System.currentTimeMillis - runStartTime
         val summary = new Summary(summaryCounter.testsSucceededCount.get, summaryCounter.testsFailedCount.get, summaryCounter.testsIgnoredCount.get, summaryCounter.testsPendingCount.get, 
                                   summaryCounter.testsCanceledCount.get, summaryCounter.suitesCompletedCount.get, summaryCounter.suitesAbortedCount.get, summaryCounter.scopesPendingCount.get)
@@ -349,91 +350,57 @@ class Framework extends SbtFramework {
     
     def args = runArgs
     
+    // Receives the events of all sub-process runners, which report to it through a SocketReporter
+    @volatile private var remoteEventReceiver: Option[RemoteEventReceiver] = None
+
     def remoteArgs: Array[String] = {
-      import java.net.{ServerSocket, InetAddress}
-      import java.io.{ObjectInputStream, ObjectOutputStream}
-      import org.scalatest.events._
+      import java.net.InetAddress
       
-      class Skeleton extends Runnable {
-        
-        val server = new ServerSocket(0)
-        
-        def run() {
-          val socket = server.accept()
-          val is = new ObjectInputStream(socket.getInputStream)
+      val receiver =
+        synchronized {
+          remoteEventReceiver.getOrElse {
+            val receiver = new RemoteEventReceiver(loader, forwardRemoteEvents)
+            receiver.start()
+            remoteEventReceiver = Some(receiver)
+            receiver
+          }
+        }
+      Array(InetAddress.getLocalHost.getHostAddress, receiver.port.toString)
+    }
 
-          try {
-			(new React(is)).react()
-          } 
-          finally {
-            is.close()	
-            socket.close()
-		  }
+    //
+    // Forwards a batch of events received from a sub-process runner to the dispatch reporter, then
+    // adds the batch's counts to the summary counter.
+    //
+    private def forwardRemoteEvents(events: Seq[Event]) {
+      var testsSucceeded, testsFailed, testsIgnored, testsPending, testsCanceled, suitesCompleted, suitesAborted, scopesPending = 0
+      for (event <- events) {
+        event match {
+          case e: TestSucceeded => testsSucceeded += 1
+          case e: TestFailed => testsFailed += 1
+          case e: TestIgnored => testsIgnored += 1
+          case e: TestPending => testsPending += 1
+          case e: TestCanceled => testsCanceled += 1
+          case e: SuiteCompleted => suitesCompleted += 1
+          case e: SuiteAborted => suitesAborted += 1
+          case e: ScopePending => scopesPending += 1
+          case _ =>
         }
-        
-        class React(is: ObjectInputStream) {
-          @annotation.tailrec 
-          final def react() { 
-            val event = is.readObject
-            event match {
-              case e: TestStarting => 
-                dispatchReporter(e) 
-                react()
-              case e: TestSucceeded => 
-                dispatchReporter(e) 
-                summaryCounter.incrementTestsSucceededCount()
-                react()
-              case e: TestFailed => 
-                dispatchReporter(e) 
-                summaryCounter.incrementTestsFailedCount()
-                react()
-              case e: TestIgnored => 
-                dispatchReporter(e)
-                summaryCounter.incrementTestsIgnoredCount()
-                react()
-              case e: TestPending => 
-                dispatchReporter(e)
-                summaryCounter.incrementTestsPendingCount()
-                react()
-              case e: TestCanceled => 
-                dispatchReporter(e)
-                summaryCounter.incrementTestsCanceledCount()
-                react()
-              case e: SuiteStarting => 
-                dispatchReporter(e)
-                react()
-              case e: SuiteCompleted => 
-                dispatchReporter(e)
-                summaryCounter.incrementSuitesCompletedCount()
-                react()
-              case e: SuiteAborted => 
-                dispatchReporter(e)
-                summaryCounter.incrementSuitesAbortedCount()
-                react()
-              case e: ScopeOpened => dispatchReporter(e); react()
-              case e: ScopeClosed => dispatchReporter(e); react()
-              case e: ScopePending => 
-                dispatchReporter(e)
-                summaryCounter.incrementScopesPendingCount()
-                react()
-              case e: InfoProvided => dispatchReporter(e); react()
-              case e: MarkupProvided => dispatchReporter(e); react()
-              case e: RunStarting => react() // just ignore test starting and continue
-              case e: RunCompleted => // Sub-process completed, just let the thread terminate
-              case e: RunStopped => dispatchReporter(e)
-              case e: RunAborted => dispatchReporter(e)
-	        }
-          }
+        event match {
+          case _: RunStarting => // just ignore run starting and continue
+          case _: RunCompleted => // Sub-process completed
+          case _: DiscoveryStarting | _: DiscoveryCompleted =>
+          case e => dispatchReporter(e)
         }
-        
-        def host: String = server.getLocalSocketAddress.toString
-        def port: Int = server.getLocalPort
       }
-      
-      val skeleton = new Skeleton()
-      val thread = new Thread(skeleton)
-      thread.start()
-      Array(InetAddress.getLocalHost.getHostAddress, skeleton.port.toString)
+      summaryCounter.testsSucceededCount.addAndGet(testsSucceeded)
+      summaryCounter.testsFailedCount.addAndGet(testsFailed)
+      summaryCounter.testsIgnoredCount.addAndGet(testsIgnored)
+      summaryCounter.testsPendingCount.addAndGet(testsPending)
+      summaryCounter.testsCanceledCount.addAndGet(testsCanceled)
+      summaryCounter.suitesCompletedCount.addAndGet(suitesCompleted)
+      summaryCounter.suitesAbortedCount.addAndGet(suitesAborted)
+      summaryCounter.scopesPendingCount.addAndGet(scopesPending)
     }
   }
       
@@ -892,7 +892,12 @@ private[scalatest] class HtmlReporter(directoryPath: String, presentAllDurations
     "};\n" + 
     "applyFilter();"
     
-  private var eventList = new ListBuffer[Event]()
+  //
+  // The events of each suite that has started but not yet completed or aborted, keyed by suite ID. A suite's events
+  // are released as soon as its page has been written, after which only its SuiteResult, less its events, is kept for
+  // the index page.
+  //
+  private val suiteEvents = collection.mutable.HashMap[String, ListBuffer[Event]]()
   private var runEndEvent: Option[Event] = None
         
   def apply(event: Event) {
@@ -913,87 +918,63 @@ private[scalatest] class HtmlReporter(directoryPath: String, presentAllDurations
         runEndEvent = Some(event)
         
       case SuiteCompleted(ordinal, suiteName, suiteId, suiteClassName, duration, formatter, location, rerunner, payload, threadName, timeStamp) =>
-        val (suiteEvents, otherEvents) = extractSuiteEvents(suiteId)
-        eventList = otherEvents
-        val sortedSuiteEvents = suiteEvents.sorted
-        if (sortedSuiteEvents.length == 0)
-          throw new IllegalStateException("Expected SuiteStarting for completion event: " + event + " in the head of suite events, but we got no suite event at all")
-        sortedSuiteEvents.head match {
-          case suiteStarting: SuiteStarting => 
-            val suiteResult = sortedSuiteEvents.foldLeft(SuiteResult(suiteId, suiteName, suiteClassName, duration, suiteStarting, event, Vector.empty ++ sortedSuiteEvents.tail, 0, 0, 0, 0, 0, 0, true)) { case (r, e) => 
-              e match {
-                case testSucceeded: TestSucceeded => r.copy(testsSucceededCount = r.testsSucceededCount + 1)
-                case testFailed: TestFailed => r.copy(testsFailedCount = r.testsFailedCount + 1)
-                case testIgnored: TestIgnored => r.copy(testsIgnoredCount = r.testsIgnoredCount + 1)
-                case testPending: TestPending => r.copy(testsPendingCount = r.testsPendingCount + 1)
-                case testCanceled: TestCanceled => r.copy(testsCanceledCount = r.testsCanceledCount + 1)
-                case scopePending: ScopePending => r.copy(scopesPendingCount = r.scopesPendingCount + 1)
-                case _ => r
-              }
-            }
-            results += suiteResult
-            makeSuiteFile(suiteResult)
-          case other => 
-            throw new IllegalStateException("Expected SuiteStarting for completion event: " + event +  " in the head of suite events, but we got: " + other)
-        }
+        completeSuite(event, suiteId, suiteName, suiteClassName, duration, true)
             
       case SuiteAborted(ordinal, message, suiteName, suiteId, suiteClassName, throwable, duration, formatter, location, rerunner, payload, threadName, timeStamp) =>
-        val (suiteEvents, otherEvents) = extractSuiteEvents(suiteId)
-        eventList = otherEvents
-        val sortedSuiteEvents = suiteEvents.sorted
-        if (sortedSuiteEvents.length == 0)
-          throw new IllegalStateException("Expected SuiteStarting for completion event: " + event + " in the head of suite events, but we got no suite event at all")
-        sortedSuiteEvents.head match {
-          case suiteStarting: SuiteStarting => 
-            val suiteResult = sortedSuiteEvents.foldLeft(SuiteResult(suiteId, suiteName, suiteClassName, duration, suiteStarting, event, Vector.empty ++ sortedSuiteEvents.tail, 0, 0, 0, 0, 0, 0, false)) { case (r, e) => 
-              e match {
-                case testSucceeded: TestSucceeded => r.copy(testsSucceededCount = r.testsSucceededCount + 1)
-                case testFailed: TestFailed => r.copy(testsFailedCount = r.testsFailedCount + 1)
-                case testIgnored: TestIgnored => r.copy(testsIgnoredCount = r.testsIgnoredCount + 1)
-                case testPending: TestPending => r.copy(testsPendingCount = r.testsPendingCount + 1)
-                case testCanceled: TestCanceled => r.copy(testsCanceledCount = r.testsCanceledCount + 1)
-                case scopePending: ScopePending => r.copy(scopesPendingCount = r.scopesPendingCount + 1)
-                case _ => r
-              }
-            }
-            results += suiteResult
-            makeSuiteFile(suiteResult)
-          case other => 
-            throw new IllegalStateException("Expected SuiteStarting for completion event: " + event + " in the head of suite events, but we got: " + other)
-        }
+        completeSuite(event, suiteId, suiteName, suiteClassName, duration, false)
       
-      case _ => eventList += event
+      case _ =>
+        suiteIdOf(event) match {
+          case Some(suiteId) => suiteEvents.getOrElseUpdate(suiteId, new ListBuffer[Event]) += event
+          case None => // Appears on no suite's page
+        }
     }
   }
-      
-  def extractSuiteEvents(suiteId: String) = eventList partition { e => 
-    e match {
-      case e: TestStarting => e.suiteId == suiteId
-      case e: TestSucceeded  => e.suiteId == suiteId
-      case e: TestIgnored    => e.suiteId == suiteId
-      case e: TestFailed     => e.suiteId == suiteId
-      case e: TestPending    => e.suiteId == suiteId
-      case e: TestCanceled   => e.suiteId == suiteId
-      case e: InfoProvided   => 
-        e.nameInfo match {
-          case Some(nameInfo) => 
-            nameInfo.suiteId == suiteId
-          case None => false
-        }
-      case e: MarkupProvided => 
-        e.nameInfo match {
-          case Some(nameInfo) => 
-            nameInfo.suiteId == suiteId
-          case None => false
+
+  //
+  // Writes the page of the suite ended by the passed SuiteCompleted or SuiteAborted event, and releases its events.
+  //
+  private def completeSuite(event: Event, suiteId: String, suiteName: String, suiteClassName: Option[String], duration: Option[Long], isCompleted: Boolean) {
+    val sortedSuiteEvents = suiteEvents.remove(suiteId).map(_.sorted).getOrElse(List.empty)
+    if (sortedSuiteEvents.length == 0)
+      throw new IllegalStateException("Expected SuiteStarting for completion event: " + event + " in the head of suite events, but we got no suite event at all")
+    sortedSuiteEvents.head match {
+      case suiteStarting: SuiteStarting => 
+        val suiteResult = sortedSuiteEvents.foldLeft(SuiteResult(suiteId, suiteName, suiteClassName, duration, suiteStarting, event, Vector.empty ++ sortedSuiteEvents.tail, 0, 0, 0, 0, 0, 0, isCompleted)) { case (r, e) => 
+          e match {
+            case testSucceeded: TestSucceeded => r.copy(testsSucceededCount = r.testsSucceededCount + 1)
+            case testFailed: TestFailed => r.copy(testsFailedCount = r.testsFailedCount + 1)
+            case testIgnored: TestIgnored => r.copy(testsIgnoredCount = r.testsIgnoredCount + 1)
+            case testPending: TestPending => r.copy(testsPendingCount = r.testsPendingCount + 1)
+            case testCanceled: TestCanceled => r.copy(testsCanceledCount = r.testsCanceledCount + 1)
+            case scopePending: ScopePending => r.copy(scopesPendingCount = r.scopesPendingCount + 1)
+            case _ => r
+          }
         }
-      case e: ScopeOpened    => e.nameInfo.suiteId == suiteId
-      case e: ScopeClosed    => e.nameInfo.suiteId == suiteId
-      case e: ScopePending   => e.nameInfo.suiteId == suiteId
-      case e: SuiteStarting  => e.suiteId == suiteId
-      case _ => false
+        makeSuiteFile(suiteResult)
+        results += suiteResult.copy(eventList = Vector.empty)
+      case other => 
+        throw new IllegalStateException("Expected SuiteStarting for completion event: " + event + " in the head of suite events, but we got: " + other)
     }
   }
       
+  private def suiteIdOf(event: Event): Option[String] =
+    event match {
+      case e: TestStarting   => Some(e.suiteId)
+      case e: TestSucceeded  => Some(e.suiteId)
+      case e: TestIgnored    => Some(e.suiteId)
+      case e: TestFailed     => Some(e.suiteId)
+      case e: TestPending    => Some(e.suiteId)
+      case e: TestCanceled   => Some(e.suiteId)
+      case e: InfoProvided   => e.nameInfo.map(_.suiteId)
+      case e: MarkupProvided => e.nameInfo.map(_.suiteId)
+      case e: ScopeOpened    => Some(e.nameInfo.suiteId)
+      case e: ScopeClosed    => Some(e.nameInfo.suiteId)
+      case e: ScopePending   => Some(e.nameInfo.suiteId)
+      case e: SuiteStarting  => Some(e.suiteId)
+      case _ => None
+    }
+      
   def dispose() {
     runEndEvent match {
       case Some(event) => 
@@ -18,17 +18,21 @@ package org.scalatest.tools
 import org.scalatest._
 import org.scalatest.events._
 
-import Suite.unparsedXml
-import java.io.PrintWriter
+import java.io.BufferedOutputStream
+import java.io.FileOutputStream
+import java.io.FilterWriter
+import java.io.OutputStreamWriter
+import java.io.Writer
 import java.text.SimpleDateFormat
 import java.util.Enumeration
 import java.util.Properties
 import java.net.UnknownHostException
 import java.net.InetAddress
+import javax.xml.stream.XMLOutputFactory
+import javax.xml.stream.XMLStreamWriter
 
-import scala.collection.mutable.Set
+import scala.collection.mutable
 import scala.collection.mutable.ListBuffer
-import scala.xml
 
 /**
  * A <code>Reporter</code> that writes test status information in XML format
@@ -44,15 +48,27 @@ import scala.xml
  */
 private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
 
-  private val events = Set.empty[Event]
-  private val propertiesXml = genPropertiesXml
+  //
+  // The events of each suite that has started but not yet completed or
+  // aborted, keyed by suite ID. A suite's bucket is released as soon as
+  // its file has been written.
+  //
+  private val buckets = mutable.Map.empty[String, ListBuffer[Event]]
+  private lazy val properties = propertyList
+  private lazy val hostname = findHostname
+  private val xmlOutputFactory = XMLOutputFactory.newInstance
 
   //
-  // Records events in 'events' set.  Generates xml from events upon receipt
-  // of SuiteCompleted or SuiteAborted events.
+  // Adds each event that belongs to a suite to that suite's bucket.
+  // Generates xml from the bucket upon receipt of SuiteCompleted or
+  // SuiteAborted events.
   //
   def apply(event: Event) {
-    events += event
+    suiteIdOf(event) match {
+      case Some(suiteId) =>
+        buckets.getOrElseUpdate(suiteId, new ListBuffer[Event]) += event
+      case None =>
+    }
 
     event match {
       case e: SuiteCompleted =>
@@ -66,75 +82,72 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
   }
 
   //
-  // Writes the xml file for a single test suite.  Removes processed
-  // events from the events Set as they are used.
+  // Returns the ID of the suite to which an event belongs, or None for
+  // events, such as RunStarting, that don't appear in any suite's file.
+  //
+  private def suiteIdOf(event: Event): Option[String] =
+    event match {
+      case e: TestStarting   => Some(e.suiteId)
+      case e: TestSucceeded  => Some(e.suiteId)
+      case e: TestIgnored    => Some(e.suiteId)
+      case e: TestFailed     => Some(e.suiteId)
+      case e: TestPending    => Some(e.suiteId)
+      case e: TestCanceled   => Some(e.suiteId)
+      case e: InfoProvided   => e.nameInfo.map(_.suiteId)
+      case e: MarkupProvided => e.nameInfo.map(_.suiteId)
+      case e: ScopeOpened    => Some(e.nameInfo.suiteId)
+      case e: ScopeClosed    => Some(e.nameInfo.suiteId)
+      case e: SuiteStarting  => Some(e.suiteId)
+      case e: SuiteAborted   => Some(e.suiteId)
+      case e: SuiteCompleted => Some(e.suiteId)
+      case _ => None
+    }
+
+  //
+  // Writes the xml file for a single test suite, and releases the
+  // suite's events.
   //
   private def writeSuiteFile(endEvent: Event, suiteId: String) {
     require(endEvent.isInstanceOf[SuiteCompleted] ||
             endEvent.isInstanceOf[SuiteAborted])
 
     val testsuite = getTestsuite(endEvent, suiteId)
-    val xmlStr    = xmlify(testsuite)
     val filespec  = directory + "/TEST-" + suiteId + ".xml"
 
-    val out = new PrintWriter(filespec, "UTF-8")
-    out.print(xmlStr)
-    out.close()
+    val out = new AttributeNewlineEscapingWriter(new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(filespec)), "UTF-8"))
+    try {
+      writeXml(testsuite, out)
+    }
+    finally {
+      out.close()
+    }
   }
 
   //
   // Constructs a Testsuite object corresponding to a specified
-  // SuiteCompleted or SuiteAborted event.
-  //
-  // Scans events reported so far and builds the Testsuite from events
-  // associated with the specified suite.  Removes events from
-  // the class's events Set as they are consumed.
+  // SuiteCompleted or SuiteAborted event from the events in the suite's
+  // bucket, sorted by ordinal. (Events are usually already in order, but
+  // needn't be if the suite's tests ran in parallel.)
   //
-  // Only looks at events that have the same ordinal prefix as the
-  // end event being processed (where an event's ordinal prefix is its
-  // ordinal list with last element removed).  Events with the same
-  // prefix get processed sequentially, so filtering this way eliminates
-  // events from any nested suites being processed concurrently
-  // that have not yet completed when the parent's SuiteCompleted or
-  // SuiteAborted event is processed.
+  // The bucket may also hold the events of another run of a suite with
+  // the same ID that has not yet completed, in which case those events are
+  // left in the bucket. Otherwise the bucket is released.
   //
   private def getTestsuite(endEvent: Event, suiteId: String): Testsuite = {
     require(endEvent.isInstanceOf[SuiteCompleted] ||
             endEvent.isInstanceOf[SuiteAborted])
 
-    val orderedEvents = events.toList.filter { e => 
-      e match {
-        case e: TestStarting   => e.suiteId == suiteId
-        case e: TestSucceeded  => e.suiteId == suiteId
-        case e: TestIgnored    => e.suiteId == suiteId
-        case e: TestFailed     => e.suiteId == suiteId
-        case e: TestPending    => e.suiteId == suiteId
-        case e: TestCanceled   => e.suiteId == suiteId
-        case e: InfoProvided   => 
-          e.nameInfo match {
-            case Some(nameInfo) => 
-              nameInfo.suiteId == suiteId
-            case None => false
-          }
-        case e: MarkupProvided => 
-          e.nameInfo match {
-            case Some(nameInfo) => 
-              nameInfo.suiteId == suiteId
-            case None => false
-          }
-        case e: ScopeOpened    => e.nameInfo.suiteId == suiteId
-        case e: ScopeClosed    => e.nameInfo.suiteId == suiteId
-        case e: SuiteStarting  => e.suiteId == suiteId
-        case e: SuiteAborted   => e.suiteId == suiteId
-        case e: SuiteCompleted => e.suiteId == suiteId
-        case _    => false
-      }
-    }.sortWith((a, b) => a < b).toArray
+    val orderedEvents = buckets(suiteId).sortWith((a, b) => a < b).toArray
 
     val (startIndex, endIndex) = locateSuite(orderedEvents, endEvent)
 
+    val remaining = orderedEvents.take(startIndex) ++ orderedEvents.drop(endIndex + 1)
+    if (remaining.isEmpty)
+      buckets -= suiteId
+    else
+      buckets(suiteId) = ListBuffer(remaining: _*)
+
     val startEvent = orderedEvents(startIndex).asInstanceOf[SuiteStarting]
-    events -= startEvent
 
     val name =
       startEvent.suiteClassName match {
@@ -147,7 +160,6 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
     var idx = startIndex + 1
     while (idx <= endIndex) {
       val event = orderedEvents(idx)
-      events -= event
 
       event match {
         case e: TestStarting =>
@@ -202,12 +214,8 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
   // Searches sequentially through the array to find the specified
   // SuiteCompleted event and its preceding SuiteStarting event.
   //
-  // (The orderedEvents array does not contain any SuiteStarting events
-  // from nested suites running concurrently because of the ordinal-prefix
-  // filtering performed in getTestsuite().  It does not contain any from
-  // nested suites running sequentially because those get removed when they
-  // are processed upon occurrence of their corresponding SuiteCompleted
-  // events.)
+  // (The orderedEvents array only contains the events of suites with the
+  // same suite ID as the end event, so never those of nested suites.)
   //
   private def locateSuite(orderedEvents: Array[Event],
                           endEvent: Event):
@@ -263,8 +271,7 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
   //
   // Accepts a TestStarting event and its index within orderedEvents.
   // Returns a Testcase object plus the index to its corresponding
-  // test completion event.  Removes events from class's events Set
-  // as they are processed.
+  // test completion event.
   //
   private def processTest(orderedEvents: Array[Event],
                           startEvent: TestStarting, startIndex: Int):
@@ -276,7 +283,6 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
 
     while ((idx < orderedEvents.size) && (endIndex == 0)) {
       val event = orderedEvents(idx)
-      events -= event
 
       event match {
         case e: TestSucceeded =>
@@ -322,50 +328,71 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
   }
 
   //
-  // Creates an xml string describing a run of a test suite.
-  //
-  def xmlify(testsuite: Testsuite): String = {
-    val xmlVal =
-      <testsuite
-        errors    = { "" + testsuite.errors         }
-        failures  = { "" + testsuite.failures       }
-        hostname  = { "" + findHostname             }
-        name      = { "" + testsuite.name           }
-        tests     = { "" + testsuite.testcases.size }
-        time      = { "" + testsuite.time / 1000.0  }
-        timestamp = { "" + formatTimeStamp(testsuite.timeStamp) }>
-      { propertiesXml }
-      {
-        for (testcase <- testsuite.testcases) yield {
-          <testcase
-            name      = { "" + testcase.name              }
-            classname = { "" + strVal(testcase.className) }
-            time      = { "" + testcase.time / 1000.0     }
-          >
-          {
-            if (testcase.ignored || testcase.pending || testcase.canceled)
-              <skipped/>
-            else
-              failureXml(testcase.failure)
-          }
-          </testcase>
-        }
-      }
-        <system-out><![CDATA[]]></system-out>
-        <system-err><![CDATA[]]></system-err>
-      </testsuite>
+  // Streams xml describing a run of a test suite to the passed writer.
+  //
+  private def writeXml(testsuite: Testsuite, out: AttributeNewlineEscapingWriter) {
+    val writer = xmlOutputFactory.createXMLStreamWriter(out)
 
-    val prettified = (new xml.PrettyPrinter(76, 2)).format(xmlVal)
+    def newline(depth: Int) {
+      writer.writeCharacters("\n" + ("  " * depth))
+    }
 
-    // scala xml strips out the <![CDATA[]]> elements, so restore them here
-    val withCDATA =
-      prettified.
-        replace("<system-out></system-out>",
-                "<system-out><![CDATA[]]></system-out>").
-        replace("<system-err></system-err>",
-                "<system-err><![CDATA[]]></system-err>")
+    writer.writeStartDocument("UTF-8", "1.0")
+    newline(0)
+    writer.writeStartElement("testsuite")
+    writer.writeAttribute("errors", "" + testsuite.errors)
+    writer.writeAttribute("failures", "" + testsuite.failures)
+    writer.writeAttribute("hostname", hostname)
+    writer.writeAttribute("name", testsuite.name)
+    writer.writeAttribute("tests", "" + testsuite.testcases.size)
+    writer.writeAttribute("time", "" + testsuite.time / 1000.0)
+    writer.writeAttribute("timestamp", formatTimeStamp(testsuite.timeStamp))
+
+    newline(1)
+    writer.writeStartElement("properties")
+    for ((name, value) <- properties) {
+      newline(2)
+      writer.writeEmptyElement("property")
+      writer.writeAttribute("name", name)
+      writer.writeAttribute("value", value)
+    }
+    newline(1)
+    writer.writeEndElement()
+
+    for (testcase <- testsuite.testcases) {
+      newline(1)
+      writer.writeStartElement("testcase")
+      writer.writeAttribute("name", testcase.name)
+      writer.writeAttribute("classname", strVal(testcase.className))
+      writer.writeAttribute("time", "" + testcase.time / 1000.0)
+      if (testcase.ignored || testcase.pending || testcase.canceled) {
+        newline(2)
+        writer.writeEmptyElement("skipped")
+        newline(1)
+      }
+      else
+        testcase.failure match {
+          case Some(failure) =>
+            newline(2)
+            writeFailure(writer, out, failure)
+            newline(1)
+          case None =>
+        }
+      writer.writeEndElement()
+    }
 
-    "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n" + withCDATA
+    newline(1)
+    writer.writeStartElement("system-out")
+    writer.writeCData("")
+    writer.writeEndElement()
+    newline(1)
+    writer.writeStartElement("system-err")
+    writer.writeCData("")
+    writer.writeEndElement()
+    newline(0)
+    writer.writeEndElement()
+    writer.writeEndDocument()
+    writer.close() // Leaves out open
   }
 
   //
@@ -386,30 +413,30 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
   }
 
   //
-  // Generates <failure> xml for TestFailed event, if specified Option
-  // contains one.
+  // Writes a <failure> element for a TestFailed event. Line breaks in
+  // the message attribute are written as character references, so that
+  // they survive attribute value normalization when the file is read.
   //
-  private def failureXml(failureOption: Option[TestFailed]): xml.NodeSeq = {
-    failureOption match {
-      case None =>
-        xml.NodeSeq.Empty
+  private def writeFailure(writer: XMLStreamWriter, out: AttributeNewlineEscapingWriter, failure: TestFailed) {
+    val (throwableType, throwableText) =
+      failure.throwable match {
+        case None => ("", "")
 
-      case Some(failure) =>
-        val (throwableType, throwableText) =
-          failure.throwable match {
-            case None => ("", "")
+        case Some(throwable) =>
+          val throwableType = "" + throwable.getClass
+          val throwableText = getStackTrace(throwable)
+          (throwableType, throwableText)
+      }
 
-            case Some(throwable) =>
-              val throwableType = "" + throwable.getClass
-              val throwableText = getStackTrace(throwable)
-              (throwableType, throwableText)
-          }
-        
-        <failure message = { { unparsedXml(failure.message.replaceAll("\n", "&#010;")) } }
-                 type    = { throwableType   } >
-          { throwableText }
-        </failure>
-    }
+    writer.writeStartElement("failure")
+    writer.flush()
+    out.escapingNewlines = true
+    writer.writeAttribute("message", failure.message)
+    writer.flush()
+    out.escapingNewlines = false
+    writer.writeAttribute("type", throwableType)
+    writer.writeCharacters(throwableText)
+    writer.writeEndElement()
   }
 
   //
@@ -436,18 +463,13 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
   }
 
   //
-  // Generates <properties> element of xml.
+  // Returns the names and values of the system properties, for the
+  // <properties> element of xml.
   //
-  private def genPropertiesXml: xml.Elem = {
+  private def propertyList: List[(String, String)] = {
     val sysprops = System.getProperties
-
-    <properties> {
-      for (name <- propertyNames(sysprops))
-        yield
-          <property name={ name } value = { sysprops.getProperty(name) }>
-          </property>
-    }
-    </properties>
+    for (name <- propertyNames(sysprops))
+      yield (name, "" + sysprops.getProperty(name))
   }
 
   //
@@ -501,4 +523,36 @@ private[scalatest] class JUnitXmlReporter(directory: String) extends Reporter {
     var ignored = false
     var failure: Option[TestFailed] = None
   }
+
+  //
+  // Passes characters through to the underlying writer, except that while
+  // escapingNewlines is set, it writes line breaks as character references.
+  // (XMLStreamWriter escapes markup in attribute values, but not line
+  // breaks, which a parser would otherwise turn into spaces.)
+  //
+  private class AttributeNewlineEscapingWriter(underlying: Writer) extends FilterWriter(underlying) {
+
+    var escapingNewlines = false
+
+    override def write(c: Int) {
+      if (escapingNewlines && c == '\n')
+        underlying.write("&#010;")
+      else
+        underlying.write(c)
+    }
+
+    override def write(cbuf: Array[Char], off: Int, len: Int) {
+      if (escapingNewlines)
+        write(new String(cbuf, off, len), 0, len)
+      else
+        underlying.write(cbuf, off, len)
+    }
+
+    override def write(str: String, off: Int, len: Int) {
+      if (escapingNewlines)
+        underlying.write(str.substring(off, off + len).replace("\n", "&#010;"))
+      else
+        underlying.write(str, off, len)
+    }
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import java.io.File
+import scala.collection.mutable.PriorityQueue
+
+/*
+ * The order in which to hand suites to the Distributor, and the makespan (the wall-clock time until the last
+ * one completes) predicted for that order.
+ */
+private[tools] case class Schedule[T](
+  ordered: List[T],
+  predictedMakespan: Long,
+  suitesWithHistoryCount: Int,
+  suitesWithoutHistoryCount: Int
+)
+
+/*
+ * Orders suites longest first, using the durations the DashboardReporter recorded for their tests in previous
+ * runs (the largest-processing-time heuristic). A suite with no recorded durations is assumed to take as long
+ * as the average suite that has some.
+ */
+private[tools] object LongestFirstScheduler {
+
+  //
+  // Returns the estimated duration, in milliseconds, of each suite in the
+  // passed durations file, keyed by suite ID. Returns an empty map if the
+  // file doesn't exist or can't be read.
+  //
+  def loadEstimates(durationsFile: File): Map[String, Long] =
+    if (!durationsFile.exists)
+      Map.empty
+    else
+      try {
+        estimatesFrom(Durations(durationsFile))
+      }
+      catch {
+        case e: Exception => Map.empty
+      }
+
+  def estimatesFrom(durations: Durations): Map[String, Long] =
+    Map() ++ (
+      for (suite <- durations.suites) yield {
+        val testEstimates =
+          for (test <- suite.tests.toList if test.runCount > 0) yield
+            (test.previousAverage.toLong * test.previousNum + test.durations.map(_.millis.toLong).sum) / test.runCount
+        (suite.suiteId, testEstimates.sum)
+      }
+    )
+
+  def schedule[T](suites: List[T], estimates: Map[String, Long], poolSize: Int)(suiteIdOf: T => String): Schedule[T] = {
+    val known = suites.flatMap(suite => estimates.get(suiteIdOf(suite)))
+    val defaultEstimate = if (known.isEmpty) 0L else known.sum / known.length
+    def estimateOf(suite: T): Long = estimates.getOrElse(suiteIdOf(suite), defaultEstimate)
+
+    // Stable, so suites with equal estimates keep their original order
+    val ordered = suites.sortBy(suite => -estimateOf(suite))
+
+    // Each suite goes to whichever thread frees up first
+    val threadLoads = new PriorityQueue[Long]()(Ordering[Long].reverse)
+    for (i <- 0 until (poolSize max 1))
+      threadLoads.enqueue(0L)
+    for (suite <- ordered)
+      threadLoads.enqueue(threadLoads.dequeue() + estimateOf(suite))
+
+    Schedule(ordered, threadLoads.max, known.length, suites.length - known.length)
+  }
+}
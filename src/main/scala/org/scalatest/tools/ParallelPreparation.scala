@@ -0,0 +1,100 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import java.io.File
+import scala.concurrent.forkjoin.ForkJoinPool
+import scala.concurrent.forkjoin.ForkJoinWorkerThread
+import scala.concurrent.forkjoin.RecursiveTask
+
+/*
+ * Prepares a run on the ForkJoinPool that will run it, when -PC is given: instantiating the suites a DiscoverySuite
+ * discovered, and counting the tests each suite expects to run, as separate tasks rather than one after another on
+ * the thread that called Runner. If the dashboard reporter has recorded tests for every discovered suite, their
+ * recorded number is used instead, so that the discovered suites needn't be instantiated before the run starts.
+ */
+private[tools] object ParallelPreparation {
+
+  private val IgnoreTagName = "org.scalatest.Ignore"
+
+  private class Task[A, B](item: A, f: A => B) extends RecursiveTask[Either[Throwable, B]] {
+    def compute(): Either[Throwable, B] =
+      try Right(f(item))
+      catch {
+        case e: Throwable => Left(e)
+      }
+  }
+
+  //
+  // Returns the result of applying f to each of the passed items, in the same order, having applied it to each as
+  // a task on the passed pool. If f throws for any item, the exception thrown for the first such item is rethrown,
+  // once all the tasks have completed. If called from one of the pool's own threads, as when a DiscoverySuite that
+  // the run has reached instantiates its nested suites, the tasks are forked, so that the thread helps run them
+  // while it waits.
+  //
+  def map[A, B](items: Seq[A], pool: ForkJoinPool)(f: A => B): collection.immutable.IndexedSeq[B] = {
+    val tasks = Vector.empty ++ items.map(item => new Task(item, f))
+    Thread.currentThread match {
+      case worker: ForkJoinWorkerThread if worker.getPool eq pool => tasks.foreach(_.fork())
+      case _ => tasks.foreach(pool.execute(_))
+    }
+    val results = tasks.map(_.join())
+    Vector.empty ++ results.map {
+      case Right(result) => result
+      case Left(e) => throw e
+    }
+  }
+
+  //
+  // Returns the number of tests recorded for each suite, keyed by suite ID, in the passed durations file.
+  // Returns an empty map if the file doesn't exist or can't be read.
+  //
+  def loadRecordedTestCounts(durationsFile: File): Map[String, Int] =
+    if (!durationsFile.exists)
+      Map.empty
+    else
+      try {
+        Map() ++ Durations(durationsFile).suites.map(suite => (suite.suiteId, suite.tests.size))
+      }
+      catch {
+        case e: Exception => Map.empty
+      }
+
+  //
+  // Returns the total number of tests the passed suites expect to run, as filtered by the filter paired with each.
+  // A DiscoverySuite has no tests of its own, so each of its nested suites is counted by a task of its own. If
+  // no DiscoverySuite's filter includes only certain tags, or excludes tags other than org.scalatest.Ignore, and the
+  // passed recorded counts have an entry for every class a DiscoverySuite discovered, those entries are summed instead,
+  // without instantiating the classes. That count is only an estimate, because tests may have been added or removed
+  // since they were recorded.
+  //
+  def expectedTestCount(suitesAndFilters: List[(Suite, Filter)], pool: ForkJoinPool, recordedTestCounts: Map[String, Int] = Map.empty): Int = {
+    val discovered = suitesAndFilters.collect { case (discoverySuite: DiscoverySuite, filter) => (discoverySuite, filter) }
+    val discoveredClassNames = discovered.flatMap(_._1.suiteClassNames)
+    val useRecordedCounts =
+      !discovered.isEmpty && discovered.forall { case (_, filter) => filter.tagsToInclude.isEmpty && (filter.tagsToExclude - IgnoreTagName).isEmpty } &&
+        discoveredClassNames.forall(recordedTestCounts.contains)
+    val countable =
+      suitesAndFilters.flatMap {
+        case (discoverySuite: DiscoverySuite, filter) =>
+          if (useRecordedCounts) Nil else discoverySuite.nestedSuites.map(nested => (nested, filter))
+        case suiteAndFilter => List(suiteAndFilter)
+      }
+    val recordedCount = if (useRecordedCounts) discoveredClassNames.map(recordedTestCounts).sum else 0
+    recordedCount + map(countable, pool) { case (suite, filter) => suite.expectedTestCount(filter) }.sum
+  }
+}
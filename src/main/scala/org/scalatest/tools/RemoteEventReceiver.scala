@@ -0,0 +1,231 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest.events.Event
+import org.scalatest.events.RunAborted
+import org.scalatest.events.RunCompleted
+import org.scalatest.events.RunStopped
+import java.io.DataInputStream
+import java.io.IOException
+import java.io.InputStream
+import java.io.PrintStream
+import java.net.InetSocketAddress
+import java.nio.ByteBuffer
+import java.nio.channels.SelectionKey
+import java.nio.channels.Selector
+import java.nio.channels.ServerSocketChannel
+import java.nio.channels.SocketChannel
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ListBuffer
+
+/**
+ * Receives events from any number of <code>SocketReporter</code>s in other JVMs on one thread, using a selector to
+ * multiplex their connections. Each time a connection becomes readable, every complete frame in its buffer is decoded
+ * in place, and the events are passed to <code>handle</code> as one batch, in the order they were sent.
+ *
+ * <p>
+ * A connection is closed once its peer has sent an event that ends its run, or has gone away. If receiving from a
+ * connection, or handling its events, throws an exception, that connection is closed and the exception reported to
+ * <code>err</code>, but the other connections are still served. Call <code>start</code> to start receiving, and
+ * <code>close</code> once all peers are done.
+ * </p>
+ */
+private[tools] class RemoteEventReceiver(loader: ClassLoader, handle: Seq[Event] => Unit, err: PrintStream = System.err) extends Runnable {
+
+  private val InitialBufferSize = 64 * 1024
+
+  // How long close waits for the receiver thread to finish handling what has already arrived
+  private val CloseTimeoutMillis = 10000
+
+  private val selector = Selector.open()
+
+  private val server = ServerSocketChannel.open()
+  server.socket.bind(new InetSocketAddress(0))
+  server.configureBlocking(false)
+  server.register(selector, SelectionKey.OP_ACCEPT)
+
+  @volatile private var closing = false
+
+  private val thread = new Thread(this, "ScalaTest-remote-event-receiver")
+  thread.setDaemon(true)
+
+  def port: Int = server.socket.getLocalPort
+
+  def start() {
+    thread.start()
+  }
+
+  //
+  // Stops accepting connections, handles whatever has already arrived on the open ones,
+  // then closes them.
+  //
+  def close() {
+    closing = true
+    selector.wakeup()
+    thread.join(CloseTimeoutMillis)
+  }
+
+  def run() {
+    try {
+      while (!closing) {
+        selector.select()
+        processSelectedKeys()
+      }
+      selector.selectNow()
+      processSelectedKeys()
+    }
+    catch {
+      case e: IOException => // Nothing more can be received
+    }
+    finally {
+      for (key <- selector.keys.asScala)
+        closeQuietly(key)
+      selector.close()
+    }
+  }
+
+  private def processSelectedKeys() {
+    val it = selector.selectedKeys.iterator
+    while (it.hasNext) {
+      val key = it.next
+      it.remove()
+      if (key.isValid && key.isAcceptable) {
+        val channel = server.accept()
+        if (channel != null) {
+          channel.configureBlocking(false)
+          channel.register(selector, SelectionKey.OP_READ, new Connection)
+        }
+      }
+      else if (key.isValid && key.isReadable) {
+        try {
+          processReadable(key)
+        }
+        catch {
+          case e: Exception =>
+            // Something this connection sent couldn't be decoded or handled, so give up on it, but not the others
+            err.println(Resources("remoteEventConnectionFailed", String.valueOf(key.channel.asInstanceOf[SocketChannel].socket.getRemoteSocketAddress)))
+            e.printStackTrace(err)
+            closeQuietly(key)
+        }
+      }
+    }
+  }
+
+  private def processReadable(key: SelectionKey) {
+    val connection = key.attachment.asInstanceOf[Connection]
+    val ended =
+      try {
+        connection.read(key.channel.asInstanceOf[SocketChannel])
+      }
+      catch {
+        case e: IOException => true
+      }
+    if (!connection.batch.isEmpty) {
+      handle(connection.batch.toList)
+      connection.batch.clear()
+    }
+    if (ended)
+      closeQuietly(key)
+  }
+
+  private def closeQuietly(key: SelectionKey) {
+    key.cancel()
+    try {
+      key.channel.close()
+    }
+    catch {
+      case e: IOException =>
+    }
+  }
+
+  //
+  // The state of one peer's connection: the bytes received but not yet decoded, and the
+  // decoder, which must see all of the connection's frames in order.
+  //
+  private class Connection {
+
+    private var buffer = ByteBuffer.allocate(InitialBufferSize)
+    private val decoder = new EventDecoder(loader)
+    private val bufferInput = new DataInputStream(new ByteBufferInputStream)
+    private var headerRead = false
+
+    val batch = new ListBuffer[Event]
+
+    //
+    // Reads what is available from the channel, and decodes every complete frame into batch.
+    // Returns true if the peer has ended its run or closed the connection.
+    //
+    def read(channel: SocketChannel): Boolean = {
+      val eof = channel.read(buffer) < 0
+      buffer.flip()
+      var runEnded = false
+      if (!headerRead && buffer.remaining >= 5) {
+        decoder.readHeader(bufferInput)
+        headerRead = true
+      }
+      var frameAvailable = headerRead
+      while (frameAvailable && !runEnded) {
+        if (buffer.remaining >= 4 && buffer.getInt(buffer.position) < 0)
+          throw new IOException("malformed frame length: " + buffer.getInt(buffer.position))
+        if (buffer.remaining >= 4 && buffer.remaining - 4 >= buffer.getInt(buffer.position)) {
+          val length = buffer.getInt()
+          val end = buffer.position + length
+          val limit = buffer.limit
+          buffer.limit(end)
+          val event = decoder.read(bufferInput)
+          buffer.limit(limit)
+          buffer.position(end)
+          batch += event
+          runEnded = endsRun(event)
+        }
+        else
+          frameAvailable = false
+      }
+      if (buffer.remaining >= 4 && buffer.getInt(buffer.position) + 4 > buffer.capacity) {
+        // A frame larger than the buffer: make room for it
+        val larger = ByteBuffer.allocate(buffer.getInt(buffer.position) + 4)
+        larger.put(buffer)
+        buffer = larger
+      }
+      else
+        buffer.compact()
+      eof || runEnded
+    }
+
+    private def endsRun(event: Event): Boolean =
+      event match {
+        case _: RunCompleted | _: RunStopped | _: RunAborted => true
+        case _ => false
+      }
+
+    // Reads straight out of the buffer, up to its limit, so that frames are decoded without being copied
+    private class ByteBufferInputStream extends InputStream {
+
+      override def read(): Int =
+        if (buffer.hasRemaining) buffer.get() & 0xFF else -1
+
+      override def read(bytes: Array[Byte], off: Int, len: Int): Int =
+        if (!buffer.hasRemaining)
+          -1
+        else {
+          val count = len min buffer.remaining
+          buffer.get(bytes, off, count)
+          count
+        }
+    }
+  }
+}
@@ -2,6 +2,7 @@ package org.scalatest.tools
 import org.scalatest.Reporter
 import org.scalatest.Resources
 import org.scalatest.DispatchReporter
+import org.scalatest.EventQueueConfig
 import java.net.URL
 
 private[scalatest] class ReporterFactory {
@@ -189,12 +190,18 @@ private[scalatest] class ReporterFactory {
     (for (spec <- reporterSpecs)
         yield getReporterFromConfiguration(spec, loader, resultHolder))
   
-  private[scalatest] def getDispatchReporter(reporterSpecs: ReporterConfigurations, graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], loader: ClassLoader, resultHolder: Option[SuiteResultHolder]): DispatchReporter = {
+  private[scalatest] def getDispatchReporter(reporterSpecs: ReporterConfigurations, graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], loader: ClassLoader, resultHolder: Option[SuiteResultHolder]): DispatchReporter =
+    getDispatchReporter(reporterSpecs, graphicReporter, passFailReporter, loader, resultHolder, false, EventQueueConfig.Unbounded)
+
+  private[scalatest] def getDispatchReporter(reporterSpecs: ReporterConfigurations, graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], loader: ClassLoader, resultHolder: Option[SuiteResultHolder], pipelined: Boolean, queueConfig: EventQueueConfig): DispatchReporter = {
     val reporterSeq = createReportersFromConfigurations(reporterSpecs, loader, resultHolder)
-    getDispatchReporter(reporterSeq, graphicReporter, passFailReporter, loader, resultHolder)
+    getDispatchReporter(reporterSeq, graphicReporter, passFailReporter, loader, resultHolder, pipelined, queueConfig)
   }
   
-  private[scalatest] def getDispatchReporter(reporterSeq: Seq[Reporter], graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], loader: ClassLoader, resultHolder: Option[SuiteResultHolder]): DispatchReporter = {
+  private[scalatest] def getDispatchReporter(reporterSeq: Seq[Reporter], graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], loader: ClassLoader, resultHolder: Option[SuiteResultHolder]): DispatchReporter =
+    getDispatchReporter(reporterSeq, graphicReporter, passFailReporter, loader, resultHolder, false, EventQueueConfig.Unbounded)
+
+  private[scalatest] def getDispatchReporter(reporterSeq: Seq[Reporter], graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], loader: ClassLoader, resultHolder: Option[SuiteResultHolder], pipelined: Boolean, queueConfig: EventQueueConfig): DispatchReporter = {
     val almostFullReporterList: List[Reporter] =
       graphicReporter match {
         case None => reporterSeq.toList
@@ -207,7 +214,7 @@ private[scalatest] class ReporterFactory {
         case None => almostFullReporterList
       }
 
-    new DispatchReporter(fullReporterList)
+    new DispatchReporter(fullReporterList, System.out, pipelined, queueConfig)
   }
 }
 
@@ -32,8 +32,7 @@ import org.scalatest.testng.TestNGWrapperSuite
 import java.util.concurrent.Semaphore
 import org.scalatest.events._
 import org.scalatest.junit.JUnitWrapperSuite
-import java.util.concurrent.Executors
-import java.util.concurrent.ExecutorService
+import scala.concurrent.forkjoin.ForkJoinPool
 import scala.collection.mutable.ArrayBuffer
 import SuiteDiscoveryHelper._
 import org.scalatest.time.Span
@@ -42,7 +41,7 @@ import org.scalatest.time.Millis
 
 private[tools] case class SuiteParam(className: String, testNames: Array[String], wildcardTestNames: Array[String], nestedSuites: Array[NestedSuiteParam])
 private[tools] case class NestedSuiteParam(suiteId: String, testNames: Array[String], wildcardTestNames: Array[String])
-private[scalatest] case class ConcurrentConfig(numThreads: Int, enableSuiteSortingReporter: Boolean)
+private[scalatest] case class ConcurrentConfig(numThreads: Int, enableSuiteSortingReporter: Boolean, enablePipelinedReporters: Boolean, enableLongestFirst: Boolean, enableParallelPreparation: Boolean)
 
 /**
  * Application that runs a suite of tests.
@@ -70,7 +69,7 @@ private[scalatest] case class ConcurrentConfig(numThreads: Int, enableSuiteSorti
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-R <em>&lt;runpath elements&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">the <a href="#specifyingARunpath">specifies the <em>runpath</em></a> from which tests classes will be<br/>discovered and loaded (Note: only one <code>-R</code> allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><em>Unix</em>: <code>-R target/classes:target/generated/classes</code><br/><em>Windows</em>: <code>-R target\classes;target\generated\classes</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-n <em>&lt;tag name&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#specifyingTagsToIncludeAndExclude">specifies a tag to include</a> (Note: only one tag name allowed per <code>-n</code>)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-n UnitTests -n FastTests</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-l <em>&lt;tag name&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#specifyingTagsToIncludeAndExclude">specifies a tag to exclude</a> (Note: only one tag name allowed per <code>-l</code>)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-l SlowTests -l PerfTests</code></td></tr>
- * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-P<em>[S][integer thread count]</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#executingSuitesInParallel">specifies a parallel run</a>, with optional suite sorting and thread count<br/>(Note: only one <code>-P</code> allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-P</code>, <code>-PS</code>, <code>-PS 8</code>, <em>or</em> <code>-P8</code></td></tr>
+ * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-P<em>[S][R][L][C][integer thread count]</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#executingSuitesInParallel">specifies a parallel run</a>, with optional suite sorting, pipelined reporters, longest-first scheduling, parallel preparation and thread count<br/>(Note: only one <code>-P</code> allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-P</code>, <code>-PS</code>, <code>-PR</code>, <code>-PS 8</code>, <em>or</em> <code>-P8</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-s <em>&lt;suite class name&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">specifies a <a href="executingSuites">suite class</a> to run</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-s com.company.project.StackSpec</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-m <em>&lt;members-only package&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">requests that suites that are <a href="#membersOnlyWildcard">direct members of the specified package</a><br/> be discovered and run</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-m com.company.project</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-w <em>&lt;wildcard package&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">requests that suites that are <a href="#membersOnlyWildcard">members of the specified package or its subpackages</a><br/>be discovered and run</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-w com.company.project</code></td></tr>
@@ -80,6 +79,9 @@ private[scalatest] case class ConcurrentConfig(numThreads: Int, enableSuiteSorti
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-b <em>&lt;TestNG XML file&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">run <a href="#specifyingTestNGXML">TestNG tests</a> using the specified TestNG XML file</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-b testng.xml</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-F <em>&lt;span scale factor&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">a factor by which to <a href="#scalingTimeSpans">scale time spans</a><br/>(Note: only one <code>-F</code> is allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-F 10</code> <em>or</em> <code>-F 2.5</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-T <em>&lt;sorting timeout&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">specifies a integer timeout (in seconds) for sorting the events of<br/>parallel runs back into sequential order</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-T 5</code></td></tr>
+ * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-B<em>[C|D] &lt;queue capacity&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#boundingEventQueues">bounds the queues</a> that hold events on their way to reporters,<br/>optionally coalescing <code>InfoProvided</code>s or spilling to disk when full (Note: only one <code>-B</code> allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-B 10000</code>, <code>-BC 10000</code>, <em>or</em> <code>-BD 10000</code></td></tr>
+ * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-J &lt;number of JVMs&gt;</code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#shardingAcrossJVMs">runs the suites in child JVMs</a>, partitioned among the specified number of JVMs<br/>(Note: only one <code>-J</code> allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-J 4</code></td></tr>
+ * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-M &lt;file name&gt;</code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#runMetrics">writes the run metrics</a> to the specified file as JSON when the run completes<br/>(Note: only one <code>-M</code> allowed)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-M target/metrics.json</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-y <em>&lt;chosen styles&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">specifies <a href="#specifyingChosenStyles">chosen styles</a> for your project</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-y org.scalatest.FlatSpec</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-i <em>&lt;suite ID&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center">specifies a <a href="selectingSuitesAndTests">suite to run by ID</a> (Note: must follow <code>-s</code>, <br/>and is intended to be used primarily by tools such as IDEs.)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-i com.company.project.FileSpec-file1.txt</code></td></tr>
  * <tr><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-t <em>&lt;test name&gt;</em></code></td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><a href="#selectingSuitesAndTests">select the test</a> with the specified name<br/>(Note: must follow <code>-s</code> or <code>-i</code>)</td><td style="border-width: 1px; padding: 3px; border: 1px solid black; text-align: center"><code>-t "An empty Stack should complain when popped"</code></td></tr>
@@ -387,6 +389,13 @@ private[scalatest] case class ConcurrentConfig(numThreads: Int, enableSuiteSorti
  * and declare a public, no-arg constructor, or are annotated with <code>WrapWith</code>. 
  * </p>
  *
+ * <p>
+ * To speed up later runs, what discovery learns about the classes in each jar and directory of the runpath is cached, for as long
+ * as that jar or directory is unchanged, in the file <code>.scalatest/discovery.cache</code> under your home directory. To keep it
+ * elsewhere, set the <code>org.scalatest.tools.Runner.discoveryCache</code> system property to the file's path, or set it to
+ * <code>off</code> to not keep it at all. A cache file that you don't own is ignored.
+ * </p>
+ *
  * <a name="executingSuitesInParallel"></a>
  * <h2>Executing <code>Suite</code>s in parallel</h2>
  * </a>
@@ -408,6 +417,78 @@ private[scalatest] case class ConcurrentConfig(numThreads: Int, enableSuiteSorti
  * processors available.
  * </p>
  *
+ * <p>
+ * If you append <code>R</code> to <code>-P</code> (e.g. "<code>-PR</code>" or "<code>-PR8</code>"), each reporter
+ * will be fed from its own queue by its own thread. Events are still counted in one place, so run summaries are unaffected,
+ * but a slow reporter, such as the HTML or JUnit XML reporter, will then only delay its own output rather than the
+ * other reporters and the tests themselves.
+ * </p>
+ *
+ * <p>
+ * If you append <code>L</code> to <code>-P</code> (e.g. "<code>-PL</code>" or "<code>-PL8</code>") and also specify a dashboard reporter
+ * with <code>-d</code>, <code>Runner</code> will pass the suites to the <code>Distributor</code> longest first, judging their length by the test
+ * durations the dashboard reporter recorded in previous runs. Suites with no recorded durations are taken to be as long as the average
+ * suite that has some. Suites discovered on the runpath are scheduled one by one, rather than as a group, so they are handed
+ * out in this order too. This keeps a long suite from starting last and holding up the end of the run. When the run completes,
+ * <code>Runner</code> reports the makespan (the time from handing out the first suite until the last one completed) that was
+ * predicted from the recorded durations, and the actual makespan, as an <code>InfoProvided</code> event.
+ * </p>
+ *
+ * <p>
+ * Before the run starts, <code>Runner</code> instantiates every suite discovered on the runpath, and asks every suite how many
+ * tests it expects to run, so that it can report the total in the <code>RunStarting</code> event. On a large runpath that can
+ * take seconds, during which no test runs. If you append <code>C</code> to <code>-P</code> (e.g. "<code>-PC</code>" or
+ * "<code>-PLC8</code>"), discovered suites are instantiated, and their tests counted, by tasks on the thread pool that will run them,
+ * instead of one after another. If you also specify a dashboard reporter with <code>-d</code>, and it has recorded tests for every
+ * discovered suite in previous runs, <code>Runner</code> instead reports the recorded number of tests in the <code>RunStarting</code>
+ * event, and starts the run without waiting for the discovered suites to be instantiated. They are then instantiated, still on
+ * the pool, when the run reaches them. The test count reported in <code>RunStarting</code> is then only an estimate, which may
+ * differ from the number of tests that actually run, for example if tests were added or removed since they were recorded. The
+ * recorded numbers aren't used if you include tests with <code>-n</code> or exclude them with <code>-l</code>, in which case the
+ * discovered suites are instantiated and counted before the run starts, as without a dashboard reporter. Only use <code>C</code> if your suites can safely be constructed, and have their tests counted, concurrently.
+ * </p>
+ *
+ * <a name="boundingEventQueues"></a>
+ * <h2>Bounding event queues</h2>
+ *
+ * <p>
+ * Events fired by tests are queued on their way to the reporters. By default these queues are unbounded, so if tests fire
+ * events (especially <code>InfoProvided</code>s and <code>MarkupProvided</code>s) faster than the reporters can handle them,
+ * the queues can grow without limit. The <code>-B</code> option, followed by a number, limits each queue to holding that many
+ * events in memory. By default, a thread that fires an event while the queue is full will block until there is room. If you
+ * append <code>C</code> (e.g. "<code>-BC 10000</code>"), <code>InfoProvided</code>s fired while the queue is full will instead be
+ * merged into a single <code>InfoProvided</code>. If you append <code>D</code> (e.g. "<code>-BD 10000</code>"), events fired while
+ * the queue is full will instead be written to a temporary file, and read back once the events ahead of them have been reported.
+ * </p>
+ *
+ * <a name="shardingAcrossJVMs"></a>
+ * <h2>Sharding across JVMs</h2>
+ *
+ * <p>
+ * If your suites need more CPU or heap than one JVM can give them, you can specify <code>-J</code> followed by a number of JVMs, as in
+ * "<code>-J 4</code>". <code>Runner</code> will then discover the suites to run as usual, partition them among that many child JVMs
+ * started on the local machine with the same <code>java</code> executable and class path, and run each partition in its own JVM.
+ * The child JVMs are also started with the options this JVM was started with, such as <code>-Xmx</code>, <code>-D</code> system
+ * properties and <code>-javaagent</code>, except for options that start a debugger agent (<code>-Xdebug</code>, and any that mention
+ * <code>jdwp</code>), so that each child gets as much heap as this JVM, and sees the same system properties.
+ * If a dashboard reporter is specified, suites are partitioned so as to even out the durations it recorded for them in previous
+ * runs; otherwise each JVM gets a similar number of suites. All other arguments except the reporters (for example, <code>-P</code>,
+ * <code>-n</code>, <code>-l</code> and <code>-D</code>) are passed on to the child JVMs, whose events are sent back and reported
+ * by the reporters specified for this run. If a child JVM exits before completing its run, the suites it had not completed are
+ * reported as aborted. The <code>-J</code> option is ignored if the graphic reporter is used.
+ * </p>
+ *
+ * <a name="runMetrics"></a>
+ * <h2>Run metrics</h2>
+ *
+ * <p>
+ * While a run is in progress, <code>Runner</code> registers an MBean named <code>org.scalatest:type=RunMetrics,runStamp=</code><em>n</em>
+ * with the platform MBean server, through which a JMX console can watch how long each reporter takes to handle an event, how many
+ * events are waiting to be reported, how busy the thread pool of a concurrent run is, and how long discovery, instantiating the
+ * suites, counting the expected tests and disposing the reporters took. If you specify <code>-M</code> followed by a file name,
+ * as in "<code>-M target/metrics.json</code>", these metrics will also be written to that file as JSON when the run completes.
+ * </p>
+ *
  * <a name="specifyingSuites"></a>
  * <h2>Specifying <code>Suite</code>s</h2>
  * </a>
@@ -609,6 +690,14 @@ object Runner {
   private final val DefaultNumFilesToArchive = 2
 
   @volatile private[scalatest] var testSortingReporterTimeout = Span(2, Seconds)
+
+  @volatile private[scalatest] var eventQueueConfig = EventQueueConfig.Unbounded
+
+  // The durations file kept by the first dashboard reporter, if any, consulted by longest-first scheduling
+  @volatile private[scalatest] var suiteDurationsFile: Option[File] = None
+
+  // The file to which the metrics of each run are written once it has completed, if any
+  @volatile private[scalatest] var runMetricsFile: Option[File] = None
   
   //                     TO
   // We always include a PassFailReporter on runs in order to determine
@@ -749,7 +838,10 @@ object Runner {
       suffixes, 
       chosenStyles, 
       spanScaleFactors, 
-      testSortingReporterTimeouts
+      testSortingReporterTimeouts, 
+      eventQueueArgs, 
+      shardArgs, 
+      runMetricsArgs
     ) = parseArgs(args)
 
     val fullReporterConfigurations: ReporterConfigurations =
@@ -773,6 +865,11 @@ object Runner {
     val chosenStyleSet: Set[String] = parseChosenStylesIntoChosenStyleSet(chosenStyles, "-y")
     spanScaleFactor = parseDoubleArgument(spanScaleFactors, "-F", 1.0)
     testSortingReporterTimeout = Span(parseDoubleArgument(testSortingReporterTimeouts, "-T", 2.0), Seconds)
+    eventQueueConfig = parseEventQueueConfig(eventQueueArgs)
+    val shardCount: Int = parseShardCount(shardArgs)
+    runMetricsFile = parseRunMetricsFile(runMetricsArgs)
+    suiteDurationsFile =
+      fullReporterConfigurations.dashboardReporterConfigurationList.headOption.map(config => new File(config.fileName, "durations.xml"))
 
     // If there's a graphic reporter, we need to leave it out of
     // reporterSpecs, because we want to pass all reporterSpecs except
@@ -855,28 +952,51 @@ object Runner {
         rjf.blockUntilWindowClosed()
       }
       case None => { // Run the test without a GUI
-        withClassLoaderAndDispatchReporter(runpathList, reporterConfigs, None, passFailReporter) {
+        withClassLoaderAndDispatchReporter(runpathList, reporterConfigs, None, passFailReporter, concurrentConfig.enablePipelinedReporters) {
           (loader, dispatchReporter) => {
-            doRunRunRunDaDoRunRun(
-              dispatchReporter,
-              suitesList,
-              junitsList,
-              Stopper.default,
-              tagsToInclude,
-              tagsToExclude,
-              configMap,
-              concurrent,
-              membersOnlyList,
-              wildcardList,
-              testNGList,
-              runpathList,
-              loader,
-              new RunDoneListener {},
-              1,
-              concurrentConfig,
-              suffixes,
-              chosenStyleSet
-            )
+            if (shardCount > 0) {
+              // Everything but the reporters and the suites to run is passed on to the child JVMs
+              val childArgs =
+                runpathArgsList ::: propertiesArgsList ::: includesArgsList ::: excludesArgsList :::
+                concurrentList.map("-P" + _.substring(2)) ::: chosenStyles ::: spanScaleFactors :::
+                testSortingReporterTimeouts ::: eventQueueArgs
+              ShardRunner.run(
+                dispatchReporter,
+                suiteArgsList,
+                junitsList,
+                testNGArgsList,
+                membersOnlyList,
+                wildcardList,
+                runpathList,
+                loader,
+                suffixes,
+                configMap,
+                childArgs,
+                shardCount,
+                1
+              )
+            }
+            else
+              doRunRunRunDaDoRunRun(
+                dispatchReporter,
+                suitesList,
+                junitsList,
+                Stopper.default,
+                tagsToInclude,
+                tagsToExclude,
+                configMap,
+                concurrent,
+                membersOnlyList,
+                wildcardList,
+                testNGList,
+                runpathList,
+                loader,
+                new RunDoneListener {},
+                1,
+                concurrentConfig,
+                suffixes,
+                chosenStyleSet
+              )
           }
         }
       }
@@ -919,7 +1039,10 @@ object Runner {
         s.startsWith("-q") ||
         s.startsWith("-Q") ||
         s.startsWith("-F") ||
-        s.startsWith("-T")
+        s.startsWith("-T") ||
+        s.startsWith("-B") ||
+        s.startsWith("-J") ||
+        s.startsWith("-M")
       ) {
         if (it.hasNext)
           it.next
@@ -960,28 +1083,31 @@ object Runner {
   // value representing the number of threads to use, e.g. -P10 for 10 threads.
   // 
   // It also examines for the 'S' argument, e.g. -PS or -PS10, which when specified,
-  // will enable the SuiteSortingReporter.
+  // will enable the SuiteSortingReporter, and the 'R' argument, e.g. -PR or -PSR10,
+  // which when specified will give each reporter its own queue and thread. The 'L' argument
+  // enables longest-first scheduling, and the 'C' argument instantiates discovered suites, and
+  // counts the expected tests, in parallel on the run's thread pool.
   //
   // It's possible for user to specify the -P option multiple times on the
   // command line, although it isn't particularly useful.  This method scans
   // through multiples until it finds one with a number appended and uses
   // that.  If none have a number it just returns 0.  If anyone of the -P comes 
-  // with the 'S' option, SuiteSortingReporter will be enabled.
+  // with the 'S' or 'R' option, that option will be enabled.
   //
   private[scalatest] def parseConcurrentConfig(concurrentList: List[String]): ConcurrentConfig = {
-    val threadOpt = concurrentList.find(s => s.matches("-c\\d+") || s.matches("-cS\\d+"))
+    def optionsOf(arg: String): String = arg.substring(2).takeWhile(!_.isDigit)
+    val threadOpt = concurrentList.find(_.matches("-c[SRLC]*\\d+"))
     val numThreads = threadOpt match {
-      case Some(arg) => 
-        if (arg.startsWith("-cS"))
-          arg.substring(3).toInt
-        else
-          arg.substring(2).toInt
+      case Some(arg) => arg.substring(2 + optionsOf(arg).length).toInt
       case None      => 0
     }
     
-    val enableSuiteSortingReporter = concurrentList.find(_.startsWith("-cS")).isDefined
+    val enableSuiteSortingReporter = concurrentList.exists(optionsOf(_).contains('S'))
+    val enablePipelinedReporters = concurrentList.exists(optionsOf(_).contains('R'))
+    val enableLongestFirst = concurrentList.exists(optionsOf(_).contains('L'))
+    val enableParallelPreparation = concurrentList.exists(optionsOf(_).contains('C'))
     
-    ConcurrentConfig(numThreads, enableSuiteSortingReporter)
+    ConcurrentConfig(numThreads, enableSuiteSortingReporter, enablePipelinedReporters, enableLongestFirst, enableParallelPreparation)
   }
 
   //
@@ -1012,6 +1138,9 @@ object Runner {
     val chosenStyles = new ListBuffer[String]()
     val spanScaleFactor = new ListBuffer[String]()
     val testSortingReporterTimeout = new ListBuffer[String]()
+    val eventQueue = new ListBuffer[String]()
+    val shards = new ListBuffer[String]()
+    val runMetrics = new ListBuffer[String]()
 
     val it = args.iterator.buffered
     while (it.hasNext) {
@@ -1193,6 +1322,24 @@ object Runner {
         if (it.hasNext)
           testSortingReporterTimeout += it.next
       }
+      else if (s.startsWith("-B")) {
+
+        eventQueue += s
+        if (it.hasNext)
+          eventQueue += it.next
+      }
+      else if (s.startsWith("-J")) {
+
+        shards += s
+        if (it.hasNext)
+          shards += it.next
+      }
+      else if (s.startsWith("-M")) {
+
+        runMetrics += s
+        if (it.hasNext)
+          runMetrics += it.next
+      }
       else {
         throw new IllegalArgumentException("Unrecognized argument: " + s)
       }
@@ -1213,7 +1360,10 @@ object Runner {
       genSuffixesPattern(suffixes.toList), 
       chosenStyles.toList, 
       spanScaleFactor.toList, 
-      testSortingReporterTimeout.toList
+      testSortingReporterTimeout.toList, 
+      eventQueue.toList, 
+      shards.toList, 
+      runMetrics.toList
     )
   }
 
@@ -1864,6 +2014,77 @@ object Runner {
       throw new IllegalArgumentException("Only one " + dashArg + " can be specified.")
   }
 
+  //
+  // Parses the -B option, e.g. -B 10000, -BC 10000 or -BD 10000, into the capacity and
+  // overflow policy of the DispatchReporter's queues. If no -B was given, the queues are unbounded.
+  //
+  private[scalatest] def parseEventQueueConfig(args: List[String]): EventQueueConfig = {
+    args match {
+      case Nil => EventQueueConfig.Unbounded
+      case dash :: capacityString :: Nil =>
+        val overflowPolicy =
+          dash match {
+            case "-B" => BlockProducer
+            case "-BC" => CoalesceInfoProvided
+            case "-BD" => SpillToDisk
+            case _ => throw new IllegalArgumentException("Unrecognized queue overflow policy: " + dash.substring(2) + ". Must be C, D, or nothing.")
+          }
+        val capacity =
+          try {
+            capacityString.toInt
+          }
+          catch {
+            case e: NumberFormatException =>
+              throw new IllegalArgumentException("-B must be followed by a number, but '" + capacityString + "' is not a number.")
+          }
+        if (capacity <= 0)
+          throw new IllegalArgumentException("-B must be followed by a positive number, but was followed by " + capacity + ".")
+        EventQueueConfig(capacity, overflowPolicy)
+      case dash :: Nil =>
+        throw new IllegalArgumentException("Last element must be a number, not a " + dash + ".")
+      case _ =>
+        throw new IllegalArgumentException("Only one -B can be specified.")
+    }
+  }
+
+  private[scalatest] def parseShardCount(args: List[String]): Int = {
+    args match {
+      case Nil => 0
+      case dash :: countString :: Nil =>
+        if (dash != "-J")
+          throw new IllegalArgumentException("Unrecognized argument: " + dash + ". Did you mean -J?")
+        val count =
+          try {
+            countString.toInt
+          }
+          catch {
+            case e: NumberFormatException =>
+              throw new IllegalArgumentException("-J must be followed by a number, but '" + countString + "' is not a number.")
+          }
+        if (count <= 0)
+          throw new IllegalArgumentException("-J must be followed by a positive number, but was followed by " + count + ".")
+        count
+      case dash :: Nil =>
+        throw new IllegalArgumentException("Last element must be a number, not a " + dash + ".")
+      case _ =>
+        throw new IllegalArgumentException("Only one -J can be specified.")
+    }
+  }
+
+  private[scalatest] def parseRunMetricsFile(args: List[String]): Option[File] = {
+    args match {
+      case Nil => None
+      case dash :: fileName :: Nil =>
+        if (dash != "-M")
+          throw new IllegalArgumentException("Unrecognized argument: " + dash + ". Did you mean -M?")
+        Some(new File(fileName))
+      case dash :: Nil =>
+        throw new IllegalArgumentException("Last element must be a file name, not a " + dash + ".")
+      case _ =>
+        throw new IllegalArgumentException("Only one -M can be specified.")
+    }
+  }
+
   //
   // Splits a space-delimited path into its component parts.
   //
@@ -2041,6 +2262,9 @@ object Runner {
     var tracker = new Tracker(new Ordinal(runStamp))
 
     val runStartTime = System.currentTimeMillis
+
+    val metrics = dispatch.metrics
+    val metricsName = RunMetrics.register(metrics, runStamp)
     
     try {
       val loadProblemsExist =
@@ -2070,8 +2294,18 @@ object Runner {
 
         case class SuiteConfig(suite: Suite, dynaTags: DynaTags, requireSelectedTag: Boolean, excludeNestedSuites: Boolean)
 
+        // Because some tests may do IO, will create a pool of 2 times the number of processors reported
+        // by the Runtime's availableProcessors method.
+        val poolSize =
+          if (concurrentConfig.numThreads > 0) concurrentConfig.numThreads
+          else Runtime.getRuntime.availableProcessors * 2
+
+        // Created before discovery so that, with -PC, the suites can be instantiated and counted on it
+        val runPool: Option[ForkJoinPool] = if (concurrent) Some(new ForkJoinPool(poolSize)) else None
+        val preparationPool = if (concurrentConfig.enableParallelPreparation) runPool else None
+
         try {
-          val namedSuiteInstances: List[SuiteConfig] =
+          val namedSuiteInstances: List[SuiteConfig] = metrics.suiteInstantiation.time {
             for (suiteParam <- suitesList)
               yield {
                 val suiteClassName = suiteParam.className
@@ -2138,6 +2372,7 @@ object Runner {
                   SuiteConfig(suiteInstance, new DynaTags(suiteDynaTags, testDynaTags), true, excludeNestedSuites)
                 }
               }
+          }
           
           val requireSelectedTag = suitesList.find(suiteParam => suiteParam.testNames.length > 0)
           
@@ -2164,21 +2399,21 @@ object Runner {
               (Nil, Nil) // No DiscoverySuites in this case. Just run Suites named with -s or -j or -b
             }
             else {
-              val accessibleSuites = discoverSuiteNames(runpath, loader, suffixes)
+              val accessibleSuites = metrics.discovery.time { discoverSuiteNames(runpath, loader, suffixes) }
 
               if (membersOnlyAndWildcardListsAreEmpty && suitesList.isEmpty && junitsList.isEmpty && testNGList.isEmpty) {
                 // In this case, they didn't specify any -w, -m, -s, -j or -b on the command line, so the default
                 // is to run any accessible Suites discovered on the runpath
-                (Nil, List(SuiteConfig(new DiscoverySuite("", accessibleSuites, true, loader), emptyDynaTags, false, false)))
+                (Nil, List(SuiteConfig(new DiscoverySuite("", accessibleSuites, true, loader, preparationPool), emptyDynaTags, false, false)))
               }
               else {
                 val membersOnlyInstances =
                   for (membersOnlyName <- membersOnlyList)
-                    yield SuiteConfig(new DiscoverySuite(membersOnlyName, accessibleSuites, false, loader), emptyDynaTags, false, false)
+                    yield SuiteConfig(new DiscoverySuite(membersOnlyName, accessibleSuites, false, loader, preparationPool), emptyDynaTags, false, false)
 
                 val wildcardInstances =
                   for (wildcardName <- wildcardList)
-                    yield SuiteConfig(new DiscoverySuite(wildcardName, accessibleSuites, true, loader), emptyDynaTags, false, false)
+                    yield SuiteConfig(new DiscoverySuite(wildcardName, accessibleSuites, true, loader, preparationPool), emptyDynaTags, false, false)
 
                 (membersOnlyInstances, wildcardInstances)
               }
@@ -2187,21 +2422,20 @@ object Runner {
 
           val suiteInstances: List[SuiteConfig] = namedSuiteInstances ::: junitSuiteInstances ::: membersOnlySuiteInstances ::: wildcardSuiteInstances ::: testNGWrapperSuiteList
 
-          val testCountList =
-            for (suiteConfig <- suiteInstances)
-              yield { 
-              val tagsToInclude = if (suiteConfig.requireSelectedTag) tagsToIncludeSet ++ Set(SELECTED_TAG) else tagsToIncludeSet
-              val filter = Filter(if (tagsToInclude.isEmpty) None else Some(tagsToInclude), tagsToExcludeSet, suiteConfig.excludeNestedSuites, suiteConfig.dynaTags)
-              suiteConfig.suite.expectedTestCount(filter)
-            }
-  
-          def sumInts(list: List[Int]): Int =
-            list match {
-              case Nil => 0
-              case x :: xs => x + sumInts(xs)
-            }
+          def countFilterFor(suiteConfig: SuiteConfig): Filter = {
+            val tagsToInclude = if (suiteConfig.requireSelectedTag) tagsToIncludeSet ++ Set(SELECTED_TAG) else tagsToIncludeSet
+            Filter(if (tagsToInclude.isEmpty) None else Some(tagsToInclude), tagsToExcludeSet, suiteConfig.excludeNestedSuites, suiteConfig.dynaTags)
+          }
 
-          val expectedTestCount = sumInts(testCountList)
+          val expectedTestCount = metrics.expectedTestCount.time {
+            preparationPool match {
+              case Some(p) =>
+                val recordedTestCounts = suiteDurationsFile.map(ParallelPreparation.loadRecordedTestCounts).getOrElse(Map.empty[String, Int])
+                ParallelPreparation.expectedTestCount(suiteInstances.map(suiteConfig => (suiteConfig.suite, countFilterFor(suiteConfig))), p, recordedTestCounts)
+              case None =>
+                suiteInstances.map(suiteConfig => suiteConfig.suite.expectedTestCount(countFilterFor(suiteConfig))).sum
+            }
+          }
 
           val discoveryDuration = System.currentTimeMillis - discoveryStartTime
           dispatch(DiscoveryCompleted(tracker.nextOrdinal(), Some(discoveryDuration)))
@@ -2210,11 +2444,7 @@ object Runner {
           
           if (concurrent) {
 
-            // Because some tests may do IO, will create a pool of 2 times the number of processors reported
-            // by the Runtime's availableProcessors method.
-            val poolSize =
-              if (concurrentConfig.numThreads > 0) concurrentConfig.numThreads
-              else Runtime.getRuntime.availableProcessors * 2
+            val pool = runPool.get
 
             val distributedSuiteSorter = 
               if (concurrentConfig.enableSuiteSortingReporter)
@@ -2227,25 +2457,31 @@ object Runner {
                 case Some(dss) => dss
                 case None => dispatch
               }
-                
-            val execSvc: ExecutorService = Executors.newFixedThreadPool(poolSize)
-            try {
-
-              val distributor = new ConcurrentDistributor(Args(dispatch, stopRequested, Filter(if (tagsToIncludeSet.isEmpty) None else Some(tagsToIncludeSet), tagsToExcludeSet), configMap, None, tracker, chosenStyleSet), execSvc)
-              if (System.getProperty("org.scalatest.tools.Runner.forever", "false") == "true") {
-
-                while (true) {
-                  for (suiteConfig <- suiteInstances) {
-                    val tagsToInclude = if (suiteConfig.requireSelectedTag) tagsToIncludeSet ++ Set(SELECTED_TAG) else tagsToIncludeSet
-                    val filter = Filter(if (tagsToInclude.isEmpty) None else Some(tagsToInclude), tagsToExcludeSet, suiteConfig.excludeNestedSuites, suiteConfig.dynaTags)
-                    val runArgs = Args(concurrentDispatch, stopRequested, filter, configMap, Some(distributor), tracker.nextTracker, chosenStyleSet, false, None, distributedSuiteSorter)
-                    distributor.apply(suiteConfig.suite, runArgs)
+
+            val distributor = new ConcurrentDistributor(Args(dispatch, stopRequested, Filter(if (tagsToIncludeSet.isEmpty) None else Some(tagsToIncludeSet), tagsToExcludeSet), configMap, None, tracker, chosenStyleSet), pool, Some(metrics))
+
+            val schedule: Option[Schedule[SuiteConfig]] =
+              if (concurrentConfig.enableLongestFirst) {
+                val estimates = suiteDurationsFile.map(LongestFirstScheduler.loadEstimates).getOrElse(Map.empty[String, Long])
+                // A DiscoverySuite would hand out its nested suites in discovery order, and has no history of its own,
+                // so the suites it discovered are scheduled individually instead
+                val individualSuiteInstances =
+                  suiteInstances.flatMap {
+                    case SuiteConfig(discoverySuite: DiscoverySuite, dynaTags, requireSelectedTag, excludeNestedSuites) =>
+                      discoverySuite.nestedSuites.toList.map(SuiteConfig(_, dynaTags, requireSelectedTag, excludeNestedSuites))
+                    case suiteConfig =>
+                      List(suiteConfig)
                   }
-                  distributor.waitUntilDone()
-                }
+                Some(LongestFirstScheduler.schedule(individualSuiteInstances, estimates, poolSize)(_.suite.suiteId))
               }
-              else {
-                for (suiteConfig <- suiteInstances) {
+              else
+                None
+            val scheduledSuiteInstances = schedule.map(_.ordered).getOrElse(suiteInstances)
+
+            if (System.getProperty("org.scalatest.tools.Runner.forever", "false") == "true") {
+
+              while (true) {
+                for (suiteConfig <- scheduledSuiteInstances) {
                   val tagsToInclude = if (suiteConfig.requireSelectedTag) tagsToIncludeSet ++ Set(SELECTED_TAG) else tagsToIncludeSet
                   val filter = Filter(if (tagsToInclude.isEmpty) None else Some(tagsToInclude), tagsToExcludeSet, suiteConfig.excludeNestedSuites, suiteConfig.dynaTags)
                   val runArgs = Args(concurrentDispatch, stopRequested, filter, configMap, Some(distributor), tracker.nextTracker, chosenStyleSet, false, None, distributedSuiteSorter)
@@ -2254,8 +2490,20 @@ object Runner {
                 distributor.waitUntilDone()
               }
             }
-            finally {
-              execSvc.shutdown()
+            else {
+              val distributionStartTime = System.currentTimeMillis
+              for (suiteConfig <- scheduledSuiteInstances) {
+                val tagsToInclude = if (suiteConfig.requireSelectedTag) tagsToIncludeSet ++ Set(SELECTED_TAG) else tagsToIncludeSet
+                val filter = Filter(if (tagsToInclude.isEmpty) None else Some(tagsToInclude), tagsToExcludeSet, suiteConfig.excludeNestedSuites, suiteConfig.dynaTags)
+                val runArgs = Args(concurrentDispatch, stopRequested, filter, configMap, Some(distributor), tracker.nextTracker, chosenStyleSet, false, None, distributedSuiteSorter)
+                distributor.apply(suiteConfig.suite, runArgs)
+              }
+              distributor.waitUntilDone()
+              for (s <- schedule) {
+                val actualMakespan = System.currentTimeMillis - distributionStartTime
+                val message = Resources("longestFirstMakespan", s.predictedMakespan.toString, actualMakespan.toString, s.suitesWithHistoryCount.toString, s.suitesWithoutHistoryCount.toString)
+                dispatch(InfoProvided(tracker.nextOrdinal(), message, None))
+              }
             }
           }
           else {
@@ -2264,7 +2512,7 @@ object Runner {
               val filter = Filter(if (tagsToInclude.isEmpty) None else Some(tagsToInclude), tagsToExcludeSet, suiteConfig.excludeNestedSuites, suiteConfig.dynaTags)
               val runArgs = Args(dispatch, stopRequested, filter, configMap, None, tracker, chosenStyleSet)
               val status = new ScalaTestStatefulStatus()
-              val suiteRunner = new SuiteRunner(suiteConfig.suite, runArgs, status)
+              val suiteRunner = new SuiteRunner(suiteConfig.suite, runArgs, status, Some(metrics))
               suiteRunner.run()
             }
           }
@@ -2287,24 +2535,51 @@ object Runner {
           case e: Throwable =>
             dispatch(RunAborted(tracker.nextOrdinal(), Resources.bigProblems(e), Some(e), Some(System.currentTimeMillis - runStartTime)))
         }
+        finally {
+          for (p <- runPool)
+            p.shutdown()
+        }
       }
     }
     finally {
-      dispatch.dispatchDisposeAndWaitUntilDone()
+      metrics.teardown.time {
+        dispatch.dispatchDisposeAndWaitUntilDone()
+      }
+      for (file <- runMetricsFile)
+        writeRunMetrics(metrics, file)
+      for (name <- metricsName)
+        RunMetrics.unregister(name)
       doneListener.done()
     }
   }
 
+  // Written after the reporters have been disposed, so that the dump includes the teardown
+  private def writeRunMetrics(metrics: RunMetrics, file: File) {
+    try {
+      val writer = new java.io.OutputStreamWriter(new java.io.FileOutputStream(file), "UTF-8")
+      try {
+        writer.write(metrics.toJson)
+      }
+      finally {
+        writer.close()
+      }
+    }
+    catch {
+      case e: IOException =>
+        System.err.println(Resources("cannotWriteRunMetrics", file.getAbsolutePath, e.getMessage))
+    }
+  }
+
   private[scalatest] def excludesWithIgnore(excludes: Set[String]) = excludes + "org.scalatest.Ignore"
 
   private[scalatest] def withClassLoaderAndDispatchReporter(runpathList: List[String], reporterSpecs: ReporterConfigurations,
-      graphicReporter: Option[Reporter], passFailReporter: Option[Reporter])(f: (ClassLoader, DispatchReporter) => Unit): Unit = {
+      graphicReporter: Option[Reporter], passFailReporter: Option[Reporter], pipelined: Boolean)(f: (ClassLoader, DispatchReporter) => Unit): Unit = {
 
     val loader: ClassLoader = getRunpathClassLoader(runpathList)
     try {
       Thread.currentThread.setContextClassLoader(loader)
       try {
-        val dispatchReporter = ReporterFactory.getDispatchReporter(reporterSpecs, graphicReporter, passFailReporter, loader, None)
+        val dispatchReporter = ReporterFactory.getDispatchReporter(reporterSpecs, graphicReporter, passFailReporter, loader, None, pipelined, eventQueueConfig)
         try {
           f(loader, dispatchReporter)
         }
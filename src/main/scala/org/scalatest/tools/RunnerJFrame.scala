@@ -1519,7 +1519,7 @@ private[scalatest] class RunnerJFrame(
 
     override def run() {
   
-      withClassLoaderAndDispatchReporter(runpathList, reporterConfigurations, Some(graphicRunReporter), passFailReporter) {
+      withClassLoaderAndDispatchReporter(runpathList, reporterConfigurations, Some(graphicRunReporter), passFailReporter, concurrentConfig.enablePipelinedReporters) {
         (loader, dispatchReporter) => {
           try {
             Runner.doRunRunRunDaDoRunRun(
@@ -1563,7 +1563,7 @@ private[scalatest] class RunnerJFrame(
 
       val tracker = new Tracker(new Ordinal(nextRunStamp))
 
-      withClassLoaderAndDispatchReporter(runpathList, reporterConfigurations, Some(graphicRerunReporter), None) {
+      withClassLoaderAndDispatchReporter(runpathList, reporterConfigurations, Some(graphicRerunReporter), None, concurrentConfig.enablePipelinedReporters) {
         (loader, dispatchReporter) => {
           try {
             val filter = Filter(if (tagsToIncludeSet.isEmpty) None else Some(tagsToIncludeSet), tagsToExcludeSet)
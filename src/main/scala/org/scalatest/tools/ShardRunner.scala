@@ -0,0 +1,413 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.events._
+import java.io.BufferedInputStream
+import java.io.BufferedReader
+import java.io.DataInputStream
+import java.io.EOFException
+import java.io.File
+import java.io.IOException
+import java.io.InputStreamReader
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.lang.management.ManagementFactory
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
+import java.net.SocketTimeoutException
+import java.util.concurrent.CountDownLatch
+import java.util.regex.Pattern
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/*
+ * A unit of work handed to one shard: the Runner arguments that select it, and, if it is a single suite
+ * class, that class's name (which is also its suite ID for the purpose of duration estimates).
+ */
+private[tools] case class ShardItem(suiteClassName: Option[String], args: List[String])
+
+/**
+ * Runs suites in child JVMs, started with the same <code>java</code> executable, JVM options and class path as this one.
+ *
+ * <p>
+ * The suites selected by the <code>-s</code>, <code>-j</code>, <code>-b</code>, <code>-m</code>, and <code>-w</code> arguments (or, if
+ * there are none, all suites discovered on the runpath) are partitioned among the shards. Each child JVM runs its share
+ * with <code>Runner</code>, reporting through a <code>SocketReporter</code> back to this JVM, which forwards the events to its
+ * <code>DispatchReporter</code>. If a child JVM exits without completing its run, the suites it had not completed are
+ * reported as aborted.
+ * </p>
+ */
+private[tools] object ShardRunner {
+
+  private val Loopback = "127.0.0.1"
+
+  // How long to wait for a child JVM to connect before checking whether it has died
+  private val AcceptTimeoutMillis = 1000
+
+  //
+  // Invoked in a child JVM with the host and port of its shard's server socket. Reads the
+  // Runner arguments from the first connection to that socket, then runs Runner with them.
+  //
+  def main(args: Array[String]) {
+    val socket = new Socket(args(0), args(1).toInt)
+    val runnerArgs =
+      try {
+        new ObjectInputStream(socket.getInputStream).readObject.asInstanceOf[Array[String]]
+      }
+      finally {
+        socket.close()
+      }
+    Runner.main(runnerArgs)
+  }
+
+  //
+  // Splits the raw -s arguments into one item per -s, each of which keeps the -t, -z and -i
+  // arguments that followed it.
+  //
+  def suiteItems(suiteArgsList: List[String]): List[ShardItem] = {
+    val items = new mutable.ListBuffer[ShardItem]
+    for (pair <- suiteArgsList.grouped(2) if pair.length == 2) {
+      if (pair.head.startsWith("-s"))
+        items += ShardItem(Some(pair(1)), pair)
+      else if (!items.isEmpty)
+        items(items.length - 1) = items.last.copy(args = items.last.args ::: pair)
+    }
+    items.toList
+  }
+
+  //
+  // Assigns each item, longest first, to the shard with the least estimated work so far, or if
+  // several are tied, the one with the fewest items.
+  //
+  def partition(items: List[ShardItem], shardCount: Int, estimates: Map[String, Long]): List[List[ShardItem]] = {
+    val schedule = LongestFirstScheduler.schedule(items, estimates, shardCount)(_.suiteClassName.getOrElse(""))
+    val knownEstimates = items.flatMap(_.suiteClassName).flatMap(estimates.get)
+    val defaultEstimate = if (knownEstimates.isEmpty) 0L else knownEstimates.sum / knownEstimates.length
+    val loads = new Array[Long](shardCount)
+    val shards = Array.fill(shardCount)(new mutable.ListBuffer[ShardItem])
+    for (item <- schedule.ordered) {
+      val shard = (0 until shardCount).minBy(i => (loads(i), shards(i).length))
+      loads(shard) += item.suiteClassName.flatMap(estimates.get).getOrElse(defaultEstimate)
+      shards(shard) += item
+    }
+    shards.map(_.toList).toList
+  }
+
+  //
+  // Returns a copy of an event forwarded from a child JVM, and of any events recorded in it, with ordinals
+  // from the passed tracker in place of the child's, which would collide with those of the other children
+  // and of this JVM. Recorded events get theirs first, so they still come before the event that holds them.
+  //
+  def restamp(event: Event, tracker: Tracker): Event = {
+    def restampRecorded(recordedEvents: collection.immutable.IndexedSeq[RecordableEvent]) =
+      recordedEvents.map(restamp(_, tracker).asInstanceOf[RecordableEvent])
+    event match {
+      case e: TestStarting => e.copy(ordinal = tracker.nextOrdinal())
+      case e: TestSucceeded =>
+        val recordedEvents = restampRecorded(e.recordedEvents)
+        e.copy(ordinal = tracker.nextOrdinal(), recordedEvents = recordedEvents)
+      case e: TestFailed =>
+        val recordedEvents = restampRecorded(e.recordedEvents)
+        e.copy(ordinal = tracker.nextOrdinal(), recordedEvents = recordedEvents)
+      case e: TestIgnored => e.copy(ordinal = tracker.nextOrdinal())
+      case e: TestPending =>
+        val recordedEvents = restampRecorded(e.recordedEvents)
+        e.copy(ordinal = tracker.nextOrdinal(), recordedEvents = recordedEvents)
+      case e: TestCanceled =>
+        val recordedEvents = restampRecorded(e.recordedEvents)
+        e.copy(ordinal = tracker.nextOrdinal(), recordedEvents = recordedEvents)
+      case e: SuiteStarting => e.copy(ordinal = tracker.nextOrdinal())
+      case e: SuiteCompleted => e.copy(ordinal = tracker.nextOrdinal())
+      case e: SuiteAborted => e.copy(ordinal = tracker.nextOrdinal())
+      case e: RunStarting => e.copy(ordinal = tracker.nextOrdinal())
+      case e: RunCompleted => e.copy(ordinal = tracker.nextOrdinal())
+      case e: RunStopped => e.copy(ordinal = tracker.nextOrdinal())
+      case e: RunAborted => e.copy(ordinal = tracker.nextOrdinal())
+      case e: InfoProvided => e.copy(ordinal = tracker.nextOrdinal())
+      case e: MarkupProvided => e.copy(ordinal = tracker.nextOrdinal())
+      case e: ScopeOpened => e.copy(ordinal = tracker.nextOrdinal())
+      case e: ScopeClosed => e.copy(ordinal = tracker.nextOrdinal())
+      case e: ScopePending => e.copy(ordinal = tracker.nextOrdinal())
+      case e: DiscoveryStarting => e.copy(ordinal = tracker.nextOrdinal())
+      case e: DiscoveryCompleted => e.copy(ordinal = tracker.nextOrdinal())
+    }
+  }
+
+  def run(
+    dispatch: DispatchReporter,
+    suiteArgsList: List[String],
+    junitsList: List[String],
+    testNGArgsList: List[String],
+    membersOnlyList: List[String],
+    wildcardList: List[String],
+    runpath: List[String],
+    loader: ClassLoader,
+    suffixes: Option[Pattern],
+    configMap: ConfigMap,
+    childArgs: List[String],
+    shardCount: Int,
+    runStamp: Int
+  ) {
+    val tracker = new Tracker(new Ordinal(runStamp))
+    val runStartTime = System.currentTimeMillis
+    try {
+      val discoveryStartTime = System.currentTimeMillis
+      dispatch(DiscoveryStarting(tracker.nextOrdinal(), configMap))
+
+      val selectionIsEmpty = suiteArgsList.isEmpty && junitsList.isEmpty && testNGArgsList.isEmpty && membersOnlyList.isEmpty && wildcardList.isEmpty
+      val discoveredItems =
+        if (membersOnlyList.isEmpty && wildcardList.isEmpty && !selectionIsEmpty)
+          Nil
+        else {
+          val accessibleSuites = SuiteDiscoveryHelper.discoverSuiteNames(runpath, loader, suffixes)
+          val names =
+            if (selectionIsEmpty)
+              DiscoverySuite.nestedSuiteNames("", accessibleSuites, true)
+            else
+              membersOnlyList.flatMap(DiscoverySuite.nestedSuiteNames(_, accessibleSuites, false)) ++
+                wildcardList.flatMap(DiscoverySuite.nestedSuiteNames(_, accessibleSuites, true))
+          for (name <- names.distinct.toList) yield ShardItem(Some(name), List("-s", name))
+        }
+      val junitItems = for (name <- junitsList) yield ShardItem(Some(name), List("-j", name))
+      val testNGItems = if (testNGArgsList.isEmpty) Nil else List(ShardItem(None, testNGArgsList))
+      val items = suiteItems(suiteArgsList) ::: junitItems ::: testNGItems ::: discoveredItems
+
+      dispatch(DiscoveryCompleted(tracker.nextOrdinal(), Some(System.currentTimeMillis - discoveryStartTime)))
+
+      val estimates = Runner.suiteDurationsFile.map(LongestFirstScheduler.loadEstimates).getOrElse(Map.empty[String, Long])
+      val partitions = partition(items, shardCount, estimates).filter(!_.isEmpty)
+
+      // Taken now, so that RunStarting comes before every event the shards forward
+      val runStartingOrdinal = tracker.nextOrdinal()
+      val runStartingReceived = new CountDownLatch(partitions.length)
+      val runStartingFired = new CountDownLatch(1)
+      val shards =
+        for ((shardItems, index) <- partitions.zipWithIndex) yield
+          new Shard(index + 1, shardItems, childArgs, dispatch, tracker.nextTracker, loader, runStartingReceived, runStartingFired)
+      shards.foreach(_.start())
+
+      runStartingReceived.await()
+      dispatch(RunStarting(runStartingOrdinal, shards.map(_.expectedTestCount).sum, configMap))
+      runStartingFired.countDown()
+
+      shards.foreach(_.join())
+      for (shard <- shards)
+        shard.reportUnfinishedSuites()
+
+      val duration = System.currentTimeMillis - runStartTime
+      shards.flatMap(_.runAborted).headOption match {
+        case Some(aborted) =>
+          dispatch(RunAborted(tracker.nextOrdinal(), aborted.message, aborted.throwable, Some(duration)))
+        case None =>
+          dispatch(RunCompleted(tracker.nextOrdinal(), Some(duration)))
+      }
+    }
+    catch {
+      case e: Throwable =>
+        dispatch(RunAborted(tracker.nextOrdinal(), Resources.bigProblems(e), Some(e), Some(System.currentTimeMillis - runStartTime)))
+    }
+  }
+
+  private def javaExecutable: String =
+    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"
+
+  //
+  // Returns the passed JVM options, such as -Xmx, -D and -javaagent, less those that start a debugger
+  // agent, which in every child JVM would try to listen on the same port as in this one.
+  //
+  def childJvmOptions(inputArguments: List[String]): List[String] =
+    inputArguments.filterNot(arg => arg == "-Xdebug" || arg.contains("jdwp"))
+
+  // The class path of this JVM, plus wherever ScalaTest and the Scala library were loaded from, in case
+  // they were loaded by a class loader other than the system class loader (as in an Ant or sbt build).
+  private def childClassPath: String = {
+    val locations =
+      for {
+        clazz <- List(classOf[Suite], classOf[Option[_]])
+        codeSource <- Option(clazz.getProtectionDomain.getCodeSource)
+      } yield new File(codeSource.getLocation.toURI).getPath
+    (System.getProperty("java.class.path") :: locations).mkString(File.pathSeparator)
+  }
+
+  private class Shard(
+    index: Int,
+    items: List[ShardItem],
+    childArgs: List[String],
+    dispatch: DispatchReporter,
+    tracker: Tracker,
+    loader: ClassLoader,
+    runStartingReceived: CountDownLatch,
+    runStartingFired: CountDownLatch
+  ) extends Thread("ScalaTest-shard-" + index) {
+
+    @volatile var expectedTestCount = 0
+    @volatile var runAborted: Option[RunAborted] = None
+    @volatile private var runEnded = false
+    @volatile private var failure: Option[Throwable] = None
+    private var countedDown = false
+
+    // Suites that started but haven't completed or aborted, by suite ID
+    private val startedSuites = new mutable.LinkedHashMap[String, SuiteStarting]
+    private val startedClassNames = new mutable.HashSet[String]
+
+    private val server = new ServerSocket(0, 2, InetAddress.getByName(Loopback))
+    server.setSoTimeout(AcceptTimeoutMillis)
+
+    private val process = {
+      val jvmOptions = childJvmOptions(ManagementFactory.getRuntimeMXBean.getInputArguments.asScala.toList)
+      val command = javaExecutable :: jvmOptions ::: List("-cp", childClassPath, "org.scalatest.tools.ShardRunner", Loopback, server.getLocalPort.toString)
+      val builder = new ProcessBuilder(command: _*)
+      builder.redirectErrorStream(true)
+      builder.start()
+    }
+
+    // Drains the child's output, which would otherwise fill the pipe and block it
+    private val outputPump = new Thread("ScalaTest-shard-" + index + "-output") {
+      override def run() {
+        val reader = new BufferedReader(new InputStreamReader(process.getInputStream))
+        try {
+          var line = reader.readLine()
+          while (line != null) {
+            System.out.println("[shard " + index + "] " + line)
+            line = reader.readLine()
+          }
+        }
+        catch {
+          case e: IOException => // The child has gone away
+        }
+      }
+    }
+    outputPump.start()
+
+    private def hasExited: Boolean =
+      try {
+        process.exitValue()
+        true
+      }
+      catch {
+        case e: IllegalThreadStateException => false
+      }
+
+    private def accept(): Socket = {
+      var socket: Socket = null
+      while (socket == null) {
+        try {
+          socket = server.accept()
+        }
+        catch {
+          case e: SocketTimeoutException =>
+            if (hasExited)
+              throw new IOException(Resources("shardExitedBeforeConnecting", index.toString, process.exitValue.toString))
+        }
+      }
+      socket
+    }
+
+    private def countDownRunStarting() {
+      if (!countedDown) {
+        countedDown = true
+        runStartingReceived.countDown()
+      }
+    }
+
+    override def run() {
+      try {
+        val control = accept()
+        try {
+          val out = new ObjectOutputStream(control.getOutputStream)
+          out.writeObject((childArgs ::: List("-K", Loopback, server.getLocalPort.toString) ::: items.flatMap(_.args)).toArray)
+          out.flush()
+        }
+        finally {
+          control.close()
+        }
+        val events = accept()
+        try {
+          val in = new DataInputStream(new BufferedInputStream(events.getInputStream))
+          val decoder = new EventDecoder(loader)
+          decoder.readHeader(in)
+          while (!runEnded) {
+            decoder.readFrame(in) match {
+              case Some(event) => forward(event)
+              case None => throw new EOFException
+            }
+          }
+        }
+        finally {
+          events.close()
+        }
+      }
+      catch {
+        case e: EOFException => // The child went away without ending its run, which is reported below
+        case e: Throwable => failure = Some(e)
+      }
+      finally {
+        countDownRunStarting()
+        server.close()
+        process.waitFor()
+        outputPump.join()
+      }
+    }
+
+    private def forward(event: Event) {
+      event match {
+        case e: RunStarting =>
+          expectedTestCount = e.testCount
+          countDownRunStarting()
+          runStartingFired.await()
+        case _: DiscoveryStarting | _: DiscoveryCompleted =>
+        case _: RunCompleted | _: RunStopped =>
+          runEnded = true
+        case e: RunAborted =>
+          runAborted = Some(e)
+          runEnded = true
+        case e: SuiteStarting =>
+          startedSuites(e.suiteId) = e
+          startedClassNames ++= e.suiteClassName
+          dispatch(restamp(e, tracker))
+        case e: SuiteCompleted =>
+          startedSuites -= e.suiteId
+          dispatch(restamp(e, tracker))
+        case e: SuiteAborted =>
+          startedSuites -= e.suiteId
+          dispatch(restamp(e, tracker))
+        case e =>
+          dispatch(restamp(e, tracker))
+      }
+    }
+
+    //
+    // If the child JVM didn't end its run, reports every suite it was given that didn't complete as aborted.
+    // Must be called after this thread has completed.
+    //
+    def reportUnfinishedSuites() {
+      if (!runEnded) {
+        val message = Resources("shardDidNotComplete", index.toString, process.exitValue.toString)
+        val throwable = failure
+        for (started <- startedSuites.values)
+          dispatch(SuiteAborted(tracker.nextOrdinal(), message, started.suiteName, started.suiteId, started.suiteClassName, throwable))
+        for (className <- items.flatMap(_.suiteClassName) if !startedClassNames.contains(className)) {
+          val suiteName = className.substring(className.lastIndexOf('.') + 1)
+          dispatch(SuiteStarting(tracker.nextOrdinal(), suiteName, className, Some(className)))
+          dispatch(SuiteAborted(tracker.nextOrdinal(), message, suiteName, className, Some(className), throwable))
+        }
+      }
+    }
+  }
+}
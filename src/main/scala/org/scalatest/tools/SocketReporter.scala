@@ -1,27 +1,93 @@
 package org.scalatest.tools
 
-import org.scalatest.events.Event
+import org.scalatest.events._
 import org.scalatest.ResourcefulReporter
 import java.net.Socket
-import java.io.ObjectOutputStream
 import java.io.BufferedOutputStream
+import java.io.IOException
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
 
+/*
+ * Sends events to host:port in the binary format of EventCodec. The stream is flushed after RunStarting and each
+ * event that ends a suite or run, and otherwise at most every FlushIntervalMillis, so events are sent in batches. A
+ * daemon thread flushes whatever is still buffered once FlushIntervalMillis has passed, so events don't wait for the
+ * next one to arrive before being sent.
+ */
 private[scalatest] class SocketReporter(host: String, port: Int) extends ResourcefulReporter {
 
+  private val FlushIntervalMillis = 100
+
   private val socket = new Socket(host, port)
-  private val out = new ObjectOutputStream(socket.getOutputStream)
+  private val out = new BufferedOutputStream(socket.getOutputStream, PrintReporter.BufferSize)
+  private val encoder = new EventEncoder(out)
+  private var lastFlushTime = System.currentTimeMillis
+  private var unflushed = false
+
+  private val flusher = {
+    val executor =
+      new ScheduledThreadPoolExecutor(1, new ThreadFactory {
+        def newThread(runnable: Runnable): Thread = {
+          val thread = new Thread(runnable, "ScalaTest-socket-reporter-flusher")
+          thread.setDaemon(true)
+          thread
+        }
+      })
+    executor.scheduleWithFixedDelay(
+      new Runnable {
+        def run() {
+          flushIfDue()
+        }
+      },
+      FlushIntervalMillis, FlushIntervalMillis, TimeUnit.MILLISECONDS
+    )
+    executor
+  }
   
   def apply(event: Event) {
     synchronized {
-      out.writeObject(event)
-      out.flush()
+      encoder.write(event)
+      unflushed = true
+      val now = System.currentTimeMillis
+      if (isFlushPoint(event) || now - lastFlushTime >= FlushIntervalMillis)
+        flush(now)
     }
   }
 
-  def dispose() {
+  private def flush(now: Long) {
     out.flush()
-    out.close()
-    socket.close()
+    lastFlushTime = now
+    unflushed = false
+  }
+
+  private def flushIfDue() {
+    synchronized {
+      val now = System.currentTimeMillis
+      if (unflushed && now - lastFlushTime >= FlushIntervalMillis) {
+        try {
+          flush(now)
+        }
+        catch {
+          case e: IOException => // The connection has gone away, which the next apply will report
+        }
+      }
+    }
+  }
+
+  private def isFlushPoint(event: Event): Boolean =
+    event match {
+      case _: SuiteCompleted | _: SuiteAborted | _: RunStarting | _: RunCompleted | _: RunStopped | _: RunAborted => true
+      case _ => false
+    }
+
+  def dispose() {
+    flusher.shutdown()
+    synchronized {
+      out.flush()
+      out.close()
+      socket.close()
+    }
   }
   
-}
\ No newline at end of file
+}
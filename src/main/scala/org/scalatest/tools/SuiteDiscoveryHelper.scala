@@ -24,6 +24,7 @@ import scala.collection.mutable
 import java.io.File
 import java.net.URL
 import java.net.MalformedURLException
+import java.net.URISyntaxException
 import java.io.IOException
 import java.util.regex.Pattern
 
@@ -37,8 +38,109 @@ import java.util.regex.Pattern
  */
 private[scalatest] object SuiteDiscoveryHelper {
 
+  //
+  // Jars and directories on the local file system are discovered by reading
+  // their class files, in parallel, without loading any classes. Any other
+  // runpath entries (such as jars at http URLs) are discovered by loading
+  // their classes, as are local entries that can't be found on the file system.
+  //
   def discoverSuiteNames(runpath: List[String], loader: ClassLoader,
                          suffixes: Option[Pattern]): Set[String] =
+  {
+    val (localEntries, remoteEntries) = runpath.partition(path => localFile(path).isDefined)
+    val classes = ClassFileIndex.index(localEntries.flatMap(localFile))
+    val discovered = discoverSuiteNamesInIndex(classes, loader, suffixes)
+    if (remoteEntries.isEmpty)
+      discovered
+    else
+      discovered ++ discoverSuiteNamesByLoading(remoteEntries, loader, suffixes)
+  }
+
+  private[tools] def localFile(path: String): Option[File] = {
+    val file =
+      try {
+        val url = new URL(path)
+        if (url.getProtocol != "file")
+          None
+        else
+          try {
+            Some(new File(url.toURI)) // Decodes escapes such as %20
+          }
+          catch {
+            case e: URISyntaxException => Some(new File(url.getPath))
+            case e: IllegalArgumentException => Some(new File(url.getPath))
+          }
+      }
+      catch {
+        case e: MalformedURLException => Some(new File(path))
+      }
+    file.filter(_.exists)
+  }
+
+  //
+  // Returns the names of the classes in the passed index that are to be
+  // included in the run, by the same rules as processClassName, following
+  // superclass and interface chains through the index. Classes outside
+  // the index, such as ScalaTest's own if it isn't on the runpath, are
+  // loaded.
+  //
+  private[tools] def discoverSuiteNamesInIndex(classes: Map[String, ClassFileInfo], loader: ClassLoader,
+                                               suffixes: Option[Pattern]): Set[String] =
+  {
+    def load(className: String): Option[Class[_]] =
+      try {
+        Some(loader.loadClass(className))
+      }
+      catch {
+        case e: ClassNotFoundException => None
+        case e: NoClassDefFoundError => None
+      }
+
+    val suiteClassName = classOf[Suite].getName
+    val isSuiteCache = mutable.Map[String, Boolean]()
+    def isSuite(className: String): Boolean =
+      isSuiteCache.getOrElseUpdate(className,
+        className == suiteClassName || (
+          classes.get(className) match {
+            case Some(info) => info.superName.exists(isSuite) || info.interfaces.exists(isSuite)
+            case None => load(className).exists(classOf[Suite].isAssignableFrom(_))
+          }
+        )
+      )
+
+    // WrapWith is inherited, so look up the superclass chain
+    def wrapWith(className: String): Option[String] =
+      classes.get(className) match {
+        case Some(info) => info.wrapWith orElse info.superName.flatMap(wrapWith)
+        case None => load(className).flatMap(clazz => Option(clazz.getAnnotation(classOf[WrapWith]))).map(_.value.getName)
+      }
+
+    def hasClassArgConstructor(className: String): Boolean =
+      classes.get(className) match {
+        case Some(info) => info.hasClassArgConstructor
+        case None =>
+          load(className).exists { clazz =>
+            clazz.getDeclaredConstructors.exists { c =>
+              val types = c.getParameterTypes
+              types.length == 1 && types(0) == classOf[java.lang.Class[_]]
+            }
+          }
+      }
+
+    def isAccessibleSuite(info: ClassFileInfo): Boolean =
+      info.isPublic && !info.isAbstract && info.hasPublicNoArgConstructor && isSuite(info.name)
+
+    def isRunnable(info: ClassFileInfo): Boolean = wrapWith(info.name).exists(hasClassArgConstructor)
+
+    Set() ++ (
+      for (info <- classes.values; if classNameSuffixOkay(info.name, suffixes) && !info.isDoNotDiscover &&
+                                       (isAccessibleSuite(info) || isRunnable(info)))
+        yield info.name
+    )
+  }
+
+  private def discoverSuiteNamesByLoading(runpath: List[String], loader: ClassLoader,
+                                          suffixes: Option[Pattern]): Set[String] =
   {
     val fileSeparatorString = System.getProperty("path.separator")
     val fileSeparator = if (!fileSeparatorString.isEmpty) fileSeparatorString(0) else ':'
@@ -24,10 +24,14 @@ import Suite.formatterForSuiteCompleted
 import Suite.formatterForSuiteAborted
 import org.scalatest.exceptions.NotAllowedException
 
-private[scalatest] class SuiteRunner(suite: Suite, args: Args, status: ScalaTestStatefulStatus) extends Runnable {
+private[scalatest] class SuiteRunner(suite: Suite, args: Args, status: ScalaTestStatefulStatus, metrics: Option[RunMetrics] = None) extends Runnable {
 
   private val stopRequested = args.stopper
 
+  // A single test distributed by its suite, whose own SuiteStarting and SuiteCompleted events are fired by that suite
+  private def isDistributedTest: Boolean =
+    suite.isInstanceOf[DistributedTestRunnerSuite] || suite.isInstanceOf[DistributedTestInInstanceSuite]
+
   def run() {
 
     if (!stopRequested()) {
@@ -48,17 +52,21 @@ private[scalatest] class SuiteRunner(suite: Suite, args: Args, status: ScalaTest
 
       val suiteStartTime = System.currentTimeMillis
 
-      if (!suite.isInstanceOf[DistributedTestRunnerSuite])
+      if (!isDistributedTest)
         dispatch(SuiteStarting(tracker.nextOrdinal(), suite.suiteName, suite.suiteId, Some(suite.getClass.getName), formatter, Some(TopOfClass(suite.getClass.getName)), suite.rerunner))
         
       try {
-        val runStatus = suite.run(None, args)
+        val runStatus =
+          metrics match {
+            case Some(m) => m.suiteDurations.time { suite.run(None, args) }
+            case None => suite.run(None, args)
+          }
   
         val rawString2 = Resources("suiteCompletedNormally")
         val formatter = formatterForSuiteCompleted(suite)
 
         val duration = System.currentTimeMillis - suiteStartTime
-        if (!suite.isInstanceOf[DistributedTestRunnerSuite])
+        if (!isDistributedTest)
           dispatch(SuiteCompleted(tracker.nextOrdinal(), suite.suiteName, suite.suiteId, Some(suite.getClass.getName), Some(duration), formatter, Some(TopOfClass(suite.getClass.getName)), suite.rerunner))
           
         if (!runStatus.succeeds())
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.matchers.ShouldMatchers
+import org.scalatest.events._
+import org.scalatest.SharedHelpers.EventRecordingReporter
+import java.io.PrintStream
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class DispatchReporterSpec extends FunSpec with ShouldMatchers {
+
+  def fireRun(dispatch: DispatchReporter, testCount: Int) {
+    val tracker = new Tracker
+    dispatch(RunStarting(tracker.nextOrdinal(), testCount, ConfigMap.empty))
+    for (i <- 1 to testCount) {
+      dispatch(TestStarting(tracker.nextOrdinal(), "aSuite", "aSuite", Some("aSuite"), "test " + i, "test " + i))
+      dispatch(TestSucceeded(tracker.nextOrdinal(), "aSuite", "aSuite", Some("aSuite"), "test " + i, "test " + i, Vector.empty))
+    }
+    dispatch(RunCompleted(tracker.nextOrdinal()))
+  }
+
+  class DisposeRecordingReporter extends EventRecordingReporter with ResourcefulReporter {
+    @volatile var disposed = false
+    def dispose() {
+      disposed = true
+    }
+  }
+
+  describe("A DispatchReporter") {
+
+    for (pipelined <- List(false, true)) {
+
+      val mode = if (pipelined) "when pipelined" else "when not pipelined"
+
+      it("should forward all events in order to every reporter, " + mode) {
+        val rep1 = new EventRecordingReporter
+        val rep2 = new EventRecordingReporter
+        val dispatch = new DispatchReporter(List(rep1, rep2), new PrintStream(new ByteArrayOutputStream), pipelined)
+        fireRun(dispatch, 300)
+        dispatch.dispatchDisposeAndWaitUntilDone()
+        for (rep <- List(rep1, rep2)) {
+          val events = rep.eventsReceived
+          events should have size (602)
+          events.map(_.ordinal) should equal (events.map(_.ordinal).sorted)
+        }
+      }
+
+      it("should fill in the summary of the RunCompleted event, " + mode) {
+        val rep = new EventRecordingReporter
+        val dispatch = new DispatchReporter(List(rep), new PrintStream(new ByteArrayOutputStream), pipelined)
+        fireRun(dispatch, 5)
+        dispatch.dispatchDisposeAndWaitUntilDone()
+        rep.eventsReceived.last match {
+          case RunCompleted(_, _, Some(summary), _, _, _, _, _) =>
+            summary.testsSucceededCount should be (5)
+          case other => fail("Expected RunCompleted with a summary, but got: " + other)
+        }
+      }
+
+      it("should dispose each reporter after it has been handed every event, " + mode) {
+        val rep = new DisposeRecordingReporter
+        val dispatch = new DispatchReporter(List(rep), new PrintStream(new ByteArrayOutputStream), pipelined)
+        fireRun(dispatch, 10)
+        dispatch.dispatchDisposeAndWaitUntilDone()
+        rep.disposed should be (true)
+        rep.eventsReceived should have size (22)
+        dispatch.isDisposed should be (true)
+      }
+    }
+
+    it("should keep forwarding events to a reporter after another reporter throws when pipelined") {
+      val buggy = new Reporter {
+        def apply(event: Event) {
+          throw new RuntimeException("oops")
+        }
+      }
+      val rep = new EventRecordingReporter
+      val dispatch = new DispatchReporter(List(buggy, rep), new PrintStream(new ByteArrayOutputStream), true)
+      fireRun(dispatch, 3)
+      dispatch.dispatchDisposeAndWaitUntilDone()
+      rep.eventsReceived should have size (8)
+    }
+
+    it("should not let a stalled reporter hold up the other reporters when pipelined") {
+      val release = new CountDownLatch(1)
+      val stalled = new Reporter {
+        def apply(event: Event) {
+          release.await()
+        }
+      }
+      val completed = new CountDownLatch(1)
+      val watcher = new Reporter {
+        def apply(event: Event) {
+          event match {
+            case _: RunCompleted => completed.countDown()
+            case _ =>
+          }
+        }
+      }
+      val dispatch = new DispatchReporter(List(stalled, watcher), new PrintStream(new ByteArrayOutputStream), true)
+      try {
+        fireRun(dispatch, 10)
+        completed.await(10, TimeUnit.SECONDS) should be (true)
+      }
+      finally {
+        release.countDown()
+        dispatch.dispatchDisposeAndWaitUntilDone()
+      }
+    }
+  }
+}
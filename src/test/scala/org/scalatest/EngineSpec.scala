@@ -116,4 +116,40 @@ class EngineSpec extends FlatSpec with SharedHelpers with ShouldMatchers {
     engine.testPath("Given an empty list when 1 is inserted then the list length = 1") should be (List(0, 0, 1))
     engine.testPath("Given an empty list when 2 is inserted then the list has only 2 in it") should be (List(0, 1, 0))
   }
+
+  "Engine.registerTest" should "keep every test and its tags, in registration order, when many are registered" in {
+    val engine = new Engine("concurrentFunSuiteBundleMod", "FunSuite")
+    for (i <- 0 until 10000)
+      engine.registerTest("test " + i, () => Succeeded, "Anything", "Anything", "Anything", 1, 0, None, None, None, Tag("tag" + (i % 3)))
+    val bundle = engine.atomic.get
+    bundle.testNamesList.reverse should equal ((0 until 10000).map("test " + _).toList)
+    bundle.testsMap should have size (10000)
+    bundle.tagsMap("test 4") should be (Set("tag1"))
+  }
+
+  it should "show tests registered after testsMap was last read" in {
+    val engine = new Engine("concurrentFunSuiteBundleMod", "FunSuite")
+    engine.registerTest("first", () => Succeeded, "Anything", "Anything", "Anything", 1, 0, None, None, None)
+    engine.atomic.get.testsMap.keySet should be (Set("first"))
+    engine.registerIgnoredTest("second", () => Succeeded, "Anything", "Anything", "Anything", 1, 0, None)
+    engine.atomic.get.testsMap.keySet should be (Set("first", "second"))
+    engine.atomic.get.tagsMap should be (Map("second" -> Set(FunSuite.IgnoreTagName)))
+  }
+
+  it should "still detect a registration from another thread that interleaves with the constructing thread's" in {
+    val engine = new Engine("concurrentFunSuiteBundleMod", "FunSuite")
+    val bundleSeenByOtherThread = engine.atomic.get
+    engine.registerTest("first", () => Succeeded, "Anything", "Anything", "Anything", 1, 0, None, None, None)
+    intercept[java.util.ConcurrentModificationException] {
+      engine.updateAtomic(bundleSeenByOtherThread, bundleSeenByOtherThread)
+    }
+  }
+
+  it should "throw DuplicateTestNameException when a test name is registered twice" in {
+    val engine = new Engine("concurrentFunSuiteBundleMod", "FunSuite")
+    engine.registerTest("first", () => Succeeded, "Anything", "Anything", "Anything", 1, 0, None, None, None)
+    intercept[DuplicateTestNameException] {
+      engine.registerTest("first", () => Succeeded, "Anything", "Anything", "Anything", 1, 0, None, None, None)
+    }
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.matchers.ShouldMatchers
+import org.scalatest.events._
+import java.io.PrintStream
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import scala.collection.JavaConverters._
+
+class EventQueueSpec extends FunSpec with ShouldMatchers {
+
+  val tracker = new Tracker
+
+  def testStarting(name: String) = TestStarting(tracker.nextOrdinal(), "aSuite", "aSuite", Some("aSuite"), name, name)
+
+  def infoProvided(message: String) = InfoProvided(tracker.nextOrdinal(), message, None)
+
+  def newQueue(config: EventQueueConfig) = new EventQueue(config, new PrintStream(new ByteArrayOutputStream))
+
+  def takeBatch(queue: EventQueue): List[AnyRef] = {
+    val batch = new java.util.ArrayList[AnyRef]
+    queue.takeBatch(batch, 128)
+    batch.asScala.toList
+  }
+
+  def takeAll(queue: EventQueue, count: Int): List[AnyRef] = {
+    var taken = List[AnyRef]()
+    while (taken.length < count)
+      taken = taken ::: takeBatch(queue)
+    taken
+  }
+
+  describe("An EventQueue") {
+
+    it("should hand back events in the order they were put when unbounded") {
+      val queue = newQueue(EventQueueConfig.Unbounded)
+      val events = for (i <- 1 to 500) yield testStarting("test " + i)
+      events.foreach(queue.put)
+      queue.size should be (500)
+      takeAll(queue, 500) should equal (events.toList)
+      queue.size should be (0)
+    }
+
+    it("should block the producer when full if the overflow policy is BlockProducer") {
+      val queue = newQueue(EventQueueConfig(2, BlockProducer))
+      queue.put(testStarting("one"))
+      queue.put(testStarting("two"))
+      val putThird = new CountDownLatch(1)
+      val producer = new Thread {
+        override def run() {
+          queue.put(testStarting("three"))
+          putThird.countDown()
+        }
+      }
+      producer.start()
+      putThird.await(200, TimeUnit.MILLISECONDS) should be (false)
+      queue.size should be (2)
+      takeBatch(queue) should have size (2)
+      putThird.await(10, TimeUnit.SECONDS) should be (true)
+      takeBatch(queue) should have size (1)
+    }
+
+    it("should merge InfoProvided events that arrive while full if the overflow policy is CoalesceInfoProvided") {
+      val queue = newQueue(EventQueueConfig(1, CoalesceInfoProvided))
+      val first = testStarting("one")
+      queue.put(first)
+      queue.put(infoProvided("a"))
+      queue.put(infoProvided("b"))
+      queue.put(infoProvided("c"))
+      queue.size should be (1)
+      takeBatch(queue) should equal (List(first))
+      takeBatch(queue) match {
+        case List(info: InfoProvided) => info.message should be ("a\nb\nc")
+        case other => fail("Expected a single InfoProvided, but got: " + other)
+      }
+    }
+
+    it("should not hold back a marker behind a coalesced InfoProvided") {
+      val queue = newQueue(EventQueueConfig(1, CoalesceInfoProvided))
+      val first = testStarting("one")
+      queue.put(first)
+      queue.put(infoProvided("a"))
+      val producer = new Thread {
+        override def run() {
+          queue.put("done")
+        }
+      }
+      producer.start()
+      val taken = takeAll(queue, 3)
+      taken.head should be (first)
+      taken(1).asInstanceOf[InfoProvided].message should be ("a")
+      taken(2) should be ("done")
+    }
+
+    it("should spill events that arrive while full to disk, and hand them back in order, if the overflow policy is SpillToDisk") {
+      val queue = newQueue(EventQueueConfig(2, SpillToDisk))
+      val events = for (i <- 1 to 11) yield testStarting("test " + i)
+      events.foreach(queue.put) // Would block forever if the events weren't spilled
+      queue.size should be (11)
+      takeAll(queue, 11) should equal (events.toList)
+      queue.size should be (0)
+    }
+
+    it("should read spilled events back no more than a batch at a time if the overflow policy is SpillToDisk") {
+      val queue = newQueue(EventQueueConfig(200, SpillToDisk))
+      val events = for (i <- 1 to 1000) yield testStarting("test " + i)
+      events.foreach(queue.put)
+      var taken = List[AnyRef]()
+      while (taken.length < 1000) {
+        val batch = takeBatch(queue)
+        batch.length should be <= (128)
+        taken = taken ::: batch
+      }
+      taken should equal (events.toList)
+      queue.size should be (0)
+    }
+
+    it("should fall back to blocking for events that can't be serialized if the overflow policy is SpillToDisk") {
+      val queue = newQueue(EventQueueConfig(1, SpillToDisk))
+      val first = testStarting("one")
+      queue.put(first)
+      val unserializable = InfoProvided(tracker.nextOrdinal(), "a", None, payload = Some(new Object))
+      val putIt = new CountDownLatch(1)
+      val producer = new Thread {
+        override def run() {
+          queue.put(unserializable)
+          putIt.countDown()
+        }
+      }
+      producer.start()
+      putIt.await(200, TimeUnit.MILLISECONDS) should be (false)
+      takeBatch(queue) should equal (List(first))
+      putIt.await(10, TimeUnit.SECONDS) should be (true)
+      takeBatch(queue) should equal (List(unserializable))
+    }
+  }
+}
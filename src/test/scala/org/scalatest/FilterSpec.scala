@@ -684,5 +684,24 @@ class FilterSpec extends FunSpec {
       val insideTagSuiteTestTags = dynaFilter2.mergeTestDynamicTags(insideTagSuite.tags, insideTagSuite.suiteId, insideTagSuite.testNames)
       assertTestTags(insideTagSuiteTestTags)
     }
+
+    it("should filter the same way when more than 64 tags are included and excluded") {
+      val included = (1 to 70).map("inc" + _).toSet
+      val excluded = (1 to 70).map("exc" + _).toSet + "org.scalatest.Ignore"
+      val filter = Filter(Some(included), excluded)
+      val testTags = Map(
+        "a" -> Set("inc70"),
+        "b" -> Set("inc70", "exc70"),
+        "c" -> Set("inc1", "org.scalatest.Ignore"),
+        "d" -> Set("inc1", "org.scalatest.Ignore", "exc65"),
+        "e" -> Set("other"),
+        "f" -> Set("inc65", "other")
+      )
+      val testNames = TreeSet("a", "b", "c", "d", "e", "f", "g")
+      assert(filter(testNames, testTags, "aSuite") === List(("a", false), ("c", true), ("f", false)))
+      assert(filter.runnableTestCount(testNames, testTags, "aSuite") === 2)
+      assert(filter("c", testTags, "aSuite") === (false, true))
+      assert(filter("g", testTags, "aSuite") === (true, false))
+    }
   }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.matchers.ShouldMatchers
+import org.scalatest.events._
+import org.scalatest.SharedHelpers.EventRecordingReporter
+import org.scalatest.tools.ConcurrentDistributor
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import scala.concurrent.forkjoin.ForkJoinPool
+
+class OneInstanceParallelTestExecutionSpec extends FunSpec with ShouldMatchers {
+
+  class SynchronizedEventRecordingReporter extends EventRecordingReporter {
+    override def apply(event: Event) {
+      synchronized { super.apply(event) }
+    }
+    override def eventsReceived = synchronized { super.eventsReceived }
+  }
+
+  object ConstructionCounter {
+    val count = new AtomicInteger
+  }
+
+  // Each of the first two tests waits for the other to start, so they only both pass if they run at the same time
+  class ExampleSuite(threadSafe: Boolean, waitMillis: Long) extends FunSuite with OneInstanceParallelTestExecution {
+    ConstructionCounter.count.incrementAndGet()
+    protected def testsAreThreadSafe = threadSafe
+    val bothStarted = new CountDownLatch(2)
+    test("first") {
+      info("in first")
+      bothStarted.countDown()
+      assert(bothStarted.await(waitMillis, TimeUnit.MILLISECONDS))
+    }
+    test("second") {
+      info("in second")
+      bothStarted.countDown()
+      assert(bothStarted.await(waitMillis, TimeUnit.MILLISECONDS))
+    }
+    test("third") {
+      info("in third")
+    }
+  }
+
+  def runInPool(suite: Suite, rep: Reporter): Status = {
+    val pool = new ForkJoinPool(4)
+    try {
+      val distributor = new ConcurrentDistributor(Args(rep), pool)
+      val status = suite.run(None, Args(rep, distributor = Some(distributor)))
+      status.waitUntilCompleted()
+      status
+    }
+    finally {
+      pool.shutdown()
+    }
+  }
+
+  describe("OneInstanceParallelTestExecution") {
+
+    it("should run the tests of one instance concurrently, reporting their events in registration order") {
+      ConstructionCounter.count.set(0)
+      val rep = new SynchronizedEventRecordingReporter
+      val status = runInPool(new ExampleSuite(true, 10000), rep)
+      status.succeeds() should be (true)
+      ConstructionCounter.count.get should be (1)
+      rep.testStartingEventsReceived.map(_.testName) should equal (List("first", "second", "third"))
+      val succeeded = rep.testSucceededEventsReceived
+      succeeded.map(_.testName) should equal (List("first", "second", "third"))
+      for (event <- succeeded)
+        event.recordedEvents.map(_.asInstanceOf[InfoProvided].message) should equal (Vector("in " + event.testName))
+    }
+
+    it("should run the tests sequentially if they are not declared thread-safe") {
+      val rep = new SynchronizedEventRecordingReporter
+      runInPool(new ExampleSuite(false, 100), rep)
+      // The first test gives up waiting for the second, which passes once the first has counted down
+      rep.testFailedEventsReceived.map(_.testName) should equal (List("first"))
+      rep.testSucceededEventsReceived.map(_.testName) should equal (List("second", "third"))
+    }
+
+    it("should run the tests sequentially if no Distributor is passed") {
+      val rep = new SynchronizedEventRecordingReporter
+      new ExampleSuite(true, 100).run(None, Args(rep)).waitUntilCompleted()
+      rep.testFailedEventsReceived.map(_.testName) should equal (List("first"))
+      rep.testSucceededEventsReceived.map(_.testName) should equal (List("second", "third"))
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.matchers.ShouldMatchers
+import org.scalatest.events._
+import org.scalatest.SharedHelpers.EventRecordingReporter
+import java.io.PrintStream
+import java.io.ByteArrayOutputStream
+import java.lang.management.ManagementFactory
+
+class RunMetricsSpec extends FunSpec with ShouldMatchers {
+
+  describe("A LatencyHistogram") {
+
+    it("should report zero for everything when nothing has been recorded") {
+      val histogram = new LatencyHistogram
+      histogram.count should be (0)
+      histogram.meanNanos should be (0)
+      histogram.percentileNanos(0.99) should be (0)
+    }
+
+    it("should report percentiles to within a factor of two") {
+      val histogram = new LatencyHistogram
+      for (i <- 1 to 99)
+        histogram.record(1000)
+      histogram.record(1000000)
+      histogram.count should be (100)
+      histogram.maxNanos should be (1000000)
+      histogram.meanNanos should be ((99 * 1000 + 1000000) / 100)
+      histogram.percentileNanos(0.5) should (be >= (1000L) and be < (2000L))
+      histogram.percentileNanos(0.99) should (be >= (1000L) and be < (2000L))
+      histogram.percentileNanos(1.0) should be (1000000)
+    }
+  }
+
+  describe("A DispatchReporter's RunMetrics") {
+
+    for (pipelined <- List(false, true)) {
+
+      val mode = if (pipelined) "when pipelined" else "when not pipelined"
+
+      it("should record how long each reporter took to handle each event, " + mode) {
+        val rep = new EventRecordingReporter
+        val dispatch = new DispatchReporter(List(rep), new PrintStream(new ByteArrayOutputStream), pipelined)
+        val tracker = new Tracker
+        dispatch(RunStarting(tracker.nextOrdinal(), 1, ConfigMap.empty))
+        dispatch(RunCompleted(tracker.nextOrdinal()))
+        dispatch.dispatchDisposeAndWaitUntilDone()
+        val List(reporterMetrics) = dispatch.metrics.reporters
+        reporterMetrics.name should be (classOf[EventRecordingReporter].getName)
+        reporterMetrics.latency.count should be (2)
+      }
+    }
+
+    it("should be written as JSON that includes each phase, reporter and the pool") {
+      val metrics = new RunMetrics(List("a.Reporter"))
+      metrics.discovery.time { Thread.sleep(10) }
+      metrics.reporters.head.latency.record(2000)
+      val json = metrics.toJson
+      json should startWith ("{\"phaseMillis\":{\"discovery\":")
+      json should include ("\"suiteInstantiation\":0")
+      json should include ("\"reporter\":\"a.Reporter\",\"latency\":{\"count\":1,")
+      json should include ("\"pool\":{\"size\":0,")
+      metrics.getDiscoveryMillis should be >= (5L)
+    }
+
+    it("should be visible over JMX once registered, and not after it has been unregistered") {
+      val metrics = new RunMetrics(Nil)
+      val Some(name) = RunMetrics.register(metrics, 31415)
+      val server = ManagementFactory.getPlatformMBeanServer
+      try {
+        server.getAttribute(name, "SuitesRun") should be (0L)
+        RunMetrics.register(new RunMetrics(Nil), 31415) should be (None)
+      }
+      finally {
+        RunMetrics.unregister(name)
+      }
+      server.isRegistered(name) should be (false)
+    }
+  }
+}
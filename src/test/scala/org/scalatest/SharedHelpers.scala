@@ -16,7 +16,7 @@
 package org.scalatest
 
 import org.scalatest.events._
-import java.util.concurrent.Executors
+import scala.concurrent.forkjoin.ForkJoinPool
 import java.io.File
 import scala.annotation.tailrec
 import scala.collection.GenTraversable
@@ -332,7 +332,7 @@ trait SharedHelpers extends Assertions {
     }
   }
   
-  class TestConcurrentDistributor(poolSize: Int) extends tools.ConcurrentDistributor(Args(reporter = SilentReporter), Executors.newFixedThreadPool(poolSize)) {
+  class TestConcurrentDistributor(poolSize: Int) extends tools.ConcurrentDistributor(Args(reporter = SilentReporter), new ForkJoinPool(poolSize)) {
      override def apply(suite: Suite, tracker: Tracker) {
        throw new UnsupportedOperationException("Please use apply with args.")
      }
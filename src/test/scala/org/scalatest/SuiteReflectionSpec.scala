@@ -0,0 +1,82 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.matchers.ShouldMatchers
+import org.scalatest.SharedHelpers.EventRecordingReporter
+import java.util.concurrent.atomic.AtomicInteger
+
+class SuiteReflectionSpec extends FunSpec with ShouldMatchers {
+
+  @SlowAsMolasses
+  class ExampleSuite extends Suite {
+    @FastAsLight
+    def testFast() {}
+    def testWithInformer(info: Informer) { info("hi") }
+    def testPlain() {}
+  }
+
+  describe("SuiteReflection") {
+
+    it("should hand every instance of a class the same test names and test methods") {
+      val a = new ExampleSuite
+      val b = new ExampleSuite
+      a.testNames should equal (Set("testFast", "testPlain", "testWithInformer(Informer)"))
+      a.testNames should be theSameInstanceAs (b.testNames)
+      val method = Suite.getMethodForTestName(a, "testWithInformer(Informer)")
+      method.getParameterTypes.toList should equal (List(classOf[Informer]))
+      Suite.getMethodForTestName(b, "testWithInformer(Informer)") should be theSameInstanceAs (method)
+    }
+
+    it("should only discover the test names once for each discovery strategy") {
+      val reflection = SuiteReflection(classOf[ExampleSuite])
+      val discoveries = new AtomicInteger
+      for (i <- 1 to 3)
+        reflection.testNames("counting") { methods => discoveries.incrementAndGet(); Set("a") } should equal (Set("a"))
+      discoveries.get should be (1)
+    }
+
+    it("should not cache a failed lookup") {
+      val suite = new ExampleSuite
+      intercept[IllegalArgumentException] {
+        Suite.getMethodForTestName(suite, "testMissing")
+      }
+      intercept[IllegalArgumentException] {
+        Suite.getMethodForTestName(suite, "testMissing")
+      }
+    }
+
+    it("should report the tags of the test methods and the class") {
+      val suite = new ExampleSuite
+      suite.tags should equal (
+        Map(
+          "testFast" -> Set(classOf[FastAsLight].getName, classOf[SlowAsMolasses].getName),
+          "testPlain" -> Set(classOf[SlowAsMolasses].getName),
+          "testWithInformer(Informer)" -> Set(classOf[SlowAsMolasses].getName)
+        )
+      )
+      suite.testDataFor("testFast").tags should equal (Set(classOf[FastAsLight].getName, classOf[SlowAsMolasses].getName))
+    }
+
+    it("should still run the tests of a class whose methods it has cached") {
+      for (i <- 1 to 2) {
+        val rep = new EventRecordingReporter
+        (new ExampleSuite).run(None, Args(rep))
+        rep.testSucceededEventsReceived should have size (3)
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest
+
+import org.scalatest.matchers.ShouldMatchers
+import org.scalatest.events.Ordinal
+import java.util.concurrent.CountDownLatch
+
+class TrackerSpec extends FunSpec with ShouldMatchers {
+
+  // Runs f on each of threadCount threads, all released at once, and returns what each returned
+  def onManyThreads[T](threadCount: Int)(f: => T): List[T] = {
+    val start = new CountDownLatch(1)
+    val results = new Array[Any](threadCount)
+    val threads =
+      for (i <- 0 until threadCount) yield
+        new Thread {
+          override def run() {
+            start.await()
+            results(i) = f
+          }
+        }
+    threads.foreach(_.start())
+    start.countDown()
+    threads.foreach(_.join())
+    results.toList.asInstanceOf[List[T]]
+  }
+
+  describe("A Tracker") {
+
+    it("should return the Ordinal it was constructed with, then the next ones in order, from nextOrdinal") {
+      val first = new Ordinal(99)
+      val tracker = new Tracker(first)
+      tracker.nextOrdinal() should be (first)
+      tracker.nextOrdinal() should be (first.next)
+      tracker.nextOrdinal() should be (first.next.next)
+    }
+
+    it("should place a nested Tracker's Ordinals after those returned so far, and before those returned from then on") {
+      val tracker = new Tracker(new Ordinal(99))
+      val before = tracker.nextOrdinal()
+      val nested = tracker.nextTracker()
+      val after = tracker.nextOrdinal()
+      val inNested = nested.nextOrdinal()
+      before should be < (inNested)
+      inNested should be < (after)
+    }
+
+    it("should hand out each Ordinal exactly once when nextOrdinal is invoked by many threads at once") {
+      val tracker = new Tracker(new Ordinal(99))
+      val perThread = onManyThreads(16) {
+        for (i <- 0 until 1000) yield tracker.nextOrdinal()
+      }
+      val all = perThread.flatten
+      all.distinct should have size (16000)
+      for (ordinals <- perThread)
+        ordinals.toList should equal (ordinals.toList.sorted) // Each thread sees increasing ordinals
+      all.sorted.last.toList should equal (List(99, 15999))
+    }
+
+    it("should give each concurrently obtained nested Tracker a distinct Ordinal series") {
+      val tracker = new Tracker(new Ordinal(99))
+      val nestedFirsts = onManyThreads(16) {
+        for (i <- 0 until 100) yield tracker.nextTracker().nextOrdinal()
+      }.flatten
+      nestedFirsts.distinct should have size (1600)
+      tracker.nextOrdinal().toList should equal (List(99, 1600))
+    }
+  }
+}
@@ -243,5 +243,13 @@ class AsyncAssertionsSpec extends fixture.FunSpec with ShouldMatchers with Share
 
       con.conduct()
     }
+
+    it("should return once it has been dismissed the given number of times by many threads at once") { con =>
+      val w = new Waiter
+      val threads = for (i <- 1 to 100) yield new Thread { override def run() { w.dismiss() } }
+      threads.foreach(_.start())
+      w.await(timeout(Span(10000, Millis)), dismissals(100))
+      threads.foreach(_.join())
+    }
   }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.concurrent
+
+import org.scalatest.FunSpec
+import org.scalatest.matchers.ShouldMatchers
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class BeatClockSpec extends FunSpec with ShouldMatchers {
+
+  // Starts a thread that waits for the passed beat, then counts down the passed latch
+  def waitingFor(clock: BeatClock, beat: Int, reached: CountDownLatch): Thread = {
+    val thread = new Thread { override def run() { clock.waitForBeat(beat); reached.countDown() } }
+    thread.start()
+    thread
+  }
+
+  def eventually(condition: => Boolean) {
+    val deadline = System.nanoTime + TimeUnit.SECONDS.toNanos(10)
+    while (!condition && System.nanoTime < deadline)
+      Thread.sleep(1)
+    condition should be (true)
+  }
+
+  describe("A BeatClock") {
+
+    it("should start at beat 0, and return straight away from waitForBeat for a beat already reached") {
+      val clock = new BeatClock
+      clock.currentBeat should be (0)
+      clock.advance()
+      clock.currentBeat should be (1)
+      clock.waitForBeat(1)
+      clock.waitingThreadCount should be (0)
+      clock.isAnyThreadWaitingForABeat should be (false)
+    }
+
+    it("should release only the threads waiting for the beat it advances to") {
+      val clock = new BeatClock
+      val reachedOne = new CountDownLatch(3)
+      val reachedTwo = new CountDownLatch(2)
+      for (i <- 1 to 3) waitingFor(clock, 1, reachedOne)
+      for (i <- 1 to 2) waitingFor(clock, 2, reachedTwo)
+      eventually { clock.waitingThreadCount == 5 }
+      clock.isAnyThreadWaitingForABeat should be (true)
+      clock.advance()
+      clock.waitingThreadCount should be (2) // No longer counted, even before they have woken up
+      reachedOne.await(10, TimeUnit.SECONDS) should be (true)
+      reachedTwo.getCount should be (2)
+      clock.advance()
+      reachedTwo.await(10, TimeUnit.SECONDS) should be (true)
+      clock.waitingThreadCount should be (0)
+    }
+
+    it("should tell onWaiting how many threads are waiting each time a thread is about to wait") {
+      val counts = new java.util.concurrent.ConcurrentLinkedQueue[Int]
+      val clock = new BeatClock(count => counts.add(count))
+      val reached = new CountDownLatch(2)
+      waitingFor(clock, 1, reached)
+      eventually { clock.waitingThreadCount == 1 }
+      waitingFor(clock, 1, reached)
+      eventually { clock.waitingThreadCount == 2 }
+      clock.advance()
+      reached.await(10, TimeUnit.SECONDS) should be (true)
+      counts.toArray.toList should equal (List(1, 2))
+    }
+
+    it("should not count a thread as waiting once the beat it waits for is reached, even if that happens as it starts waiting") {
+      var clock: BeatClock = null
+      var countAfterAdvance = -1
+      // Advances just as the waiting thread is counted, as the clock thread could when woken by onWaiting
+      clock = new BeatClock({ count => clock.advance(); countAfterAdvance = clock.waitingThreadCount })
+      clock.waitForBeat(1)
+      countAfterAdvance should be (0)
+      clock.waitingThreadCount should be (0)
+    }
+
+    it("should release every one of a thousand threads waiting for the same beat") {
+      val clock = new BeatClock
+      val reached = new CountDownLatch(1000)
+      val threads = for (i <- 1 to 1000) yield waitingFor(clock, 1, reached)
+      eventually { clock.waitingThreadCount == 1000 }
+      clock.advance()
+      reached.await(10, TimeUnit.SECONDS) should be (true)
+      threads.foreach(_.join())
+    }
+
+    it("should not advance while it is frozen") {
+      val clock = new BeatClock
+      val frozen = new CountDownLatch(1)
+      val thaw = new CountDownLatch(1)
+      val freezer = new Thread { override def run() { clock.withClockFrozen { frozen.countDown(); thaw.await() } } }
+      freezer.start()
+      frozen.await()
+      clock.isFrozen should be (true)
+      val advancer = new Thread { override def run() { clock.advance() } }
+      advancer.start()
+      advancer.join(100)
+      clock.currentBeat should be (0)
+      thaw.countDown()
+      advancer.join()
+      clock.currentBeat should be (1)
+      clock.isFrozen should be (false)
+    }
+  }
+}
@@ -445,4 +445,38 @@ class ConductorSuite extends FunSuite with ShouldMatchers with Conductors with S
     tf.head.throwable should be ('defined)
     tf.head.throwable.get should be theSameInstanceAs e
   }
+
+  test("a Conductor asked for virtual threads uses them only if the JVM supports them") {
+    new Conductor(virtualThreads = true).usesVirtualThreads should be (VirtualThreads.areSupported)
+    new Conductor().usesVirtualThreads should be (false)
+  }
+
+  test("a Conductor asked for virtual threads conducts hundreds of threads through their beats") {
+    val conductor = new Conductor(virtualThreads = true)
+    import conductor._
+    val reachedBeatTwo = new java.util.concurrent.atomic.AtomicInteger
+    for (i <- 1 to 500)
+      thread {
+        waitForBeat(1)
+        waitForBeat(2)
+        reachedBeatTwo.incrementAndGet()
+      }
+    conductor.conduct()
+    reachedBeatTwo.get should be (500)
+    conductor.beat should be (2)
+  }
+
+  test("the beat advances as soon as every thread is waiting for one, without waiting out the clock interval") {
+    val conductor = new Conductor
+    import conductor._
+    thread {
+      waitForBeat(1)
+      waitForBeat(2)
+      waitForBeat(3)
+    }
+    val startNanos = System.nanoTime
+    conductor.conduct(timeout(Span(60000, Millis)), interval(Span(10000, Millis)))
+    conductor.beat should be (3)
+    System.nanoTime - startNanos should be < (Span(10000, Millis).totalNanos)
+  }
 }
@@ -220,6 +220,69 @@ class EventuallySpec extends FunSpec with ShouldMatchers with OptionValues with
       } should produce [TestFailedException]
       count should be > (1)
     }
+    it("should double the time it waits after each failed attempt, up to the interval, and never past the timeout") {
+      val config = PatienceConfig(timeout = Span(1000, Millis), interval = Span(100, Millis))
+      val millis = 1000000L
+      Eventually.nanosBeforeNextAttempt(1, 0, config) should be (10 * millis)
+      Eventually.nanosBeforeNextAttempt(2, 10 * millis, config) should be (20 * millis)
+      Eventually.nanosBeforeNextAttempt(3, 30 * millis, config) should be (40 * millis)
+      Eventually.nanosBeforeNextAttempt(4, 70 * millis, config) should be (80 * millis)
+      Eventually.nanosBeforeNextAttempt(5, 150 * millis, config) should be (100 * millis)
+      Eventually.nanosBeforeNextAttempt(1, 200 * millis, config) should be (100 * millis)
+      Eventually.nanosBeforeNextAttempt(9, 950 * millis, config) should be (50 * millis)
+    }
+
+    it("should throw InterruptedException if the waiting thread is interrupted, as Thread.sleep would") {
+      var count = 0
+      intercept[InterruptedException] {
+        eventually(timeout(Span(10000, Millis)), interval(Span(100, Millis))) {
+          count += 1
+          Thread.currentThread.interrupt()
+          1 + 1 should equal (3)
+        }
+      }
+      count should equal (1)
+    }
   }
-}
 
+  describe("The eventuallyAsync construct") {
+
+    it("should return a Future that completes with the result of the first attempt that succeeds") {
+      val count = new java.util.concurrent.atomic.AtomicInteger
+      val future =
+        eventuallyAsync {
+          if (count.incrementAndGet() < 5) throw new RuntimeException("not yet")
+          "done"
+        }
+      future.get should be ("done")
+      future.isDone should be (true)
+      count.get should equal (5)
+    }
+
+    it("should return a Future that fails with a TestFailedDueToTimeoutException pointing at the call if it never succeeds") {
+      val future = eventuallyAsync { 1 + 1 should equal (3) } (PatienceConfig(timeout = Span(100, Millis), interval = Span(10, Millis)))
+      val caught =
+        intercept[java.util.concurrent.ExecutionException] {
+          future.get
+        }
+      val tfe = caught.getCause.asInstanceOf[TestFailedDueToTimeoutException]
+      tfe.message.value should include ("Last failure message: 2 did not equal 3.")
+      tfe.failedCodeFileName.value should equal ("EventuallySpec.scala")
+      tfe.failedCodeLineNumber.value should equal (thisLineNumber - 8)
+    }
+
+    it("should make no more attempts once the Future is cancelled") {
+      val count = new java.util.concurrent.atomic.AtomicInteger
+      val future = eventuallyAsync { count.incrementAndGet(); 1 + 1 should equal (3) } (PatienceConfig(timeout = Span(10000, Millis), interval = Span(10, Millis)))
+      Thread.sleep(50)
+      future.cancel(false) should be (true)
+      future.isCancelled should be (true)
+      val countWhenCancelled = count.get
+      Thread.sleep(50)
+      count.get should be <= (countWhenCancelled + 1) // One attempt may have been running as it was cancelled
+      intercept[java.util.concurrent.CancellationException] {
+        future.get
+      }
+    }
+  }
+}
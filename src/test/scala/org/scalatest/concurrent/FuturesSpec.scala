@@ -333,6 +333,50 @@ class FuturesSpec extends FunSpec with ShouldMatchers with OptionValues with Fut
           tpeFuture.futureValue
         }
       }
+
+      it("should return as soon as the future is ready, without waiting out the interval, if the future can notify") {
+        val completed = new java.util.concurrent.CountDownLatch(1)
+        val listeners = new java.util.concurrent.CopyOnWriteArrayList[Runnable]
+        val notifyingFuture =
+          new FutureConcept[String] {
+            def eitherValue: Option[Either[Throwable, String]] = if (completed.getCount == 0) Some(Right("hi")) else None
+            def isExpired: Boolean = false
+            def isCanceled: Boolean = false
+            override def notifyWhenReady(listener: Runnable): Boolean = {
+              listeners.add(listener)
+              true
+            }
+          }
+        val completer = new Thread {
+          override def run() {
+            Thread.sleep(50)
+            completed.countDown()
+            val it = listeners.iterator
+            while (it.hasNext)
+              it.next.run()
+          }
+        }
+        completer.start()
+        val startNanos = System.nanoTime
+        notifyingFuture.futureValue(timeout(Span(20, Seconds)), interval(Span(10, Seconds))) should equal ("hi")
+        System.nanoTime - startNanos should be < (Span(5, Seconds).totalNanos)
+        listeners.size should be (1)
+      }
+
+      it("should still report the line of the futureValue invocation if a notifying future returns an exception") {
+        val failingFuture =
+          new FutureConcept[String] {
+            def eitherValue: Option[Either[Throwable, String]] = Some(Left(new RuntimeException("oops")))
+            def isExpired: Boolean = false
+            def isCanceled: Boolean = false
+            override def notifyWhenReady(listener: Runnable): Boolean = { listener.run(); true }
+          }
+        val caught = evaluating {
+          failingFuture.futureValue
+        } should produce [TestFailedException]
+        caught.failedCodeLineNumber.value should equal (thisLineNumber - 2)
+        caught.failedCodeFileName.value should be ("FuturesSpec.scala")
+      }
     }
 
     describe("when using the whenReady construct") {
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.concurrent
+
+import org.scalatest.FunSpec
+import org.scalatest.matchers.ShouldMatchers
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class TimerWheelSpec extends FunSpec with ShouldMatchers {
+
+  val millis = TimeUnit.MILLISECONDS.toNanos(1)
+
+  def withWheel(f: TimerWheel => Unit) {
+    val wheel = new TimerWheel(millis, 8, "TimerWheelSpec")
+    try f(wheel) finally wheel.stop()
+  }
+
+  def countDown(latch: CountDownLatch) = new Runnable { def run() { latch.countDown() } }
+
+  describe("A TimerWheel") {
+
+    it("should run a scheduled task no sooner than its deadline") {
+      withWheel { wheel =>
+        val ran = new CountDownLatch(1)
+        val start = System.nanoTime
+        val timeout = wheel.schedule(50 * millis, countDown(ran))
+        ran.await(10, TimeUnit.SECONDS) should be (true)
+        System.nanoTime - start should be >= (50 * millis)
+        timeout.isExpired should be (true)
+        wheel.pending should be (0)
+      }
+    }
+
+    it("should run a task whose deadline is more than one turn of the wheel away") {
+      withWheel { wheel =>
+        val ran = new CountDownLatch(1)
+        val start = System.nanoTime
+        wheel.schedule(30 * millis, countDown(ran)) // The wheel turns every 8 milliseconds
+        ran.await(10, TimeUnit.SECONDS) should be (true)
+        System.nanoTime - start should be >= (30 * millis)
+      }
+    }
+
+    it("should not run a task that was cancelled before its deadline") {
+      withWheel { wheel =>
+        val ran = new CountDownLatch(1)
+        val timeout = wheel.schedule(50 * millis, countDown(ran))
+        timeout.cancel() should be (true)
+        timeout.cancel() should be (false)
+        timeout.isCancelled should be (true)
+        wheel.pending should be (0)
+        ran.await(150, TimeUnit.MILLISECONDS) should be (false)
+      }
+    }
+
+    it("should run each of many tasks scheduled from many threads exactly once") {
+      withWheel { wheel =>
+        val ran = new AtomicInteger
+        val done = new CountDownLatch(4000)
+        val task = new Runnable { def run() { ran.incrementAndGet(); done.countDown() } }
+        val threads =
+          for (t <- 0 until 4) yield
+            new Thread {
+              override def run() {
+                for (i <- 0 until 1000)
+                  wheel.schedule((i % 20) * millis, task)
+              }
+            }
+        threads.foreach(_.start())
+        threads.foreach(_.join())
+        done.await(10, TimeUnit.SECONDS) should be (true)
+        ran.get should be (4000)
+      }
+    }
+
+    it("should keep running tasks after one of them throws an exception") {
+      withWheel { wheel =>
+        val ran = new CountDownLatch(1)
+        val handler = new Thread.UncaughtExceptionHandler { def uncaughtException(t: Thread, e: Throwable) {} }
+        wheel.schedule(0, new Runnable { def run() { Thread.currentThread.setUncaughtExceptionHandler(handler); throw new RuntimeException } })
+        wheel.schedule(10 * millis, countDown(ran))
+        ran.await(10, TimeUnit.SECONDS) should be (true)
+      }
+    }
+  }
+}
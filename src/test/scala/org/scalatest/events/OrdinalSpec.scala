@@ -254,5 +254,50 @@ class OrdinalSpec extends FunSpec with ShouldMatchers with Checkers {
         }
       )
     }
+
+    // The order documented for Ordinal, expressed directly in terms of the toList form
+    def compareLists(a: List[Int], b: List[Int]): Int =
+      (a, b) match {
+        case (x :: xs, y :: ys) => if (x != y) x - y else compareLists(xs, ys)
+        case _ => a.length - b.length
+      }
+
+    it("should compare the same as the list form given by toList, whether or not Ordinals share a common ancestor") {
+      check(
+        (steps: List[Boolean], otherSteps: List[Boolean], otherRunStamp: Boolean) => {
+          def build(runStamp: Int, steps: List[Boolean]): List[Ordinal] =
+            steps.scanLeft(new Ordinal(runStamp)) { (ord, isNew) =>
+              if (isNew) ord.nextNewOldPair._1 else ord.next
+            }
+          val ords = build(99, steps.take(30))
+          val fromSameAncestor = ords.flatMap(ord => List(ord.next, ord.nextNewOldPair._1))
+          val independent = build(if (otherRunStamp) 98 else 99, otherSteps.take(30))
+          val all = ords ::: fromSameAncestor ::: independent
+          all.forall { a =>
+            all.forall { b =>
+              val expected =
+                if (a.runStamp != b.runStamp) a.runStamp - b.runStamp
+                else compareLists(a.toList.tail, b.toList.tail)
+              a.compare(b) == expected
+            }
+          }
+        }
+      )
+    }
+
+    it("should be equal to, and have the same hashCode as, an Ordinal with the same list form built independently") {
+      check(
+        (steps: List[Boolean]) => {
+          var ord = new Ordinal(99)
+          var otherOrd = new Ordinal(99)
+          for (isNew <- steps) {
+            ord = if (isNew) ord.nextNewOldPair._1 else ord.next
+            otherOrd = if (isNew) otherOrd.nextNewOldPair._1 else otherOrd.next
+          }
+          ord == otherOrd && ord.hashCode == otherOrd.hashCode && ord.compare(otherOrd) == 0 &&
+            ord.hashCode == 41 * (41 + 99) + java.util.Arrays.hashCode(ord.toList.tail.toArray)
+        }
+      )
+    }
   }
 }
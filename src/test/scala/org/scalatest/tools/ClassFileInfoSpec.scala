@@ -0,0 +1,131 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.matchers.ShouldMatchers
+import java.io.ByteArrayInputStream
+import java.io.File
+
+class ClassFileInfoSpec extends FunSpec with ShouldMatchers {
+
+  def infoOf(clazz: Class[_]): ClassFileInfo = {
+    val in = clazz.getResourceAsStream("/" + clazz.getName.replace('.', '/') + ".class")
+    try {
+      ClassFileInfo.read(in).getOrElse(fail("Could not read the class file of " + clazz.getName))
+    }
+    finally {
+      in.close()
+    }
+  }
+
+  def locationOf(clazz: Class[_]): File = new File(clazz.getProtectionDomain.getCodeSource.getLocation.toURI)
+
+  describe("ClassFileInfo.read") {
+
+    it("should read the name, superclass and interfaces of a class") {
+      val info = infoOf(classOf[SuiteDiscoveryHelperSuite])
+      info.name should be ("org.scalatest.tools.SuiteDiscoveryHelperSuite")
+      info.superName should be (Some("java.lang.Object"))
+      info.interfaces should contain ("org.scalatest.Suite")
+    }
+
+    it("should read whether a class is public, is abstract, and has a public no-arg constructor") {
+      val suite = infoOf(classOf[SuiteDiscoveryHelperSuite])
+      suite.isPublic should be (true)
+      suite.isAbstract should be (false)
+      suite.hasPublicNoArgConstructor should be (true)
+      infoOf(classOf[PackageAccessSuite]).isPublic should be (false)
+      infoOf(classOf[FunSuite]).isAbstract should be (true)
+      infoOf(classOf[NotAccessibleSuite]).hasPublicNoArgConstructor should be (false)
+    }
+
+    it("should read the DoNotDiscover and WrapWith annotations") {
+      infoOf(classOf[NormalSuite]).isDoNotDiscover should be (true)
+      infoOf(classOf[SuiteDiscoveryHelperSuite]).isDoNotDiscover should be (false)
+      infoOf(classOf[SomeApiClass]).wrapWith should be (Some("org.scalatest.tools.SomeApiClassRunner"))
+      infoOf(classOf[SomeApiClassRunner]).hasClassArgConstructor should be (true)
+      infoOf(classOf[SuiteDiscoveryHelperSuite]).wrapWith should be (None)
+    }
+
+    it("should return None for bytes that aren't a class file") {
+      ClassFileInfo.read(new ByteArrayInputStream("not a class file".getBytes)) should be (None)
+      ClassFileInfo.read(new ByteArrayInputStream(Array[Byte](0xCA.toByte, 0xFE.toByte, 0xBA.toByte, 0xBE.toByte))) should be (None)
+    }
+  }
+
+  describe("SuiteDiscoveryHelper") {
+
+    it("should discover accessible and runnable suites from class files") {
+      val testClasses = locationOf(classOf[SuiteDiscoveryHelperSuite])
+      val runpath = List(testClasses.getPath)
+      val loader = getClass.getClassLoader
+      val suffixes = Some(java.util.regex.Pattern.compile(".*tools.*"))
+      val classes = ClassFileIndex.index(runpath.map(new File(_)))
+      val fromClassFiles = SuiteDiscoveryHelper.discoverSuiteNamesInIndex(classes, loader, suffixes)
+      fromClassFiles should contain ("org.scalatest.tools.SuiteDiscoveryHelperSuite")
+      fromClassFiles should contain ("org.scalatest.tools.SomeApiClass")
+      fromClassFiles should not contain ("org.scalatest.tools.PackageAccessSuite")
+      fromClassFiles should not contain ("org.scalatest.tools.SomeApiClassRunner") // No public no-arg constructor
+      SuiteDiscoveryHelper.discoverSuiteNames(runpath, loader, suffixes) should equal (fromClassFiles)
+    }
+
+    it("should reuse the index of a runpath entry that hasn't changed") {
+      val entry = locationOf(classOf[SuiteDiscoveryHelperSuite])
+      val first = ClassFileIndex.entryIndex(entry)
+      ClassFileIndex.entryIndex(entry) should be theSameInstanceAs (first)
+    }
+
+    it("should read back the indexes of runpath entries from a cache file written by an earlier run") {
+      val entry = locationOf(classOf[SuiteDiscoveryHelperSuite])
+      val file = File.createTempFile("ClassFileInfoSpec", ".cache")
+      try {
+        val written = ClassFileIndex.entryIndex(entry)
+        ClassFileIndex.saveCacheFile(file)
+        ClassFileIndex.clearCache()
+        ClassFileIndex.loadCacheFile(file)
+        val read = ClassFileIndex.entryIndex(entry)
+        read should not be theSameInstanceAs (written)
+        read should equal (written)
+      }
+      finally {
+        file.delete()
+      }
+    }
+
+    it("should ignore a corrupt cache file") {
+      val file = File.createTempFile("ClassFileInfoSpec", ".cache")
+      try {
+        val out = new java.io.DataOutputStream(new java.io.FileOutputStream(file))
+        try {
+          out.writeInt(1) // The current version
+          out.writeInt(1)
+          out.writeUTF("/no/such/entry")
+          out.writeLong(0L)
+          out.writeLong(0L)
+          out.writeInt(Int.MaxValue) // A bogus class count, with no classes following it
+        }
+        finally {
+          out.close()
+        }
+        ClassFileIndex.loadCacheFile(file) // Must not throw
+      }
+      finally {
+        file.delete()
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.events._
+import org.scalatest.matchers.ShouldMatchers
+import java.util.concurrent.atomic.AtomicInteger
+import org.scalatest.SharedHelpers.SilentReporter
+import scala.concurrent.forkjoin.ForkJoinPool
+
+class ConcurrentDistributorSpecLeafSuite extends FunSuite {
+  test("one") {}
+  test("two") {}
+}
+
+// Top level, so that ParallelTestExecution can instantiate it
+class ConcurrentDistributorSpecParallelLeafSpec extends FunSpec with ParallelTestExecution {
+  it("one") {}
+  it("two") {}
+  it("three") {}
+}
+
+class ConcurrentDistributorSpec extends FunSpec with ShouldMatchers {
+
+  // A binary tree of Suites, depth levels deep, whose leaves are made by leaf
+  def nestedTree(depth: Int)(leaf: => Suite): Suite =
+    if (depth == 0) leaf else new Suites(nestedTree(depth - 1)(leaf), nestedTree(depth - 1)(leaf))
+
+  class SucceededCountingReporter extends Reporter {
+    val count = new AtomicInteger
+    def apply(event: Event) {
+      event match {
+        case _: TestSucceeded => count.incrementAndGet()
+        case _ =>
+      }
+    }
+  }
+
+  def runDistributed(suite: Suite, poolSize: Int): Int = {
+    val pool = new ForkJoinPool(poolSize)
+    try {
+      val reporter = new SucceededCountingReporter
+      val distributor = new ConcurrentDistributor(Args(reporter), pool)
+      val status = distributor(suite, Args(reporter, distributor = Some(distributor)))
+      distributor.waitUntilDone()
+      status.succeeds() should be (true)
+      reporter.count.get
+    }
+    finally {
+      pool.shutdown()
+    }
+  }
+
+  describe("A ConcurrentDistributor") {
+
+    it("should run a deeply nested tree of suites to completion with a pool of one thread") {
+      runDistributed(nestedTree(5)(new ConcurrentDistributorSpecLeafSuite), 1) should be (64)
+    }
+
+    it("should run the tests of nested suites that use ParallelTestExecution to completion with a pool of two threads") {
+      runDistributed(nestedTree(3)(new ConcurrentDistributorSpecParallelLeafSpec), 2) should be (24)
+    }
+
+    it("should complete the returned status once the suite has run") {
+      val pool = new ForkJoinPool(2)
+      try {
+        val distributor = new ConcurrentDistributor(Args(SilentReporter), pool)
+        val status = distributor(new ConcurrentDistributorSpecLeafSuite, Args(SilentReporter))
+        status.waitUntilCompleted()
+        status.isCompleted should be (true)
+        status.succeeds() should be (true)
+      }
+      finally {
+        pool.shutdown()
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.events._
+import org.scalatest.matchers.ShouldMatchers
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+
+class EventCodecSpec extends FunSpec with ShouldMatchers {
+
+  val tracker = new Tracker(new Ordinal(99))
+
+  def roundTrip(events: List[Event]): (List[Event], Int) = {
+    val bytes = new ByteArrayOutputStream
+    val encoder = new EventEncoder(bytes)
+    events.foreach(encoder.write)
+    val in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))
+    val decoder = new EventDecoder(getClass.getClassLoader)
+    decoder.readHeader(in)
+    val decoded = Iterator.continually(decoder.readFrame(in)).takeWhile(_.isDefined).map(_.get).toList
+    (decoded, bytes.size)
+  }
+
+  def nameInfo = NameInfo("aSuite", "aSuiteId", Some("a.Suite"), Some("a test"))
+
+  describe("The event codec") {
+
+    it("should read back every kind of event as it was written") {
+      val info = InfoProvided(tracker.nextOrdinal(), "some info", Some(nameInfo), None, Some(IndentedText("- info", "info", 1)),
+                              Some(LineInFile(42, "ASuite.scala")), Some("a payload"))
+      val events = List(
+        DiscoveryStarting(tracker.nextOrdinal(), ConfigMap("a" -> "b")),
+        DiscoveryCompleted(tracker.nextOrdinal(), Some(5L)),
+        RunStarting(tracker.nextOrdinal(), 3, ConfigMap("a" -> 1)),
+        SuiteStarting(tracker.nextOrdinal(), "aSuite", "aSuiteId", Some("a.Suite"), Some(MotionToSuppress), Some(TopOfClass("a.Suite")), Some("a.Suite")),
+        ScopeOpened(tracker.nextOrdinal(), "a scope", nameInfo, location = Some(SeeStackDepthException)),
+        TestStarting(tracker.nextOrdinal(), "aSuite", "aSuiteId", Some("a.Suite"), "a test", "test", location = Some(TopOfMethod("a.Suite", "def a()"))),
+        info,
+        TestSucceeded(tracker.nextOrdinal(), "aSuite", "aSuiteId", Some("a.Suite"), "a test", "test", Vector(info), Some(10L)),
+        TestIgnored(tracker.nextOrdinal(), "aSuite", "aSuiteId", Some("a.Suite"), "b test", "test"),
+        TestPending(tracker.nextOrdinal(), "aSuite", "aSuiteId", Some("a.Suite"), "c test", "test", Vector.empty),
+        MarkupProvided(tracker.nextOrdinal(), "*markup*", None),
+        ScopePending(tracker.nextOrdinal(), "a scope", nameInfo),
+        ScopeClosed(tracker.nextOrdinal(), "a scope", nameInfo),
+        SuiteCompleted(tracker.nextOrdinal(), "aSuite", "aSuiteId", Some("a.Suite"), Some(20L)),
+        RunStopped(tracker.nextOrdinal(), Some(30L), Some(Summary(1, 0, 1, 1, 0, 1, 0, 1))),
+        RunCompleted(tracker.nextOrdinal(), Some(30L), Some(Summary(1, 0, 1, 1, 0, 1, 0, 1)))
+      )
+      roundTrip(events)._1 should equal (events)
+    }
+
+    it("should read back throwables by message and type, and events that carry them") {
+      val failed = TestFailed(tracker.nextOrdinal(), "it failed", "aSuite", "aSuiteId", Some("a.Suite"), "a test", "test", Vector.empty,
+                              Some(new IllegalStateException("boom")))
+      val canceled = TestCanceled(tracker.nextOrdinal(), "canceled", "aSuite", "aSuiteId", None, "a test", "test", Vector.empty, None)
+      val aborted = SuiteAborted(tracker.nextOrdinal(), "aborted", "aSuite", "aSuiteId", None, Some(new RuntimeException("bang")))
+      val runAborted = RunAborted(tracker.nextOrdinal(), "run aborted", None)
+      val List(readFailed: TestFailed, readCanceled, readAborted: SuiteAborted, readRunAborted) = roundTrip(List(failed, canceled, aborted, runAborted))._1
+      readFailed.copy(throwable = None) should equal (failed.copy(throwable = None))
+      readFailed.throwable.get.getClass should be (classOf[IllegalStateException])
+      readFailed.throwable.get.getMessage should be ("boom")
+      readCanceled should equal (canceled)
+      readAborted.throwable.get.getMessage should be ("bang")
+      readRunAborted should equal (runAborted)
+    }
+
+    it("should drop payloads that can't be serialized") {
+      val event = InfoProvided(tracker.nextOrdinal(), "info", None, payload = Some(new Object))
+      roundTrip(List(event))._1 should equal (List(event.copy(payload = None)))
+    }
+
+    it("should write each repeated name only once") {
+      def testStarting(i: Int) = TestStarting(tracker.nextOrdinal(), "aSuiteWithAVeryLongName", "aSuiteWithAVeryLongNameId",
+                                              Some("a.SuiteWithAVeryLongName"), "test " + i, "t", threadName = "aThread", timeStamp = 0)
+      val (_, oneSize) = roundTrip(List(testStarting(0)))
+      val (_, tenSize) = roundTrip((0 until 10).map(testStarting).toList)
+      (tenSize - oneSize) should be < (9 * 60) // Each name would take more than 60 bytes on its own
+    }
+  }
+}
@@ -1,7 +1,8 @@
 package org.scalatest.tools
 
 import org.scalatest._
-import org.scalatest.events.{SuiteCompleted, SuiteAborted, Ordinal, TestStarting}
+import org.scalatest.events.{SuiteCompleted, SuiteAborted, SuiteStarting, Ordinal, TestStarting, TestSucceeded}
+import java.io.File
 
 class HtmlReporterSpec extends Spec with SharedHelpers {
 
@@ -50,6 +51,21 @@ class HtmlReporterSpec extends Spec with SharedHelpers {
       }
       assert(e.getMessage === "Expected SuiteStarting for completion event: " + suiteAborted + " in the head of suite events, but we got: " + testStarting) 
     }
+    
+    def `should write each suite's page when it completes, keeping only its counts for the index page` {
+      val tempDir = createTempDirectory()
+      val holder = new SuiteResultHolder
+      val htmlRep = new HtmlReporter(tempDir.getAbsolutePath, false, false, false, false, None, Some(holder))
+      val ordinal = new Ordinal(99)
+      htmlRep(SuiteStarting(ordinal, "TestSuite", "TestSuite", Some("TestSuite")))
+      htmlRep(TestStarting(ordinal.next, "TestSuite", "TestSuite", Some("TestSuite"), "A Test", "A Test"))
+      htmlRep(TestSucceeded(ordinal.next.next, "TestSuite", "TestSuite", Some("TestSuite"), "A Test", "A Test", Vector.empty))
+      htmlRep(SuiteCompleted(ordinal.next.next.next, "TestSuite", "TestSuite", Some("TestSuite")))
+      assert(new File(tempDir, "TestSuite.html").exists)
+      assert(holder.suiteList.length === 1)
+      assert(holder.suiteList.head.testsSucceededCount === 1)
+      assert(holder.suiteList.head.eventList.isEmpty)
+    }
   }
   
 }
\ No newline at end of file
@@ -270,4 +270,28 @@ class JUnitXmlReporterSuite extends FunSuite {
     assert(!(tcPending \ "skipped").isEmpty)
     assert(!(tcCanceled \ "skipped").isEmpty)
   }
+
+  test("a suite's events may arrive out of order, and a failure message may span lines") {
+    val ord = new Ordinal(323)
+    val ords = Stream.iterate(ord.next)(_.next)
+    val start = SuiteStarting(ords(0), "suite4", "suiteId4", None, None, None, None, None, "thread1", 123123)
+    val startTest = TestStarting(ordinal = ords(1), suiteName = "suite4", suiteId = "suiteId4", suiteClassName = Some("Suite4Class"),
+                                 testName = "a fail test", testText = "a fail test text")
+    val failTest = TestFailed(ordinal = ords(2), message = "line one\nline <two>", suiteName = "suite4", suiteId = "suiteId4",
+                              suiteClassName = Some("Suite4Class"), testName = "a fail test", testText = "a fail test text",
+                              recordedEvents = Vector.empty[RecordableEvent])
+    val complete = SuiteCompleted(ords(3), "suite4", "suiteId4", None, None, None, None, None, None, "thread1", 123456)
+
+    reporter(startTest)
+    reporter(start)
+    reporter(failTest)
+    reporter(complete)
+
+    val file = new File("target/TEST-suiteId4.xml")
+    val loadnode = xml.XML.loadFile(file)
+    assert((loadnode \ "@failures").toString === "1")
+    assert((loadnode \ "@tests").toString === "1")
+    assert((loadnode \\ "failure" \ "@message").text === "line one\nline <two>")
+    file.delete
+  }
 }
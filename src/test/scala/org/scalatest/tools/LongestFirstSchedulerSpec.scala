@@ -0,0 +1,63 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.matchers.ShouldMatchers
+import java.io.File
+
+class LongestFirstSchedulerSpec extends FunSpec with ShouldMatchers {
+
+  def noDurationsFile = new File("target/no-such-dir/durations.xml")
+
+  describe("LongestFirstScheduler") {
+
+    it("should estimate each suite as the sum of the average durations of its tests") {
+      val durations = Durations(noDurationsFile)
+      durations.addDuration("a", "A", "test 1", "run1", 100)
+      durations.addDuration("a", "A", "test 1", "run2", 300)
+      durations.addDuration("a", "A", "test 2", "run1", 50)
+      durations.addDuration("b", "B", "test 1", "run1", 10)
+      LongestFirstScheduler.estimatesFrom(durations) should equal (Map("a" -> 250L, "b" -> 10L))
+    }
+
+    it("should return no estimates if the durations file doesn't exist") {
+      LongestFirstScheduler.loadEstimates(noDurationsFile) should be ('empty)
+    }
+
+    it("should order suites longest first, keeping the original order of suites with equal estimates") {
+      val estimates = Map("a" -> 10L, "b" -> 30L, "c" -> 20L, "d" -> 30L)
+      val schedule = LongestFirstScheduler.schedule(List("a", "b", "c", "d"), estimates, 2)(identity)
+      schedule.ordered should equal (List("b", "d", "c", "a"))
+    }
+
+    it("should predict the makespan of handing each suite in order to the first free thread") {
+      val estimates = Map("a" -> 7L, "b" -> 5L, "c" -> 4L, "d" -> 3L, "e" -> 3L)
+      // a -> thread 1 (7), b -> thread 2 (5), c -> thread 2 (9), d -> thread 1 (10), e -> thread 2 (12)
+      val schedule = LongestFirstScheduler.schedule(List("e", "d", "c", "b", "a"), estimates, 2)(identity)
+      schedule.predictedMakespan should be (12)
+    }
+
+    it("should take a suite without recorded durations to be as long as the average suite with some") {
+      val estimates = Map("a" -> 10L, "b" -> 30L)
+      val schedule = LongestFirstScheduler.schedule(List("a", "new", "b"), estimates, 1)(identity)
+      schedule.ordered should equal (List("b", "new", "a"))
+      schedule.predictedMakespan should be (60)
+      schedule.suitesWithHistoryCount should be (2)
+      schedule.suitesWithoutHistoryCount should be (1)
+    }
+  }
+}
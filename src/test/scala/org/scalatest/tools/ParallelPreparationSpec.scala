@@ -0,0 +1,117 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.matchers.ShouldMatchers
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import scala.concurrent.forkjoin.ForkJoinPool
+
+class ParallelPreparationSpec extends FunSpec with ShouldMatchers {
+
+  def withPool(f: ForkJoinPool => Unit) {
+    val pool = new ForkJoinPool(4)
+    try f(pool)
+    finally pool.shutdown()
+  }
+
+  describe("ParallelPreparation") {
+
+    it("should map items on the pool concurrently, returning the results in order") {
+      withPool { pool =>
+        val allStarted = new CountDownLatch(3)
+        val results =
+          ParallelPreparation.map(List(1, 2, 3), pool) { i =>
+            allStarted.countDown()
+            allStarted.await(10, TimeUnit.SECONDS) // Only returns true if all three ran at once
+            (i * 10, allStarted.getCount)
+          }
+        results should equal (Vector((10, 0L), (20, 0L), (30, 0L)))
+      }
+    }
+
+    it("should rethrow the exception thrown for the first item that failed") {
+      withPool { pool =>
+        val first = new IllegalStateException("2")
+        val caught =
+          intercept[IllegalStateException] {
+            ParallelPreparation.map(List(1, 2, 3), pool) { i =>
+              if (i == 2) throw first
+              else if (i == 3) throw new IllegalStateException("3")
+              else i
+            }
+          }
+        caught should be theSameInstanceAs (first)
+      }
+    }
+
+    it("should instantiate a DiscoverySuite's nested suites, and count their tests, on the pool") {
+      withPool { pool =>
+        val loader = classOf[ParallelPreparationSpec].getClassLoader
+        val suiteNames = Set(classOf[ParallelPreparationFirstSuite].getName, classOf[ParallelPreparationSecondSuite].getName)
+        val discoverySuite = new DiscoverySuite("org.scalatest.tools", suiteNames, true, loader, Some(pool))
+        discoverySuite.nestedSuites.map(_.getClass.getName).toSet should equal (suiteNames)
+        val filter = Filter(None, Set("org.scalatest.Ignore"))
+        val sequentialCount = discoverySuite.expectedTestCount(filter) + new ParallelPreparationFirstSuite().expectedTestCount(filter)
+        ParallelPreparation.expectedTestCount(List((discoverySuite, filter), (new ParallelPreparationFirstSuite, filter)), pool) should be (sequentialCount)
+        sequentialCount should be (5)
+      }
+    }
+
+    it("should count the tests recorded for a DiscoverySuite's nested suites, without instantiating them, if every one has some") {
+      withPool { pool =>
+        val loader = classOf[ParallelPreparationSpec].getClassLoader
+        val suiteNames = Set(classOf[ParallelPreparationFirstSuite].getName, "org.scalatest.tools.NoSuchSuite")
+        val discoverySuite = new DiscoverySuite("org.scalatest.tools", suiteNames, true, loader, Some(pool)) // Would fail to instantiate
+        val recorded = Map(classOf[ParallelPreparationFirstSuite].getName -> 2, "org.scalatest.tools.NoSuchSuite" -> 7)
+        val filter = Filter(None, Set("org.scalatest.Ignore"))
+        ParallelPreparation.expectedTestCount(List((discoverySuite, filter), (new ParallelPreparationSecondSuite, filter)), pool, recorded) should be (10)
+      }
+    }
+
+    it("should instantiate and count a DiscoverySuite's nested suites if its filter excludes tags other than Ignore") {
+      withPool { pool =>
+        val loader = classOf[ParallelPreparationSpec].getClassLoader
+        val suiteNames = Set(classOf[ParallelPreparationFirstSuite].getName, classOf[ParallelPreparationSecondSuite].getName)
+        val discoverySuite = new DiscoverySuite("org.scalatest.tools", suiteNames, true, loader, Some(pool))
+        val recorded = Map(classOf[ParallelPreparationFirstSuite].getName -> 20, classOf[ParallelPreparationSecondSuite].getName -> 10)
+        val filter = Filter(None, Set("org.scalatest.Ignore", "SlowAsMolasses"))
+        ParallelPreparation.expectedTestCount(List((discoverySuite, filter)), pool, recorded) should be (3)
+      }
+    }
+
+    it("should instantiate and count a DiscoverySuite's nested suites if one of them has no recorded tests") {
+      withPool { pool =>
+        val loader = classOf[ParallelPreparationSpec].getClassLoader
+        val suiteNames = Set(classOf[ParallelPreparationFirstSuite].getName, classOf[ParallelPreparationSecondSuite].getName)
+        val discoverySuite = new DiscoverySuite("org.scalatest.tools", suiteNames, true, loader, Some(pool))
+        val recorded = Map(classOf[ParallelPreparationFirstSuite].getName -> 20)
+        ParallelPreparation.expectedTestCount(List((discoverySuite, Filter(None, Set("org.scalatest.Ignore")))), pool, recorded) should be (3)
+      }
+    }
+  }
+}
+
+class ParallelPreparationFirstSuite extends FunSuite {
+  test("one") {}
+  test("two") {}
+}
+
+class ParallelPreparationSecondSuite extends FunSuite {
+  test("one") {}
+  ignore("ignored") {}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.events._
+import org.scalatest.matchers.ShouldMatchers
+import java.io.ByteArrayOutputStream
+import java.io.PrintStream
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import scala.collection.JavaConverters._
+
+class RemoteEventReceiverSpec extends FunSpec with ShouldMatchers {
+
+  def fireRun(reporter: SocketReporter, suiteId: String, testCount: Int) {
+    val tracker = new Tracker
+    reporter(RunStarting(tracker.nextOrdinal(), testCount, ConfigMap.empty))
+    reporter(SuiteStarting(tracker.nextOrdinal(), suiteId, suiteId, None))
+    for (i <- 1 to testCount) {
+      reporter(TestStarting(tracker.nextOrdinal(), suiteId, suiteId, None, "test " + i, "test " + i))
+      reporter(TestSucceeded(tracker.nextOrdinal(), suiteId, suiteId, None, "test " + i, "test " + i, Vector.empty))
+    }
+    reporter(InfoProvided(tracker.nextOrdinal(), "a big payload", None, payload = Some("x" * 100000))) // Larger than the receive buffer
+    reporter(SuiteCompleted(tracker.nextOrdinal(), suiteId, suiteId, None))
+    reporter(RunCompleted(tracker.nextOrdinal()))
+  }
+
+  describe("A RemoteEventReceiver") {
+
+    it("should receive, in order, every event sent by each of many SocketReporters over connections that are open at once") {
+      val received = new ConcurrentLinkedQueue[Event]
+      val runsCompleted = new CountDownLatch(8)
+      val receiver = new RemoteEventReceiver(getClass.getClassLoader, { batch =>
+        for (event <- batch) {
+          received.add(event)
+          if (event.isInstanceOf[RunCompleted])
+            runsCompleted.countDown()
+        }
+      })
+      receiver.start()
+      try {
+        val reporters = for (i <- 1 to 8) yield new SocketReporter("127.0.0.1", receiver.port)
+        val threads =
+          for ((reporter, i) <- reporters.zipWithIndex) yield
+            new Thread {
+              override def run() {
+                fireRun(reporter, "suite" + i, 200 * i)
+                reporter.dispose()
+              }
+            }
+        threads.foreach(_.start())
+        threads.foreach(_.join())
+        runsCompleted.await(30, TimeUnit.SECONDS) should be (true)
+      }
+      finally {
+        receiver.close()
+      }
+      val events = received.asScala.toList
+      for (i <- 0 until 8) {
+        val suiteEvents = events.filter {
+          case e: TestSucceeded => e.suiteId == "suite" + i
+          case _ => false
+        }
+        suiteEvents should have size (200 * i)
+        suiteEvents.map(_.ordinal) should equal (suiteEvents.map(_.ordinal).sorted)
+      }
+      events.filter(_.isInstanceOf[RunCompleted]) should have size (8)
+    }
+
+    it("should keep receiving from the other connections after handling one connection's events throws") {
+      val runsCompleted = new ConcurrentLinkedQueue[String]
+      val done = new CountDownLatch(1)
+      val errOut = new ByteArrayOutputStream
+      val receiver = new RemoteEventReceiver(getClass.getClassLoader, { batch =>
+        for (event <- batch) {
+          event match {
+            case e: SuiteStarting if e.suiteId == "bad" => throw new ClassCastException("bad")
+            case e: SuiteCompleted =>
+              runsCompleted.add(e.suiteId)
+              done.countDown()
+            case _ =>
+          }
+        }
+      }, new PrintStream(errOut))
+      receiver.start()
+      try {
+        val bad = new SocketReporter("127.0.0.1", receiver.port)
+        fireRun(bad, "bad", 1)
+        bad.dispose()
+        val good = new SocketReporter("127.0.0.1", receiver.port)
+        fireRun(good, "good", 1)
+        good.dispose()
+        done.await(10, TimeUnit.SECONDS) should be (true)
+      }
+      finally {
+        receiver.close()
+      }
+      runsCompleted.asScala.toList should equal (List("good"))
+      errOut.toString should include ("ClassCastException")
+    }
+
+    it("should receive an event a SocketReporter buffered even if no more events follow it") {
+      val received = new CountDownLatch(2)
+      val receiver = new RemoteEventReceiver(getClass.getClassLoader, batch => batch.foreach(_ => received.countDown()))
+      receiver.start()
+      val reporter = new SocketReporter("127.0.0.1", receiver.port)
+      try {
+        val tracker = new Tracker
+        reporter(RunStarting(tracker.nextOrdinal(), 1, ConfigMap.empty))
+        reporter(TestStarting(tracker.nextOrdinal(), "aSuite", "aSuite", None, "a test", "a test")) // Not a flush point
+        received.await(10, TimeUnit.SECONDS) should be (true)
+      }
+      finally {
+        reporter.dispose()
+        receiver.close()
+      }
+    }
+  }
+}
@@ -42,7 +42,10 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       expectedSuffixes: Option[Pattern], 
       expectedChosenStyleList: List[String], 
       expectedScaleFactorList: List[String], 
-      expectedTestSortingReporterTimeoutList: List[String]
+      expectedTestSortingReporterTimeoutList: List[String], 
+      expectedEventQueueList: List[String], 
+      expectedShardList: List[String], 
+      expectedRunMetricsList: List[String]
     ) = {
 
       val (
@@ -60,7 +63,10 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
         suffixes, 
         chosenStyleList, 
         spanScaleFactorList,
-        testSortingReporterTimeoutList
+        testSortingReporterTimeoutList, 
+        eventQueueList, 
+        shardList, 
+        runMetricsList
       ) = Runner.parseArgs(args)
 
       assert(runpathList === expectedRunpathList)
@@ -77,6 +83,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       assert(chosenStyleList === expectedChosenStyleList)
       assert(spanScaleFactorList == expectedScaleFactorList)
       assert(testSortingReporterTimeoutList == expectedTestSortingReporterTimeoutList)
+      assert(eventQueueList == expectedEventQueueList)
+      assert(shardList == expectedShardList)
+      assert(runMetricsList == expectedRunMetricsList)
       if (expectedSuffixes.isEmpty) {
         assert(suffixes.isEmpty)
       } else {
@@ -102,6 +111,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -123,6 +135,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -142,6 +157,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -163,6 +181,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -184,6 +205,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -205,6 +229,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -227,6 +254,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Try a TestNGSuite
@@ -249,6 +279,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Try a junit Suite
@@ -271,6 +304,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -u option
@@ -293,6 +329,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -q option
@@ -315,6 +354,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite)$")), 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -q option
@@ -337,6 +379,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite)$")), 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -Q option
@@ -359,6 +404,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite|foo)$")), 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
   }
@@ -383,7 +431,10 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       expectedSuffixes: Option[Pattern], 
       expectedChosenStyleList: List[String], 
       expectedSpanScaleFactorList: List[String], 
-      expectedTestSortingReporterTimeoutList: List[String]
+      expectedTestSortingReporterTimeoutList: List[String], 
+      expectedEventQueueList: List[String], 
+      expectedShardList: List[String], 
+      expectedRunMetricsList: List[String]
     ) = {
 
       val (
@@ -401,7 +452,10 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
         suffixes, 
         chosenStyleList, 
         spanScaleFactorList, 
-        testSortingReporterTimeoutList
+        testSortingReporterTimeoutList, 
+        eventQueueList, 
+        shardList, 
+        runMetricsList
       ) = Runner.parseArgs(args)
 
       assert(runpathList === expectedRunpathList)
@@ -418,6 +472,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       assert(chosenStyleList === expectedChosenStyleList)
       assert(spanScaleFactorList == expectedSpanScaleFactorList)
       assert(testSortingReporterTimeoutList == expectedTestSortingReporterTimeoutList)
+      assert(eventQueueList == expectedEventQueueList)
+      assert(shardList == expectedShardList)
+      assert(runMetricsList == expectedRunMetricsList)
       if (expectedSuffixes.isEmpty) {
         assert(suffixes.isEmpty)
       } else {
@@ -443,6 +500,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -464,6 +524,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -483,6 +546,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -504,6 +570,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -525,6 +594,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -546,6 +618,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
 
@@ -568,6 +643,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Try a TestNGSuite
@@ -590,6 +668,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Try a junit Suite
@@ -612,6 +693,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -u option
@@ -634,6 +718,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -q option
@@ -656,6 +743,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite)$")), 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -q option
@@ -678,6 +768,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite)$")), 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -Q option
@@ -700,6 +793,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite|foo)$")), 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -F option
@@ -722,6 +818,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite|foo)$")), 
       Nil, 
       List("-F", "200"), 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -T option
@@ -744,7 +843,78 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       Some(Pattern.compile(".*(Spec|Suite|foo)$")), 
       Nil, 
       Nil, 
-      List("-T", "20")
+      List("-T", "20"), 
+      Nil, 
+      Nil, 
+      Nil
+    )
+    // Test -B option
+    verify(
+      Array("-P", "-g", "-R", "\"serviceuitest-1.1beta4.jar myjini http://myhost:9998/myfile.jar\"",
+          "-s", "SuiteOne", "-BD", "10000"),
+      List("-p", "\"serviceuitest-1.1beta4.jar myjini http://myhost:9998/myfile.jar\""),
+      List("-g"),
+      List("-s", "SuiteOne"),
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      List("-c"),
+      Nil,
+      Nil,
+      Nil,
+      None, 
+      Nil, 
+      Nil, 
+      Nil, 
+      List("-BD", "10000"), 
+      Nil, 
+      Nil
+    )
+    // Test -J option
+    verify(
+      Array("-P", "-g", "-R", "\"serviceuitest-1.1beta4.jar myjini http://myhost:9998/myfile.jar\"",
+          "-s", "SuiteOne", "-J", "4"),
+      List("-p", "\"serviceuitest-1.1beta4.jar myjini http://myhost:9998/myfile.jar\""),
+      List("-g"),
+      List("-s", "SuiteOne"),
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      List("-c"),
+      Nil,
+      Nil,
+      Nil,
+      None, 
+      Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
+      List("-J", "4"), 
+      Nil
+    )
+    // Test -M option
+    verify(
+      Array("-g", "-s", "SuiteOne", "-M", "target/metrics.json"),
+      Nil,
+      List("-g"),
+      List("-s", "SuiteOne"),
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      Nil,
+      None, 
+      Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
+      List("-M", "target/metrics.json")
     )
     // Test -h option
     verify(
@@ -766,6 +936,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
     // Test -h -Y option
@@ -788,6 +961,9 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
       None, 
       Nil, 
       Nil, 
+      Nil, 
+      Nil, 
+      Nil, 
       Nil
     )
   }
@@ -1298,6 +1474,56 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
     assert(spanScaleFactor === 888)
   }
   
+  def testParseEventQueueConfig() {
+    assert(Runner.parseEventQueueConfig(Nil) === EventQueueConfig.Unbounded)
+    assert(Runner.parseEventQueueConfig(List("-B", "100")) === EventQueueConfig(100, BlockProducer))
+    assert(Runner.parseEventQueueConfig(List("-BC", "200")) === EventQueueConfig(200, CoalesceInfoProvided))
+    assert(Runner.parseEventQueueConfig(List("-BD", "300")) === EventQueueConfig(300, SpillToDisk))
+    intercept[IllegalArgumentException] {
+      Runner.parseEventQueueConfig(List("-BX", "100"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseEventQueueConfig(List("-B", "abc"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseEventQueueConfig(List("-B", "0"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseEventQueueConfig(List("-B"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseEventQueueConfig(List("-B", "100", "-B", "200"))
+    }
+  }
+
+  def testParseShardCount() {
+    assert(Runner.parseShardCount(Nil) === 0)
+    assert(Runner.parseShardCount(List("-J", "4")) === 4)
+    intercept[IllegalArgumentException] {
+      Runner.parseShardCount(List("-J", "four"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseShardCount(List("-J", "0"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseShardCount(List("-J"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseShardCount(List("-J", "2", "-J", "3"))
+    }
+  }
+
+  def testParseRunMetricsFile() {
+    assert(Runner.parseRunMetricsFile(Nil) === None)
+    assert(Runner.parseRunMetricsFile(List("-M", "metrics.json")) === Some(new java.io.File("metrics.json")))
+    intercept[IllegalArgumentException] {
+      Runner.parseRunMetricsFile(List("-M"))
+    }
+    intercept[IllegalArgumentException] {
+      Runner.parseRunMetricsFile(List("-M", "a.json", "-M", "b.json"))
+    }
+  }
+
   def testParseConcurrentConfig() {
     val emptyConcurrentConfig = Runner.parseConcurrentConfig(List.empty)
     assert(emptyConcurrentConfig.numThreads === 0)
@@ -1334,6 +1560,39 @@ class RunnerSuite() extends Suite with PrivateMethodTester {
     val multipDashPSThreadNum = Runner.parseConcurrentConfig(List("-cS8", "-c10"))
     assert(multipDashPSThreadNum.numThreads === 8)
     assert(multipDashPSThreadNum.enableSuiteSortingReporter === true)
+    assert(multipDashPSThreadNum.enablePipelinedReporters === false)
+    
+    val singleDashPR = Runner.parseConcurrentConfig(List("-cR"))
+    assert(singleDashPR.numThreads === 0)
+    assert(singleDashPR.enableSuiteSortingReporter === false)
+    assert(singleDashPR.enablePipelinedReporters === true)
+    
+    val singleDashPSRThreadNum = Runner.parseConcurrentConfig(List("-cSR8"))
+    assert(singleDashPSRThreadNum.numThreads === 8)
+    assert(singleDashPSRThreadNum.enableSuiteSortingReporter === true)
+    assert(singleDashPSRThreadNum.enablePipelinedReporters === true)
+    
+    val multiDashPRThreadNum = Runner.parseConcurrentConfig(List("-cR", "-c4"))
+    assert(multiDashPRThreadNum.numThreads === 4)
+    assert(multiDashPRThreadNum.enablePipelinedReporters === true)
+    assert(multiDashPRThreadNum.enableLongestFirst === false)
+    
+    val singleDashPLThreadNum = Runner.parseConcurrentConfig(List("-cL6"))
+    assert(singleDashPLThreadNum.numThreads === 6)
+    assert(singleDashPLThreadNum.enableLongestFirst === true)
+    assert(singleDashPLThreadNum.enablePipelinedReporters === false)
+    
+    val singleDashPSRLThreadNum = Runner.parseConcurrentConfig(List("-cSRL2"))
+    assert(singleDashPSRLThreadNum.numThreads === 2)
+    assert(singleDashPSRLThreadNum.enableSuiteSortingReporter === true)
+    assert(singleDashPSRLThreadNum.enablePipelinedReporters === true)
+    assert(singleDashPSRLThreadNum.enableLongestFirst === true)
+    assert(singleDashPSRLThreadNum.enableParallelPreparation === false)
+    
+    val singleDashPLCThreadNum = Runner.parseConcurrentConfig(List("-cLC8"))
+    assert(singleDashPLCThreadNum.numThreads === 8)
+    assert(singleDashPLCThreadNum.enableLongestFirst === true)
+    assert(singleDashPLCThreadNum.enableParallelPreparation === true)
   }
 
 /*
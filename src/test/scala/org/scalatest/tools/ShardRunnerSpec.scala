@@ -0,0 +1,77 @@
+/*
+ * Copyright 2001-2013 Artima, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.scalatest.tools
+
+import org.scalatest._
+import org.scalatest.events._
+import org.scalatest.matchers.ShouldMatchers
+
+class ShardRunnerSpec extends FunSpec with ShouldMatchers {
+
+  def item(name: String) = ShardItem(Some(name), List("-s", name))
+
+  describe("ShardRunner") {
+
+    it("should split -s arguments into one item per suite, keeping the -t, -z and -i arguments that follow each") {
+      val items = ShardRunner.suiteItems(List("-s", "a.One", "-t", "test 1", "-z", "wild", "-s", "a.Two", "-s", "a.Three", "-i", "nested", "-t", "test 2"))
+      items should equal (
+        List(
+          ShardItem(Some("a.One"), List("-s", "a.One", "-t", "test 1", "-z", "wild")),
+          ShardItem(Some("a.Two"), List("-s", "a.Two")),
+          ShardItem(Some("a.Three"), List("-s", "a.Three", "-i", "nested", "-t", "test 2"))
+        )
+      )
+    }
+
+    it("should deal suites out evenly when there are no estimates") {
+      val items = (1 to 7).toList.map(i => item("Suite" + i))
+      val shards = ShardRunner.partition(items, 3, Map.empty)
+      shards.map(_.length) should equal (List(3, 2, 2))
+      shards.flatten.toSet should equal (items.toSet)
+    }
+
+    it("should even out the estimated durations across shards") {
+      val estimates = Map("A" -> 90L, "B" -> 50L, "C" -> 40L, "D" -> 30L, "E" -> 20L, "F" -> 10L)
+      val shards = ShardRunner.partition(List("F", "E", "D", "C", "B", "A").map(item), 2, estimates)
+      shards.map(_.flatMap(_.suiteClassName).map(estimates).sum) should equal (List(120L, 120L))
+    }
+
+    it("should leave shards empty when there are fewer suites than shards") {
+      val shards = ShardRunner.partition(List(item("A")), 3, Map.empty)
+      shards.map(_.length) should equal (List(1, 0, 0))
+    }
+
+    it("should pass on this JVM's options to the child JVMs, except those that start a debugger") {
+      val options = List("-Xmx2g", "-Dsome.property=value", "-Xdebug", "-agentlib:jdwp=transport=dt_socket,server=y,address=5005", "-javaagent:agent.jar")
+      ShardRunner.childJvmOptions(options) should equal (List("-Xmx2g", "-Dsome.property=value", "-javaagent:agent.jar"))
+    }
+
+    it("should restamp forwarded events, and the events recorded in them, with ordinals from the shard's tracker") {
+      val childTracker = new Tracker(new Ordinal(1))
+      val info = InfoProvided(childTracker.nextOrdinal(), "recorded", None)
+      val succeeded = TestSucceeded(childTracker.nextOrdinal(), "aSuite", "aSuite", Some("aSuite"), "a test", "a test", Vector(info))
+      val parentTracker = new Tracker(new Ordinal(1))
+      parentTracker.nextOrdinal() // The ordinal the child's events collide with
+      val shardTracker = parentTracker.nextTracker
+      val restamped = ShardRunner.restamp(succeeded, shardTracker).asInstanceOf[TestSucceeded]
+      restamped.recordedEvents.head.ordinal should be < (restamped.ordinal)
+      restamped.recordedEvents.head.ordinal should not equal (info.ordinal)
+      restamped.ordinal should not equal (succeeded.ordinal)
+      restamped.ordinal should be < (parentTracker.nextOrdinal())
+      restamped.copy(ordinal = succeeded.ordinal, recordedEvents = Vector(info)) should equal (succeeded)
+    }
+  }
+}
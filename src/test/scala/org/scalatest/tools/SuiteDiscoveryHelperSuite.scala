@@ -221,4 +221,18 @@ class SuiteDiscoveryHelperSuite extends Suite {
     assert(sdtf.isRunnable(classOf[SomeApiClass]))
     assert(sdtf.isRunnable(classOf[SomeApiSubClass]))
   }
+
+  def testLocalFileDecodesFileURLs() {
+    val dir = File.createTempFile("my dir", "")
+    dir.delete()
+    dir.mkdir()
+    try {
+      assert(SuiteDiscoveryHelper.localFile(dir.toURI.toString) === Some(dir))
+      assert(SuiteDiscoveryHelper.localFile(dir.getPath) === Some(dir))
+      assert(SuiteDiscoveryHelper.localFile(new File(dir, "missing.jar").toURI.toString) === None)
+    }
+    finally {
+      dir.delete()
+    }
+  }
 }